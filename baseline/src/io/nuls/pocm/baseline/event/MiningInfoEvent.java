@@ -1,7 +1,7 @@
-package io.nuls.pocm.contract.event;
+package io.nuls.pocm.baseline.event;
 
 import io.nuls.contract.sdk.Event;
-import io.nuls.pocm.contract.model.MiningInfo;
+import io.nuls.pocm.baseline.model.MiningInfo;
 
 /**
  * Mining Information Event
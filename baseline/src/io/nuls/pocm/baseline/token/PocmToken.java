@@ -0,0 +1,204 @@
+package io.nuls.pocm.baseline.token;
+
+import io.nuls.pocm.baseline.ownership.Ownable;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Msg;
+import io.nuls.contract.sdk.annotation.Required;
+import io.nuls.contract.sdk.annotation.View;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.emit;
+import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.pocm.baseline.util.PocmUtil.*;
+
+/**
+ * @author: Long
+ * @date: 2019-03-15
+ */
+public class PocmToken extends Ownable implements Token {
+
+    private final String name;
+    private final String symbol;
+    private final int decimals;
+    private BigInteger totalSupply;
+
+    private Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
+    private Map<Address, Map<Address, BigInteger>> allowed = new HashMap<Address, Map<Address, BigInteger>>();
+
+    @Override
+    @View
+    public String name() {
+        return name;
+    }
+
+    @Override
+    @View
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    @View
+    public int decimals() {
+        return decimals;
+    }
+
+    @Override
+    @View
+    public BigInteger totalSupply() {
+        return totalSupply;
+    }
+
+    public PocmToken(String name, String symbol, BigInteger initialAmount, int decimals,
+                     String[] receiverAddress, long[] receiverAmount) {
+        BigInteger receiverTotalAmount = BigInteger.ZERO;
+        if (receiverAddress != null && receiverAmount != null) {
+            require(receiverAddress.length == receiverAmount.length, "接收Token的地址个数与设置的数量个数不一致");
+            require(convertStringToAddres(receiverAddress) != null, "接收Token的地址中有非法地址");
+            require(checkAmount(receiverAmount), "接收数量的数组中有非法输入");
+            receiverTotalAmount = sumAmount(receiverAmount);
+            require(initialAmount.compareTo(receiverTotalAmount) >= 0, "初始化发放的Token数量不能超过总发行量");
+        }
+        require(checkValidity(name.trim()), "Token的名称不符合要求");
+        require(checkValidity(symbol.trim()), "Token的符号不符合要求");
+        require(decimals < 19, "Token使用的小数位数不超过18位");
+        this.name = name;
+        this.symbol = symbol;
+        this.decimals = decimals;
+        this.totalSupply = initialAmount.multiply(BigInteger.TEN.pow(decimals));
+    }
+
+    @Override
+    @View
+    public BigInteger allowance(@Required Address owner, @Required Address spender) {
+        Map<Address, BigInteger> ownerAllowed = allowed.get(owner);
+        if (ownerAllowed == null) {
+            return BigInteger.ZERO;
+        }
+        BigInteger value = ownerAllowed.get(spender);
+        if (value == null) {
+            value = BigInteger.ZERO;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean transferFrom(@Required Address from, @Required Address to, @Required BigInteger value) {
+        subtractAllowed(from, Msg.sender(), value);
+        subtractBalance(from, value);
+        addBalance(to, value);
+        emit(new TransferEvent(from, to, value));
+        return true;
+    }
+
+    @Override
+    @View
+    public BigInteger balanceOf(@Required Address owner) {
+        require(owner != null);
+        BigInteger balance = balances.get(owner);
+        if (balance == null) {
+            balance = BigInteger.ZERO;
+        }
+        return balance;
+    }
+
+    @Override
+    public boolean transfer(@Required Address to, @Required BigInteger value) {
+        subtractBalance(Msg.sender(), value);
+        addBalance(to, value);
+        emit(new TransferEvent(Msg.sender(), to, value));
+        return true;
+    }
+
+    @Override
+    public boolean approve(@Required Address spender, @Required BigInteger value) {
+        setAllowed(Msg.sender(), spender, value);
+        emit(new ApprovalEvent(Msg.sender(), spender, value));
+        return true;
+    }
+
+    public boolean increaseApproval(@Required Address spender, @Required BigInteger addedValue) {
+        addAllowed(Msg.sender(), spender, addedValue);
+        emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
+        return true;
+    }
+
+    public boolean decreaseApproval(@Required Address spender, @Required BigInteger subtractedValue) {
+        check(subtractedValue);
+        BigInteger oldValue = allowance(Msg.sender(), spender);
+        if (subtractedValue.compareTo(oldValue) > 0) {
+            setAllowed(Msg.sender(), spender, BigInteger.ZERO);
+        } else {
+            subtractAllowed(Msg.sender(), spender, subtractedValue);
+        }
+        emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
+        return true;
+    }
+
+    private void addAllowed(Address address1, Address address2, BigInteger value) {
+        BigInteger allowance = allowance(address1, address2);
+        check(allowance);
+        check(value);
+        setAllowed(address1, address2, allowance.add(value));
+    }
+
+    private void subtractAllowed(Address address1, Address address2, BigInteger value) {
+        BigInteger allowance = allowance(address1, address2);
+        check(allowance, value, "Insufficient approved token");
+        setAllowed(address1, address2, allowance.subtract(value));
+    }
+
+    private void setAllowed(Address address1, Address address2, BigInteger value) {
+        check(value);
+        Map<Address, BigInteger> address1Allowed = allowed.get(address1);
+        if (address1Allowed == null) {
+            address1Allowed = new HashMap<Address, BigInteger>();
+            allowed.put(address1, address1Allowed);
+        }
+        address1Allowed.put(address2, value);
+    }
+
+    protected void addBalance(Address address, BigInteger value) {
+        BigInteger balance = balanceOf(address);
+        check(value, "The value must be greater than or equal to 0.");
+        check(balance);
+        balances.put(address, balance.add(value));
+    }
+
+    private void subtractBalance(Address address, BigInteger value) {
+        BigInteger balance = balanceOf(address);
+        check(balance, value, "Insufficient balance of token.");
+        balances.put(address, balance.subtract(value));
+    }
+
+    private void check(BigInteger value) {
+        require(value != null && value.compareTo(BigInteger.ZERO) >= 0);
+    }
+
+    private void check(BigInteger value1, BigInteger value2) {
+        check(value1);
+        check(value2);
+        require(value1.compareTo(value2) >= 0);
+    }
+
+    private void check(BigInteger value, String msg) {
+        require(value != null && value.compareTo(BigInteger.ZERO) >= 0, msg);
+    }
+
+    private void check(BigInteger value1, BigInteger value2, String msg) {
+        check(value1);
+        check(value2);
+        require(value1.compareTo(value2) >= 0, msg);
+    }
+
+    protected BigInteger getTotalSupply() {
+        return totalSupply;
+    }
+
+    protected void setTotalSupply(BigInteger totalSupply) {
+        this.totalSupply = totalSupply;
+    }
+}
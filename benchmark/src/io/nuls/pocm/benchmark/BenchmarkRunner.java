@@ -0,0 +1,23 @@
+package io.nuls.pocm.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks, the arguments are the JMH command line options,
+ * e.g. {@code ClaimBenchmark -p users=1000 -p cyclesElapsed=10,100000}
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(options).build()).run();
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.nuls.pocm.benchmark;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.pocm.contract.model.MiningResult;
+import io.nuls.pocm.contract.service.MiningService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of claiming the rewards of a depositor after some reward cycles
+ * <p>
+ * A claim settles the deposits of the claimant, so each invocation claims for a claimant that has not claimed yet.
+ * The claimants of an iteration deposit at its start and the cycles elapse before it is measured, each iteration
+ * is one batch of {@link #CLAIMANTS} claims and its score is the time of the whole batch.
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, batchSize = ClaimBenchmark.CLAIMANTS)
+@Measurement(iterations = 5, batchSize = ClaimBenchmark.CLAIMANTS)
+@Fork(1)
+public class ClaimBenchmark {
+
+    /**
+     * Number of claims of one iteration
+     */
+    public static final int CLAIMANTS = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @Param({"1", "100", "1000"})
+    public int depositsPerUser;
+
+    @Param({"10", "1000", "100000"})
+    public int cyclesElapsed;
+
+    private PoolFixture fixture;
+
+    private MiningService miningService;
+
+    private Address[] claimants = new Address[CLAIMANTS];
+
+    private int nextClaimant;
+
+    private int iteration = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new PoolFixture(users, 0);
+        miningService = fixture.getContractField("miningService");
+    }
+
+    @Setup(Level.Iteration)
+    public void deposit() {
+        if (!fixture.canAdvanceCycles(cyclesElapsed)) {
+            setUp();
+        }
+        fixture.activate();
+        for (int i = 0; i < CLAIMANTS; i++) {
+            claimants[i] = new Address("claimant" + iteration + "_" + i);
+            fixture.addDeposits(claimants[i], depositsPerUser);
+        }
+        iteration++;
+        nextClaimant = 0;
+        fixture.advanceCycles(cyclesElapsed);
+    }
+
+    @Benchmark
+    public void receiveAwards() {
+        fixture.call(claimants[nextClaimant++]);
+        fixture.getPocm().receiveAwards();
+    }
+
+    @Benchmark
+    public BigInteger calcMining() {
+        Address claimant = claimants[nextClaimant++];
+        return miningService.calcMining(claimant.toString(), new MiningResult(), Block.number());
+    }
+
+}
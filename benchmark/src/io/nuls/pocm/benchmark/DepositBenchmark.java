@@ -0,0 +1,57 @@
+package io.nuls.pocm.benchmark;
+
+import io.nuls.contract.sdk.Address;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a deposit after some idle reward cycles
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepositBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @Param({"1", "100", "1000"})
+    public int depositsPerUser;
+
+    @Param({"10", "1000", "100000"})
+    public int cyclesElapsed;
+
+    private PoolFixture fixture;
+
+    private int nextUser = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new PoolFixture(users, depositsPerUser);
+    }
+
+    @Setup(Level.Invocation)
+    public void advance() {
+        if (!fixture.canAdvanceCycles(cyclesElapsed)) {
+            setUp();
+        }
+        fixture.activate();
+        fixture.advanceCycles(cyclesElapsed);
+        Address[] population = fixture.getUsers();
+        Address user = population.length == 0 ? fixture.getDepositor() : population[nextUser++ % population.length];
+        fixture.getVm().call(user, PoolFixture.DEPOSIT);
+    }
+
+    @Benchmark
+    public void depositForOwn() {
+        fixture.getPocm().depositForOwn();
+    }
+
+}
@@ -0,0 +1,163 @@
+package io.nuls.pocm.benchmark;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.pocm.contract.Pocm;
+import io.nuls.pocm.local.LocalVm;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A POCM pool deployed in a local VM: a population of users with one deposit each
+ * and one depositor with the specified number of deposits
+ * <p>
+ * The users deposit one reward cycle apart, so the reward cycle history grows with the population
+ * as it does in a pool that lives long, instead of all of them sharing one record.
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class PoolFixture {
+
+    public static final int AWARDING_CYCLE = 10;
+
+    public static final int MINIMUM_LOCKED = 5;
+
+    public static final BigInteger DEPOSIT = BigInteger.valueOf(1000L * 100000000L);
+
+    private final LocalVm vm;
+
+    private final Pocm pocm;
+
+    private final Address owner;
+
+    private final Address depositor;
+
+    private final Address[] users;
+
+    /**
+     * Number of deposits made in the pool, the next deposit number is this value plus one
+     */
+    private long depositCount = 0;
+
+    public PoolFixture(int userCount, int depositsPerUser) {
+        this(userCount, depositsPerUser, "0");
+    }
+
+    public PoolFixture(int userCount, int depositsPerUser, String rewardHalvingCycle) {
+        this.vm = new LocalVm();
+        LocalVm.setCurrent(vm);
+        this.owner = new Address("owner");
+        this.depositor = new Address("depositor");
+        this.users = new Address[userCount];
+
+        vm.call(owner, BigInteger.ZERO);
+        this.pocm = new Pocm("Bench", "BENCH", BigInteger.valueOf(100000000L), 8, new BigDecimal("10"), AWARDING_CYCLE,
+                new BigDecimal("1"), MINIMUM_LOCKED, rewardHalvingCycle, "0", null, null);
+        for (int i = 0; i < userCount; i++) {
+            users[i] = new Address("user" + i);
+            deposit(users[i]);
+            advanceCycles(1);
+        }
+        addDeposits(depositor, depositsPerUser);
+    }
+
+    /**
+     * Make the specified number of deposits for the user itself in the current block
+     *
+     * @param user     the user
+     * @param deposits number of deposits
+     */
+    public void addDeposits(Address user, int deposits) {
+        for (int i = 0; i < deposits; i++) {
+            deposit(user);
+        }
+    }
+
+    /**
+     * Make the current thread use the VM of this pool
+     */
+    public void activate() {
+        LocalVm.setCurrent(vm);
+    }
+
+    /**
+     * Deposit for the user itself
+     *
+     * @param user the user
+     * @return the deposit number
+     */
+    public long deposit(Address user) {
+        vm.call(user, DEPOSIT);
+        pocm.depositForOwn();
+        return ++depositCount;
+    }
+
+    /**
+     * The contract computes reward cycles from an int height difference, a pool can only live that long
+     *
+     * @param cycles number of reward cycles
+     * @return
+     */
+    public boolean canAdvanceCycles(int cycles) {
+        return vm.getHeight() + (long) cycles * AWARDING_CYCLE < Integer.MAX_VALUE;
+    }
+
+    public void advanceCycles(int cycles) {
+        vm.advance((long) cycles * AWARDING_CYCLE);
+    }
+
+    /**
+     * Prepare a call without NULS
+     *
+     * @param sender caller
+     */
+    public void call(Address sender) {
+        vm.call(sender, BigInteger.ZERO);
+    }
+
+    /**
+     * Read a private field of the contract, such as its services
+     *
+     * @param name field name
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getContractField(String name) {
+        Class<?> type = pocm.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return (T) field.get(pocm);
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name);
+    }
+
+    public LocalVm getVm() {
+        return vm;
+    }
+
+    public Pocm getPocm() {
+        return pocm;
+    }
+
+    public Address getOwner() {
+        return owner;
+    }
+
+    public Address getDepositor() {
+        return depositor;
+    }
+
+    public Address[] getUsers() {
+        return users;
+    }
+
+}
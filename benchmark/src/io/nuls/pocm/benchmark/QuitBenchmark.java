@@ -0,0 +1,55 @@
+package io.nuls.pocm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of withdrawing one deposit of a depositor that holds the specified number of deposits
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuitBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @Param({"1", "100", "1000"})
+    public int depositsPerUser;
+
+    @Param({"10", "1000", "100000"})
+    public int cyclesElapsed;
+
+    private PoolFixture fixture;
+
+    private String depositNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new PoolFixture(users, depositsPerUser);
+    }
+
+    @Setup(Level.Invocation)
+    public void deposit() {
+        if (!fixture.canAdvanceCycles(cyclesElapsed)) {
+            setUp();
+        }
+        fixture.activate();
+        depositNumber = String.valueOf(fixture.deposit(fixture.getDepositor()));
+        fixture.advanceCycles(cyclesElapsed);
+        fixture.call(fixture.getDepositor());
+    }
+
+    @Benchmark
+    public void quit() {
+        fixture.getPocm().quit(depositNumber);
+    }
+
+}
@@ -0,0 +1,46 @@
+package io.nuls.pocm.benchmark;
+
+import io.nuls.contract.sdk.Address;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a token transfer with the specified number of token holders
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    private PoolFixture fixture;
+
+    private int nextUser = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new PoolFixture(users, 0);
+        fixture.call(fixture.getOwner());
+        for (Address user : fixture.getUsers()) {
+            fixture.getPocm().transfer(user, BigInteger.ONE);
+        }
+    }
+
+    @Benchmark
+    public boolean transfer() {
+        fixture.activate();
+        Address[] population = fixture.getUsers();
+        return fixture.getPocm().transfer(population[nextUser++ % population.length], BigInteger.ONE);
+    }
+
+}
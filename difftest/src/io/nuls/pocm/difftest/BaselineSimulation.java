@@ -0,0 +1,260 @@
+package io.nuls.pocm.difftest;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.pocm.baseline.Pocm;
+import io.nuls.pocm.baseline.model.DepositInfo;
+import io.nuls.pocm.baseline.model.MiningDetailInfo;
+import io.nuls.pocm.baseline.model.MiningInfo;
+import io.nuls.pocm.local.LocalVm;
+import io.nuls.pocm.simulator.CallResult;
+import io.nuls.pocm.simulator.ContractCall;
+import io.nuls.pocm.simulator.ContractFactory;
+import io.nuls.pocm.simulator.LocalChain;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The contract of commit 1471a21, before the reward calculation was reworked, in a local chain, deployed with the
+ * same parameters as {@code PocmSimulation} and driven by the same user names
+ * <p>
+ * It has the calls that contract had: deposit for the user itself or for another user, quit one or all deposits and
+ * receive the rewards as depositor or as mining address. The batch calls of the reworked contract are made of them in
+ * one call: quitting some deposits quits them one after the other, and settling several users receives the rewards of
+ * each user with deposits through the private receive method of that contract.
+ *
+ * @author: Long
+ * @date: 2019-06-20
+ */
+public class BaselineSimulation {
+
+    private static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+
+    private final LocalChain<Pocm> chain;
+
+    private String lastError;
+
+    /**
+     * @param awardingCycle      reward distribution cycle
+     * @param minimumLocked      minimum number of locked blocks
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param checkpointInterval number of successful calls between two saves of the state
+     */
+    public BaselineSimulation(final int awardingCycle, final int minimumLocked, final int rewardHalvingCycle, int checkpointInterval) {
+        this.chain = new LocalChain<Pocm>(new LocalVm(), checkpointInterval);
+        CallResult result = chain.deploy(new Address("owner"), new ContractFactory<Pocm>() {
+            @Override
+            public Pocm create() {
+                return new Pocm("Simulation", "SIM", BigInteger.valueOf(100000000L), 8, new BigDecimal("10"), awardingCycle,
+                        new BigDecimal("1"), minimumLocked, String.valueOf(rewardHalvingCycle), "0", null, null);
+            }
+        });
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException("Deployment failed: " + result.getErrorMessage());
+        }
+    }
+
+    public void advance(long blocks) {
+        chain.advance(blocks);
+    }
+
+    public boolean deposit(String user, long nuls) {
+        return record(chain.call(new Address(user), toNa(nuls), new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.depositForOwn();
+                return null;
+            }
+        }));
+    }
+
+    public boolean depositFor(String user, String miner, long nuls) {
+        final Address miningAddress = new Address(miner);
+        return record(chain.call(new Address(user), toNa(nuls), new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.depositForOther(miningAddress);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Quit a deposit, 0 quits all of them
+     */
+    public boolean quit(String user, final long number) {
+        return record(chain.call(new Address(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.quit(String.valueOf(number));
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Quit some deposits one after the other in one call, which fails if any of them fails
+     */
+    public boolean quitSome(String user, final long[] numbers) {
+        return record(chain.call(new Address(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                for (long number : numbers) {
+                    pocm.quit(String.valueOf(number));
+                }
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Receive the rewards of several users in one call, the users without deposits are skipped
+     */
+    public boolean claimFor(String user, final String[] depositors) {
+        return record(chain.call(new Address(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                try {
+                    Method receive = Pocm.class.getDeclaredMethod("receive", DepositInfo.class);
+                    receive.setAccessible(true);
+                    for (String depositor : depositors) {
+                        DepositInfo depositInfo = pocm.getDepositInfo(new Address(depositor));
+                        if (depositInfo != null) {
+                            receive.invoke(pocm, depositInfo);
+                        }
+                    }
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            }
+        }));
+    }
+
+    public boolean claim(String user) {
+        return record(chain.call(new Address(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.receiveAwards();
+                return null;
+            }
+        }));
+    }
+
+    public boolean claimMining(String user) {
+        return record(chain.call(new Address(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.receiveAwardsForMiningAddress();
+                return null;
+            }
+        }));
+    }
+
+    public BigInteger tokenBalance(String user) {
+        final Address address = new Address(user);
+        return (BigInteger) chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.balanceOf(address);
+            }
+        });
+    }
+
+    /**
+     * The current price; the view of that contract adds the record of the current reward cycle to its queue, so it is
+     * read in a call that is reverted afterwards
+     *
+     * @return null if the view fails
+     */
+    public String currentPrice() {
+        final String[] price = new String[1];
+        chain.call(new Address("owner"), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                price[0] = pocm.currentPrice();
+                throw new IllegalStateException("The view is reverted");
+            }
+        });
+        return price[0];
+    }
+
+    public BigInteger totalSupply() {
+        return (BigInteger) chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.totalSupply();
+            }
+        });
+    }
+
+    /**
+     * Whether a user receives the Token of a deposit; quitting all the deposits of a user that does not fails in that
+     * contract, it reads the mining information of the user to emit it
+     */
+    public boolean hasMiningInfo(String user) {
+        final Address address = new Address(user);
+        return chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.getMingInfo(address);
+            }
+        }) != null;
+    }
+
+    /**
+     * The mining information of a user and the deposits it made, in the form of {@code DifferentialRun#describe}
+     */
+    public String describe(String user) {
+        final Address address = new Address(user);
+        return (String) chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                StringBuilder builder = new StringBuilder();
+                MiningInfo miningInfo = pocm.getMingInfo(address);
+                if (miningInfo != null) {
+                    builder.append("mining ").append(miningInfo.getTotalMining()).append('/').append(miningInfo.getReceivedMining());
+                    Map<Long, MiningDetailInfo> details = new TreeMap<Long, MiningDetailInfo>(miningInfo.getMiningDetailInfos());
+                    for (MiningDetailInfo detail : details.values()) {
+                        builder.append(' ').append(detail.getDepositNumber()).append(':').append(detail.getMiningAmount())
+                                .append(',').append(detail.getMiningCount()).append(',').append(detail.getNextStartMiningCycle())
+                                .append(',').append(detail.getDepositorAddress());
+                    }
+                }
+                DepositInfo depositInfo = pocm.getDepositInfo(address);
+                if (depositInfo != null) {
+                    builder.append(" deposits ").append(depositInfo.getDepositCount()).append(" for ").append(depositInfo.getDepositTotalAmount());
+                }
+                return builder.toString();
+            }
+        });
+    }
+
+    private boolean record(CallResult result) {
+        lastError = result.getErrorMessage();
+        return result.isSuccess();
+    }
+
+    private static BigInteger toNa(long nuls) {
+        return BigInteger.valueOf(nuls).multiply(ONE_NULS);
+    }
+
+    /**
+     * The error message of the last call, null if it succeeded
+     *
+     * @return
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.nuls.pocm.difftest;
+
+import io.nuls.pocm.simulator.StateSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run random histories on the contract and on the reference model on all cores, and shrink the first history where
+ * they differ
+ * <p>
+ * The histories are generated from consecutive seeds starting at {@code seed}, each of {@code operations} operations
+ * among {@code users} users, {@code interval} blocks apart on average. They run for {@code minutes} minutes, or until
+ * {@code histories} histories have run if it is given, on {@code threads} threads, each with its own local chain. The
+ * pool is configured with {@code awardingCycle}, {@code minimumLocked} and {@code rewardHalvingCycle}.
+ * <p>
+ * When a history differs, the others stop, the history is shrunk and printed as a scenario script that
+ * {@code SimulatorMain} runs, ending with the balances of the users and what the reference expects them to be.
+ * <p>
+ * The reference is the contract of commit 1471a21 by default ({@code reference=baseline}), see
+ * {@link DifferentialRun}; {@link RewardModel} is checked along with it. With {@code reference=model} the model is the
+ * only reference, which is faster. The total supply of that contract depends on the iteration order of a HashMap, and
+ * the chain state is restored after each reverted call, so the baseline reference takes
+ * {@code --add-opens java.base/java.util=ALL-UNNAMED} for the restored maps to keep their order, see
+ * {@link StateSnapshot#keepsHashMapOrder()}.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class DiffTestMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        final long firstSeed = longOption(options, "seed", 1L);
+        final long histories = longOption(options, "histories", 0L);
+        long minutes = longOption(options, "minutes", 1L);
+        final int operations = intOption(options, "operations", 2000);
+        final int userCount = intOption(options, "users", 8);
+        final int interval = intOption(options, "interval", 20);
+        final int awardingCycle = intOption(options, "awardingCycle", 10);
+        final int minimumLocked = intOption(options, "minimumLocked", 50);
+        final int rewardHalvingCycle = intOption(options, "rewardHalvingCycle", 5000);
+        int threads = intOption(options, "threads", Runtime.getRuntime().availableProcessors());
+        String reference = options.containsKey("reference") ? options.get("reference") : "baseline";
+        if (!"model".equals(reference) && !"baseline".equals(reference)) {
+            throw new IllegalArgumentException("The reference is model or baseline: " + reference);
+        }
+        final boolean baselineReference = "baseline".equals(reference);
+        if (baselineReference && !StateSnapshot.keepsHashMapOrder()) {
+            throw new IllegalStateException("The baseline reference needs --add-opens java.base/java.util=ALL-UNNAMED");
+        }
+
+        final long deadline = histories > 0 ? Long.MAX_VALUE : System.currentTimeMillis() + minutes * 60000L;
+        final AtomicLong nextSeed = new AtomicLong(firstSeed);
+        final AtomicLong calls = new AtomicLong();
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        final HistoryGenerator generator = new HistoryGenerator(userCount, interval);
+        List<Callable<Long>> workers = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Callable<Long>() {
+                @Override
+                public Long call() {
+                    DifferentialRun run = newRun(awardingCycle, minimumLocked, rewardHalvingCycle, userCount, baselineReference);
+                    long failedSeed = -1;
+                    while (!stop.get() && System.currentTimeMillis() < deadline) {
+                        long seed = nextSeed.getAndIncrement();
+                        if (histories > 0 && seed >= firstSeed + histories) {
+                            break;
+                        }
+                        long before = run.getCalls();
+                        DifferentialRun.Divergence divergence = run.run(generator.generate(seed, operations));
+                        calls.addAndGet(run.getCalls() - before);
+                        if (divergence != null) {
+                            failedSeed = seed;
+                            stop.set(true);
+                        }
+                    }
+                    return failedSeed;
+                }
+            });
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long failedSeed = -1;
+        try {
+            for (Future<Long> result : executor.invokeAll(workers)) {
+                long seed = result.get();
+                if (seed >= 0 && (failedSeed < 0 || seed < failedSeed)) {
+                    failedSeed = seed;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        long seeds = Math.min(nextSeed.get() - firstSeed, histories > 0 ? histories : Long.MAX_VALUE);
+        System.out.println(String.format("%d histories, %d calls in %.1f s on %d threads, %.0f calls per minute",
+                seeds, calls.get(), elapsed / 1000.0, threads, calls.get() * 60000.0 / elapsed));
+        if (failedSeed < 0) {
+            System.out.println("no difference between the contract and the " + (baselineReference ? "baseline contract" : "reference model"));
+            return;
+        }
+
+        DifferentialRun run = newRun(awardingCycle, minimumLocked, rewardHalvingCycle, userCount, baselineReference);
+        List<Operation> history = generator.generate(failedSeed, operations);
+        DifferentialRun.Divergence divergence = run.run(history);
+        System.out.println("seed " + failedSeed + ", " + divergence);
+        HistoryShrinker shrinker = new HistoryShrinker(run);
+        List<Operation> shrunk = shrinker.shrink(history, divergence);
+        divergence = run.runWithScript(shrunk);
+        System.out.println("shrunk to " + shrunk.size() + " operations in " + shrinker.getRuns() + " runs, " + divergence);
+        System.out.println("# scenario script for SimulatorMain, awardingCycle=" + awardingCycle + " minimumLocked="
+                + minimumLocked + " rewardHalvingCycle=" + rewardHalvingCycle);
+        System.out.print(divergence.getScript());
+        for (int i = 0; i < userCount; i++) {
+            String user = "user" + i;
+            System.out.println("balance " + user + " # " + run.getReferenceBalance(user) + " in the "
+                    + (baselineReference ? "baseline contract" : "reference model"));
+        }
+        System.exit(1);
+    }
+
+    private static DifferentialRun newRun(int awardingCycle, int minimumLocked, int rewardHalvingCycle, int userCount,
+                                          boolean baselineReference) {
+        // reverts are frequent, a short journal keeps them cheap
+        return new DifferentialRun(awardingCycle, minimumLocked, rewardHalvingCycle, userCount, 64, 100, baselineReference);
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+}
@@ -0,0 +1,600 @@
+package io.nuls.pocm.difftest;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.pocm.contract.Pocm;
+import io.nuls.pocm.contract.model.DepositInfo;
+import io.nuls.pocm.contract.model.MiningDetailInfo;
+import io.nuls.pocm.contract.model.MiningInfo;
+import io.nuls.pocm.simulator.ContractCall;
+import io.nuls.pocm.simulator.PocmSimulation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Run a history on a new pool in a local chain and on a reference, and report the first difference
+ * <p>
+ * The reference is the contract of commit 1471a21 in its own local chain ({@link BaselineSimulation}), or the
+ * {@link RewardModel}. Each call must be accepted by the contract and the reference or by neither; after each call the
+ * Token balances of all the users and the Token minted are compared. Every {@code detailInterval} operations and at
+ * the end, the mining information of every user is compared too: the total mined, each deposit's mined amount, number
+ * of mined cycles and next mining cycle, and the number and sum of the deposits of every depositor, and with the
+ * baseline the current price. Before each claim by a depositor or by a mining address, the matching pending reward
+ * view is read, and the claim must settle the total it gives, or fail if the view fails. The model is kept in step in
+ * both cases, it names the deposits the operations pick, and each call must be accepted by it as by the contract.
+ * <p>
+ * The contract of commit 1471a21 fails when a user quits all its deposits without receiving the Token of any of them,
+ * where the contract does not, and the operation is skipped there. The batch calls it does not have are made of its
+ * single calls, see {@link BaselineSimulation}.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class DifferentialRun {
+
+    private static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+
+    private final int awardingCycle;
+
+    private final int minimumLocked;
+
+    private final int rewardHalvingCycle;
+
+    private final int userCount;
+
+    private final int checkpointInterval;
+
+    private final int detailInterval;
+
+    /**
+     * Whether the contract of commit 1471a21 is the reference instead of the model
+     */
+    private final boolean baselineReference;
+
+    private PocmSimulation simulation;
+
+    private BaselineSimulation baseline;
+
+    private RewardModel model;
+
+    private String[] users;
+
+    private BigInteger initialSupply;
+
+    /**
+     * The actions run so far as a scenario script, null when not recorded
+     */
+    private StringBuilder script;
+
+    private long calls = 0;
+
+    /**
+     * @param awardingCycle      reward distribution cycle
+     * @param minimumLocked      minimum number of locked blocks
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param userCount          number of users
+     * @param checkpointInterval number of successful calls between two saves of the chain state
+     * @param detailInterval     number of operations between two comparisons of the mining information
+     */
+    public DifferentialRun(int awardingCycle, int minimumLocked, int rewardHalvingCycle, int userCount,
+                           int checkpointInterval, int detailInterval) {
+        this(awardingCycle, minimumLocked, rewardHalvingCycle, userCount, checkpointInterval, detailInterval, false);
+    }
+
+    /**
+     * @param awardingCycle      reward distribution cycle
+     * @param minimumLocked      minimum number of locked blocks
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param userCount          number of users
+     * @param checkpointInterval number of successful calls between two saves of the chain state
+     * @param detailInterval     number of operations between two comparisons of the mining information
+     * @param baselineReference  whether the contract of commit 1471a21 is the reference instead of the model
+     */
+    public DifferentialRun(int awardingCycle, int minimumLocked, int rewardHalvingCycle, int userCount,
+                           int checkpointInterval, int detailInterval, boolean baselineReference) {
+        this.baselineReference = baselineReference;
+        this.awardingCycle = awardingCycle;
+        this.minimumLocked = minimumLocked;
+        this.rewardHalvingCycle = rewardHalvingCycle;
+        this.userCount = userCount;
+        this.checkpointInterval = checkpointInterval;
+        this.detailInterval = detailInterval;
+    }
+
+    /**
+     * Run a history
+     *
+     * @param history operations
+     * @return the first difference, null if there is none
+     */
+    public Divergence run(List<Operation> history) {
+        return run(history, false);
+    }
+
+    /**
+     * Run a history and write it as a scenario script for {@code SimulatorMain}, up to the first difference
+     *
+     * @param history operations
+     * @return the first difference with the script, null if there is none
+     */
+    public Divergence runWithScript(List<Operation> history) {
+        return run(history, true);
+    }
+
+    private Divergence run(List<Operation> history, boolean recordScript) {
+        simulation = new PocmSimulation(awardingCycle, minimumLocked, rewardHalvingCycle, checkpointInterval);
+        Pocm pocm = simulation.getPocm();
+        String initialPrice = pocm.initialPrice();
+        model = new RewardModel(pocm.createHeight(), awardingCycle, rewardHalvingCycle, minimumLocked, pocm.decimals(),
+                new BigDecimal(initialPrice.substring(0, initialPrice.indexOf(' '))));
+        baseline = baselineReference ? new BaselineSimulation(awardingCycle, minimumLocked, rewardHalvingCycle, checkpointInterval) : null;
+        users = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = simulation.user("user" + i).toString();
+        }
+        initialSupply = totalSupply();
+        script = recordScript ? new StringBuilder() : null;
+        for (int i = 0; i < history.size(); i++) {
+            String difference = execute(history.get(i));
+            if (difference == null) {
+                difference = compareBalances();
+            }
+            if (difference == null && (i + 1) % detailInterval == 0) {
+                difference = compareDetails();
+            }
+            if (difference != null) {
+                return new Divergence(i, difference, recordScript ? script.toString() : null);
+            }
+        }
+        String difference = compareDetails();
+        if (difference != null) {
+            return new Divergence(history.size() - 1, difference, recordScript ? script.toString() : null);
+        }
+        return null;
+    }
+
+    /**
+     * Make the call of an operation in the contract, in the reference and in the model
+     *
+     * @return the difference of acceptance, null if the contract accepted the call as the reference did
+     */
+    private String execute(Operation operation) {
+        if (operation.getBlocks() > 0) {
+            simulation.advance(operation.getBlocks());
+            if (baseline != null) {
+                baseline.advance(operation.getBlocks());
+            }
+            write("advance " + operation.getBlocks());
+        }
+        long height = simulation.getChain().getHeight();
+        String user = users[operation.getUser()];
+        int type = operation.getType();
+        //Whether the contract should accept the call before the rewards are calculated
+        boolean expected = true;
+        String action;
+        List<String> settled = new ArrayList<String>();
+        List<Long> quit = new ArrayList<Long>();
+        String miner = null;
+        if (type == Operation.DEPOSIT) {
+            miner = users[operation.getTarget()];
+            action = miner.equals(user) ? "deposit " + user + " " + operation.getAmount()
+                    : "depositFor " + user + " " + miner + " " + operation.getAmount();
+        } else if (type == Operation.QUIT || type == Operation.QUIT_SOME) {
+            List<RewardModel.Deposit> deposits = model.getDeposits(user);
+            if (deposits.isEmpty()) {
+                return null;
+            }
+            int picks = type == Operation.QUIT ? 1 : 3;
+            Set<Long> numbers = new LinkedHashSet<Long>();
+            for (int i = 0; i < picks; i++) {
+                long number = deposits.get((int) ((operation.getAmount() >>> (16 * i)) % deposits.size())).getNumber();
+                numbers.add(number);
+                expected &= model.isUnlocked(number, height);
+            }
+            quit.addAll(numbers);
+            if (type == Operation.QUIT) {
+                action = "quit " + user + " " + quit.get(0);
+            } else {
+                StringBuilder builder = new StringBuilder("quitAll " + user);
+                for (Long number : quit) {
+                    builder.append(' ').append(number);
+                }
+                action = builder.toString();
+            }
+            settled.add(user);
+        } else if (type == Operation.QUIT_ALL || type == Operation.QUIT_UNLOCKED) {
+            List<RewardModel.Deposit> deposits = model.getDeposits(user);
+            if (deposits.isEmpty()) {
+                return null;
+            }
+            if (type == Operation.QUIT_ALL && baseline != null && !baseline.hasMiningInfo(user)) {
+                //Fails in the contract of commit 1471a21, see the class comment
+                return null;
+            }
+            for (RewardModel.Deposit deposit : deposits) {
+                if (model.isUnlocked(deposit.getNumber(), height)) {
+                    quit.add(deposit.getNumber());
+                }
+            }
+            if (type == Operation.QUIT_ALL) {
+                expected = quit.size() == deposits.size();
+                action = "quit " + user + " 0";
+            } else {
+                expected = !quit.isEmpty();
+                action = "quitUnlocked " + user;
+            }
+            settled.add(user);
+        } else if (type == Operation.CLAIM) {
+            expected = !model.getDeposits(user).isEmpty() && !model.getMiningDeposits(user).isEmpty();
+            action = "claim " + user;
+            settled.add(user);
+        } else if (type == Operation.CLAIM_MINING) {
+            Set<String> depositors = new LinkedHashSet<String>();
+            for (RewardModel.Deposit deposit : model.getMiningDeposits(user)) {
+                depositors.add(deposit.getDepositor());
+            }
+            expected = !depositors.isEmpty();
+            action = "claimMining " + user;
+            settled.addAll(depositors);
+        } else if (type == Operation.CLAIM_FOR) {
+            StringBuilder builder = new StringBuilder("claimFor " + user);
+            for (int i = 0; i < userCount; i++) {
+                if ((operation.getAmount() & (1L << i)) != 0) {
+                    settled.add(users[i]);
+                    builder.append(' ').append(users[i]);
+                }
+            }
+            action = builder.toString();
+        } else {
+            throw new IllegalArgumentException("Unknown operation type " + type);
+        }
+
+        boolean referenceAccepted = false;
+        if (baseline != null) {
+            referenceAccepted = executeOnBaseline(type, user, miner, operation.getAmount(), quit, settled);
+        }
+
+        BigInteger pending = null;
+        String pendingError = null;
+        BigInteger balancesBefore = null;
+        if (type == Operation.CLAIM || type == Operation.CLAIM_MINING) {
+            try {
+                pending = pendingTotal(user, type == Operation.CLAIM_MINING);
+            } catch (RuntimeException e) {
+                //Fails where the claim fails, when a reward cycle record to settle has no mortgage
+                pendingError = (type == Operation.CLAIM ? "pendingReward" : "pendingRewardForMiningAddress") + " of "
+                        + user + " at height " + height + " failed: " + e;
+            }
+            balancesBefore = sumBalances();
+        }
+        boolean success = executeOnContract(type, user, miner, operation.getAmount(), quit, settled);
+        calls++;
+
+        //The model takes the call if the contract should accept it before the rewards, and may still refuse it
+        boolean modelAccepted = false;
+        if (expected) {
+            if (type == Operation.DEPOSIT) {
+                modelAccepted = success;
+                if (success) {
+                    model.deposit(user, miner, BigInteger.valueOf(operation.getAmount()).multiply(ONE_NULS).longValue(), height);
+                }
+            } else if (quit.isEmpty()) {
+                modelAccepted = model.settle(depositorsOf(settled), height);
+            } else {
+                modelAccepted = model.quit(user, quit, height);
+            }
+        }
+        if (baseline == null) {
+            referenceAccepted = modelAccepted;
+        }
+        if (!referenceAccepted) {
+            write("expect fail");
+        }
+        write(action);
+        if (success != referenceAccepted) {
+            return action + " at height " + height + (success ? " was accepted by the contract, " + referenceName() + " rejects it"
+                    : " was rejected by the contract (" + simulation.getLastError() + "), " + referenceName() + " accepts it");
+        }
+        if (success != modelAccepted && type != Operation.DEPOSIT) {
+            return action + " at height " + height + (success ? " was accepted by the contract, the reference model rejects it"
+                    : " was rejected by the contract (" + simulation.getLastError() + "), the reference model accepts it");
+        }
+        if (success && pendingError != null) {
+            return pendingError + ", the claim is accepted";
+        }
+        if (success && pending != null) {
+            BigInteger claimed = sumBalances().subtract(balancesBefore);
+            if (!claimed.equals(pending)) {
+                return action + " at height " + height + " settled " + claimed + ", the pending reward view gave " + pending;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The users with deposits among the ones settled, the others are skipped by the settlements
+     */
+    private List<String> depositorsOf(List<String> settled) {
+        List<String> depositors = new ArrayList<String>();
+        for (String depositor : settled) {
+            if (!model.getDeposits(depositor).isEmpty()) {
+                depositors.add(depositor);
+            }
+        }
+        return depositors;
+    }
+
+    /**
+     * Make the call of an operation in the contract
+     *
+     * @return whether the contract accepted the call
+     */
+    private boolean executeOnContract(int type, String user, String miner, long amount, List<Long> quit, List<String> settled) {
+        if (type == Operation.DEPOSIT) {
+            return miner.equals(user) ? simulation.deposit(user, amount) : simulation.depositFor(user, miner, amount);
+        } else if (type == Operation.QUIT) {
+            return simulation.quit(user, quit.get(0));
+        } else if (type == Operation.QUIT_SOME) {
+            return simulation.quitAll(user, toArray(quit));
+        } else if (type == Operation.QUIT_ALL) {
+            return simulation.quit(user, 0);
+        } else if (type == Operation.QUIT_UNLOCKED) {
+            return simulation.quitUnlocked(user);
+        } else if (type == Operation.CLAIM) {
+            return simulation.claim(user);
+        } else if (type == Operation.CLAIM_MINING) {
+            return simulation.claimMining(user);
+        }
+        return simulation.claimFor(user, settled.toArray(new String[settled.size()]));
+    }
+
+    /**
+     * Make the call of an operation in the baseline
+     *
+     * @return whether the baseline accepted the call
+     */
+    private boolean executeOnBaseline(int type, String user, String miner, long amount, List<Long> quit, List<String> settled) {
+        if (type == Operation.DEPOSIT) {
+            return miner.equals(user) ? baseline.deposit(user, amount) : baseline.depositFor(user, miner, amount);
+        } else if (type == Operation.QUIT) {
+            return baseline.quit(user, quit.get(0));
+        } else if (type == Operation.QUIT_SOME) {
+            return baseline.quitSome(user, toArray(quit));
+        } else if (type == Operation.QUIT_ALL) {
+            return baseline.quit(user, 0);
+        } else if (type == Operation.QUIT_UNLOCKED) {
+            //The reworked contract fails without unlocked deposits
+            return !quit.isEmpty() && baseline.quitSome(user, toArray(quit));
+        } else if (type == Operation.CLAIM) {
+            return baseline.claim(user);
+        } else if (type == Operation.CLAIM_MINING) {
+            return baseline.claimMining(user);
+        }
+        return baseline.claimFor(user, settled.toArray(new String[settled.size()]));
+    }
+
+    private static long[] toArray(List<Long> numbers) {
+        long[] array = new long[numbers.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = numbers.get(i);
+        }
+        return array;
+    }
+
+    private String compareBalances() {
+        for (String user : users) {
+            BigInteger balance = simulation.tokenBalance(user);
+            BigInteger referenceBalance = getReferenceBalance(user);
+            if (!balance.equals(referenceBalance)) {
+                return "balance of " + user + " is " + balance + " in the contract and " + referenceBalance + " in " + referenceName();
+            }
+        }
+        BigInteger minted = totalSupply().subtract(initialSupply);
+        BigInteger referenceMinted = baseline != null ? baseline.totalSupply().subtract(initialSupply) : model.getTotalMinted();
+        if (!minted.equals(referenceMinted)) {
+            return "Token minted is " + minted + " in the contract and " + referenceMinted + " in " + referenceName();
+        }
+        return null;
+    }
+
+    private String compareDetails() {
+        if (baseline != null) {
+            String price = (String) simulation.getChain().view(new ContractCall<Pocm>() {
+                @Override
+                public Object invoke(Pocm pocm) {
+                    return pocm.currentPrice();
+                }
+            });
+            //That contract fails to read the price at some halving heights before the first deposit
+            String referencePrice = baseline.currentPrice();
+            if (referencePrice != null && !price.equals(referencePrice)) {
+                return "current price is " + price + " in the contract and " + referencePrice + " in " + referenceName();
+            }
+        }
+        for (final String user : users) {
+            String description = describe(user);
+            String referenceDescription = baseline != null ? baseline.describe(user) : describeModel(user);
+            if (!description.equals(referenceDescription)) {
+                return "mining and deposits of " + user + " are {" + description + "} in the contract and {"
+                        + referenceDescription + "} in " + referenceName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The mining information of a user and the deposits it made: the total and received mining, then the mined amount,
+     * number of mined cycles, next mining cycle and depositor of each deposit mining for it in number order, then the
+     * number and sum of its deposits, each part left out when the user has none
+     */
+    private String describe(final String user) {
+        MiningInfo miningInfo = (MiningInfo) simulation.getChain().view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.getMingInfo(new Address(user));
+            }
+        });
+        DepositInfo depositInfo = (DepositInfo) simulation.getChain().view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.getDepositInfo(new Address(user));
+            }
+        });
+        StringBuilder builder = new StringBuilder();
+        if (miningInfo != null) {
+            builder.append("mining ").append(miningInfo.getTotalMining()).append('/').append(miningInfo.getReceivedMining());
+            Map<Long, MiningDetailInfo> details = new TreeMap<Long, MiningDetailInfo>(miningInfo.getMiningDetailInfos());
+            for (Map.Entry<Long, MiningDetailInfo> entry : details.entrySet()) {
+                MiningDetailInfo detail = entry.getValue();
+                builder.append(' ').append(entry.getKey()).append(':').append(detail.getMiningAmount())
+                        .append(',').append(detail.getMiningCount()).append(',').append(detail.getNextStartMiningCycle())
+                        .append(',').append(detail.getDepositorAddress());
+            }
+        }
+        if (depositInfo != null) {
+            builder.append(" deposits ").append(depositInfo.getDepositCount()).append(" for ").append(depositInfo.getDepositTotalAmount());
+        }
+        return builder.toString();
+    }
+
+    private String describeModel(String user) {
+        StringBuilder builder = new StringBuilder();
+        List<RewardModel.Deposit> miningDeposits = model.getMiningDeposits(user);
+        if (!miningDeposits.isEmpty()) {
+            BigInteger totalMining = model.getTotalMining(user);
+            builder.append("mining ").append(totalMining).append('/').append(totalMining);
+            for (RewardModel.Deposit deposit : miningDeposits) {
+                builder.append(' ').append(deposit.getNumber()).append(':').append(deposit.getMining())
+                        .append(',').append(deposit.getMiningCount()).append(',').append(deposit.getNextStartCycle())
+                        .append(',').append(deposit.getDepositor());
+            }
+        }
+        List<RewardModel.Deposit> deposits = model.getDeposits(user);
+        if (!deposits.isEmpty()) {
+            long total = 0;
+            for (RewardModel.Deposit deposit : deposits) {
+                total += deposit.getAmount();
+            }
+            builder.append(" deposits ").append(deposits.size()).append(" for ").append(total);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Read the total of the pending reward view of a mortgage address or of a mining address
+     */
+    private BigInteger pendingTotal(final String user, final boolean miningAddress) {
+        String pending = (String) simulation.getChain().view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return miningAddress ? pocm.pendingRewardForMiningAddress(new Address(user)) : pocm.pendingReward(new Address(user));
+            }
+        });
+        int start = pending.indexOf("totalAmount:") + "totalAmount:".length();
+        int end = pending.charAt(start) == '-' ? start + 1 : start;
+        while (end < pending.length() && Character.isDigit(pending.charAt(end))) {
+            end++;
+        }
+        return new BigInteger(pending.substring(start, end));
+    }
+
+    private BigInteger sumBalances() {
+        BigInteger sum = BigInteger.ZERO;
+        for (String user : users) {
+            sum = sum.add(simulation.tokenBalance(user));
+        }
+        return sum;
+    }
+
+    private BigInteger totalSupply() {
+        return (BigInteger) simulation.getChain().view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.totalSupply();
+            }
+        });
+    }
+
+    private void write(String line) {
+        if (script != null) {
+            script.append(line).append('\n');
+        }
+    }
+
+    /**
+     * The Token balance of a user in the reference of the last history run, as it was where the run stopped
+     *
+     * @param user user address
+     * @return
+     */
+    public BigInteger getReferenceBalance(String user) {
+        return baseline != null ? baseline.tokenBalance(user) : model.balanceOf(user);
+    }
+
+    private String referenceName() {
+        return baseline != null ? "the baseline contract" : "the reference model";
+    }
+
+    /**
+     * The reference model of the last history run, as it was where the run stopped
+     */
+    public RewardModel getModel() {
+        return model;
+    }
+
+    /**
+     * Number of calls made since the start
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * The first difference found in a history
+     */
+    public static class Divergence {
+
+        /**
+         * Index of the operation after which the difference was found
+         */
+        private final int step;
+
+        private final String description;
+
+        private final String script;
+
+        private Divergence(int step, String description, String script) {
+            this.step = step;
+            this.description = description;
+            this.script = script;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * The history up to the difference as a scenario script, null if not recorded
+         */
+        public String getScript() {
+            return script;
+        }
+
+        @Override
+        public String toString() {
+            return "operation " + step + ": " + description;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package io.nuls.pocm.difftest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random histories of deposits, quits and claims
+ * <p>
+ * The blocks between two operations follow an exponential distribution around the mean interval; one operation in
+ * fifty comes after an idle stretch of a hundred to a thousand intervals, so long histories cross many reward cycles
+ * and halving rounds. Most deposits are below a thousand NULS and a few reach ten million, so the price of a reward
+ * cycle is sometimes split between very unequal deposits. One deposit in four is 100, 200 or 300 NULS, so that quits
+ * sometimes cancel the mortgage amount of a record exactly.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class HistoryGenerator {
+
+    /**
+     * Weight of each operation type, in the order of the types
+     */
+    private static final int[] WEIGHTS = {30, 10, 6, 5, 6, 18, 10, 15};
+
+    private final int userCount;
+
+    private final int meanInterval;
+
+    /**
+     * @param userCount    number of users, at most 63 so that CLAIM_FOR can name them in a long
+     * @param meanInterval mean number of blocks between two operations
+     */
+    public HistoryGenerator(int userCount, int meanInterval) {
+        if (userCount < 1 || userCount > 63) {
+            throw new IllegalArgumentException("The number of users should be between 1 and 63");
+        }
+        this.userCount = userCount;
+        this.meanInterval = meanInterval;
+    }
+
+    /**
+     * Generate a history, the same seed always gives the same history
+     *
+     * @param seed   seed
+     * @param length number of operations
+     * @return
+     */
+    public List<Operation> generate(long seed, int length) {
+        Random random = new Random(seed);
+        int totalWeight = 0;
+        for (int weight : WEIGHTS) {
+            totalWeight += weight;
+        }
+        List<Operation> history = new ArrayList<Operation>(length);
+        for (int i = 0; i < length; i++) {
+            long blocks = (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+            if (random.nextInt(50) == 0) {
+                blocks *= 100 + random.nextInt(900);
+            }
+            int pick = random.nextInt(totalWeight);
+            int type = 0;
+            while (pick >= WEIGHTS[type]) {
+                pick -= WEIGHTS[type];
+                type++;
+            }
+            int user = random.nextInt(userCount);
+            int target = random.nextInt(3) == 0 ? random.nextInt(userCount) : user;
+            long amount;
+            if (type == Operation.DEPOSIT) {
+                if (random.nextInt(200) == 0) {
+                    amount = (1 + random.nextInt(1000)) * 10000L;
+                } else if (random.nextInt(4) == 0) {
+                    amount = 100L * (1 + random.nextInt(3));
+                } else {
+                    amount = 1 + random.nextInt(random.nextInt(20) == 0 ? 100000 : 1000);
+                }
+            } else if (type == Operation.CLAIM_FOR) {
+                amount = random.nextLong() & ((1L << userCount) - 1);
+            } else {
+                amount = random.nextLong() & Long.MAX_VALUE;
+            }
+            history.add(new Operation(type, blocks, user, target, amount));
+        }
+        return history;
+    }
+
+}
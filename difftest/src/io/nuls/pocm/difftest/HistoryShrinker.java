@@ -0,0 +1,90 @@
+package io.nuls.pocm.difftest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shrink a history that makes the contract and its reference differ to a short one that still does
+ * <p>
+ * The history is cut after the operation where the difference shows, then chunks of operations are removed, from
+ * half the history down to single operations, as long as a difference remains. The remaining operations are then
+ * simplified one by one: fewer blocks before them and smaller deposits. Any difference counts, not only the first one
+ * found, so the result may show another symptom of the same fault.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class HistoryShrinker {
+
+    private final DifferentialRun run;
+
+    private int runs = 0;
+
+    public HistoryShrinker(DifferentialRun run) {
+        this.run = run;
+    }
+
+    /**
+     * @param history   a history that differs
+     * @param divergence its difference
+     * @return the shortest history found that still differs
+     */
+    public List<Operation> shrink(List<Operation> history, DifferentialRun.Divergence divergence) {
+        List<Operation> current = new ArrayList<Operation>(history.subList(0, divergence.getStep() + 1));
+        for (int chunk = Math.max(1, current.size() / 2); chunk >= 1; chunk /= 2) {
+            int start = current.size() - chunk;
+            while (start >= 0) {
+                List<Operation> candidate = new ArrayList<Operation>(current.subList(0, start));
+                candidate.addAll(current.subList(start + chunk, current.size()));
+                List<Operation> shrunk = differs(candidate);
+                if (shrunk != null) {
+                    current = shrunk;
+                }
+                start = Math.min(start, current.size()) - chunk;
+            }
+        }
+        for (int i = 0; i < current.size(); i++) {
+            for (long blocks = 0; blocks < current.get(i).getBlocks(); blocks = blocks == 0 ? 1 : blocks * 10) {
+                List<Operation> candidate = new ArrayList<Operation>(current);
+                candidate.set(i, current.get(i).withBlocks(blocks));
+                List<Operation> shrunk = differs(candidate);
+                if (shrunk != null) {
+                    current = shrunk;
+                    break;
+                }
+            }
+            if (i < current.size() && current.get(i).getType() == Operation.DEPOSIT) {
+                for (long amount = 1; amount < current.get(i).getAmount(); amount *= 10) {
+                    List<Operation> candidate = new ArrayList<Operation>(current);
+                    candidate.set(i, current.get(i).withAmount(amount));
+                    List<Operation> shrunk = differs(candidate);
+                    if (shrunk != null) {
+                        current = shrunk;
+                        break;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return the history cut after its difference, null if it has none
+     */
+    private List<Operation> differs(List<Operation> candidate) {
+        runs++;
+        DifferentialRun.Divergence divergence = run.run(candidate);
+        if (divergence == null) {
+            return null;
+        }
+        return new ArrayList<Operation>(candidate.subList(0, divergence.getStep() + 1));
+    }
+
+    /**
+     * Number of histories run while shrinking
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+}
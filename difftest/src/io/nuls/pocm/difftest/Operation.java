@@ -0,0 +1,120 @@
+package io.nuls.pocm.difftest;
+
+/**
+ * One step of a history: move some blocks forward, then make a call
+ * <p>
+ * The operation names users by index and picks deposits by position, not by number, so it still means something
+ * when earlier operations are removed from the history; an operation that picks a deposit of a user without deposits
+ * is skipped.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class Operation {
+
+    /**
+     * Deposit {@code amount} NULS for the target, for the user itself when the target is the user
+     */
+    public static final int DEPOSIT = 0;
+
+    /**
+     * Quit one deposit, the {@code amount}-th of the user modulo the number of deposits
+     */
+    public static final int QUIT = 1;
+
+    /**
+     * Quit up to three deposits in one call, picked by the 16-bit parts of {@code amount}
+     */
+    public static final int QUIT_SOME = 2;
+
+    /**
+     * Quit all the deposits, deposit number 0
+     */
+    public static final int QUIT_ALL = 3;
+
+    public static final int QUIT_UNLOCKED = 4;
+
+    /**
+     * Receive the rewards of the deposits of the user
+     */
+    public static final int CLAIM = 5;
+
+    /**
+     * Receive the rewards of the deposits made for the user
+     */
+    public static final int CLAIM_MINING = 6;
+
+    /**
+     * Settle the rewards of the users whose bits are set in {@code amount}
+     */
+    public static final int CLAIM_FOR = 7;
+
+    public static final int TYPE_COUNT = 8;
+
+    private final int type;
+
+    /**
+     * Number of blocks to move forward before the call
+     */
+    private final long blocks;
+
+    private final int user;
+
+    private final int target;
+
+    private final long amount;
+
+    public Operation(int type, long blocks, int user, int target, long amount) {
+        this.type = type;
+        this.blocks = blocks;
+        this.user = user;
+        this.target = target;
+        this.amount = amount;
+    }
+
+    /**
+     * The same call after fewer blocks
+     *
+     * @param blocks number of blocks
+     * @return
+     */
+    public Operation withBlocks(long blocks) {
+        return new Operation(type, blocks, user, target, amount);
+    }
+
+    /**
+     * The same call with another amount
+     *
+     * @param amount amount, position or bits, depending on the type
+     * @return
+     */
+    public Operation withAmount(long amount) {
+        return new Operation(type, blocks, user, target, amount);
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public int getUser() {
+        return user;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "{type:" + type + ",blocks:" + blocks + ",user:" + user + ",target:" + target + ",amount:" + amount + "}";
+    }
+
+}
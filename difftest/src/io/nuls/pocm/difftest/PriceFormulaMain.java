@@ -0,0 +1,175 @@
+package io.nuls.pocm.difftest;
+
+import io.nuls.pocm.contract.model.DepositStore;
+import io.nuls.pocm.contract.service.HalvingService;
+import io.nuls.pocm.contract.service.MiningService;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare the fixed-point price arithmetic of the contract with the BigDecimal formulas of the contract of commit
+ * 1471a21, for every precision from 0 to 18
+ * <p>
+ * For each precision {@code prices} random initial prices with at most that many decimal places are taken, and for
+ * each of them every halving round until the price is zero. A round's price is compared with the price halved with
+ * {@code divide(2, decimals, ROUND_DOWN)} once per round. For {@code samples} random amounts of mortgage and numbers of
+ * reward cycles, the price of a record and the current price are compared with
+ * {@code price.divide(toNuls(amount), decimals, ROUND_DOWN) * differCycleValue} and
+ * {@code price.divide(toNuls(amount), decimals, ROUND_DOWN)}. The reward {@code m * sum / 10^8} of a random mortgage m
+ * over the sum of those record prices is compared with
+ * {@code toNuls(m).multiply(sum).scaleByPowerOfTen(decimals).toBigInteger()}.
+ * <p>
+ * The contract's calcCyclePrice and calcCurrentPrice are private, so they are called through reflection on a
+ * MiningService whose reward cycles are each one halving round. The reward is computed inline in calcMining, so its
+ * expression is repeated here. Amounts are drawn log-uniformly from 1 Na to 10^17 Na, which is more than all the NULS
+ * ever issued. The first differences are printed, and the exit status is 1 if there is any.
+ *
+ * @author: Long
+ * @date: 2019-06-21
+ */
+public class PriceFormulaMain {
+
+    private static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+
+    private static final BigDecimal HALVING = new BigDecimal("2");
+
+    private static final int MAXIMUM_DECIMALS = 18;
+
+    private static final int MAXIMUM_REPORTED = 20;
+
+    private static long checks = 0;
+
+    private static long differences = 0;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : 1L;
+        int prices = options.containsKey("prices") ? Integer.parseInt(options.get("prices")) : 20;
+        int samples = options.containsKey("samples") ? Integer.parseInt(options.get("samples")) : 200;
+
+        Random random = new Random(seed);
+        for (int decimals = 0; decimals <= MAXIMUM_DECIMALS; decimals++) {
+            for (int i = 0; i < prices; i++) {
+                BigDecimal initialPrice = i == 0 ? BigDecimal.ONE : randomPrice(random, decimals);
+                checkPrice(random, decimals, initialPrice, samples);
+            }
+        }
+        System.out.println(checks + " checks, " + differences + " differences");
+        if (differences > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * A price of up to 10^6 with at most the specified number of decimal places, as the contract requires
+     */
+    private static BigDecimal randomPrice(Random random, int decimals) {
+        int digits = 1 + random.nextInt(decimals + 6);
+        BigInteger unscaled = new BigInteger(digits * 4, random).mod(BigInteger.TEN.pow(digits)).add(BigInteger.ONE);
+        return new BigDecimal(unscaled, decimals);
+    }
+
+    /**
+     * An amount of Na, log-uniform between 1 and 10^17
+     */
+    private static long randomAmount(Random random) {
+        long amount = (long) Math.pow(10, random.nextDouble() * 17);
+        return Math.max(1L, amount);
+    }
+
+    private static int randomDifferCycleValue(Random random) {
+        return random.nextInt(4) == 0 ? 1 + random.nextInt(1000000) : 1 + random.nextInt(100);
+    }
+
+    private static void checkPrice(Random random, int decimals, BigDecimal initialPrice, int samples) throws Exception {
+        // one halving round per reward cycle: awarding cycle 1, halving cycle 1, created at height 0
+        MiningService miningService = new MiningService(0, 1, 1, decimals, initialPrice, new DepositStore());
+        HalvingService halvingService = new HalvingService(decimals, initialPrice);
+        Method cyclePrice = MiningService.class.getDeclaredMethod("calcCyclePrice", long.class, int.class, int.class);
+        cyclePrice.setAccessible(true);
+        Method currentPrice = MiningService.class.getDeclaredMethod("calcCurrentPrice", int.class, long.class);
+        currentPrice.setAccessible(true);
+
+        BigDecimal price = initialPrice;
+        for (int round = 0; ; round++) {
+            String context = "decimals " + decimals + ", initial price " + initialPrice.toPlainString() + ", round " + round;
+            compare(context + ", halving price", halvingService.getHalvingPrice(round), price);
+            compare(context + ", halving price value", halvingService.getHalvingPriceValue(round), price.movePointRight(decimals).toBigInteger());
+
+            BigDecimal oldSum = BigDecimal.ZERO;
+            BigInteger newSum = BigInteger.ZERO;
+            for (int i = 0; i < samples; i++) {
+                long amount = randomAmount(random);
+                int differCycleValue = randomDifferCycleValue(random);
+                String sample = context + ", amount " + amount + ", differ " + differCycleValue;
+
+                BigDecimal oldUnitPrice = price.divide(toNuls(amount), decimals, BigDecimal.ROUND_DOWN);
+                BigDecimal oldCyclePrice = oldUnitPrice.multiply(BigDecimal.valueOf(differCycleValue));
+                BigInteger newCyclePrice = (BigInteger) invoke(cyclePrice, miningService, amount, round, differCycleValue);
+                compare(sample + ", cycle price", newCyclePrice, oldCyclePrice.movePointRight(decimals).toBigInteger());
+                compare(sample + ", current price", (BigDecimal) invoke(currentPrice, miningService, round, amount), oldUnitPrice);
+
+                oldSum = oldSum.add(oldCyclePrice);
+                newSum = newSum.add(newCyclePrice);
+                long mortgage = randomAmount(random);
+                BigInteger oldReward = toNuls(mortgage).multiply(oldSum).scaleByPowerOfTen(decimals).toBigInteger();
+                BigInteger newReward = BigInteger.valueOf(mortgage).multiply(newSum).divide(ONE_NULS);
+                compare(sample + ", reward of " + mortgage, newReward, oldReward);
+            }
+            if (price.signum() == 0) {
+                break;
+            }
+            price = price.divide(HALVING, decimals, BigDecimal.ROUND_DOWN);
+        }
+    }
+
+    /**
+     * The amount as the contract of commit 1471a21 divided by it, through its string form
+     */
+    private static BigDecimal toNuls(long amount) {
+        return new BigDecimal(new BigDecimal(BigInteger.valueOf(amount)).movePointLeft(8).toString());
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static void compare(String what, BigDecimal actual, BigDecimal expected) {
+        checks++;
+        if (actual.compareTo(expected) != 0) {
+            report(what, actual.toPlainString(), expected.toPlainString());
+        }
+    }
+
+    private static void compare(String what, BigInteger actual, BigInteger expected) {
+        checks++;
+        if (!actual.equals(expected)) {
+            report(what, actual.toString(), expected.toString());
+        }
+    }
+
+    private static void report(String what, String actual, String expected) {
+        differences++;
+        if (differences <= MAXIMUM_REPORTED) {
+            System.out.println(what + ": " + actual + ", the formula of 1471a21 gives " + expected);
+        }
+    }
+
+}
@@ -0,0 +1,490 @@
+package io.nuls.pocm.difftest;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The payout rules of the pool written out directly, as the reference the contract is compared with
+ * <p>
+ * The rules are the ones of the contract of commit 1471a21: a list of reward cycle records with an index from each
+ * reward cycle to its latest record, a price halved once per halving height reached, and the rewards of a deposit
+ * summed with BigDecimal from the record after the one of the reward cycle before its next mining cycle to the end of
+ * the list. The mortgage details of a depositor are kept in a HashMap as they were there, which gives the order the
+ * total supply is counted in. Where that contract fails, the rules are the ones of the reworked contract: a halving
+ * height whose reward cycle is already in the index adds no record instead of never ending the call, and a claim over
+ * a record without mortgage fails as there.
+ * <p>
+ * Nothing here is shared with the contract: no fixed-point prices, no cumulative prices, no compaction and no
+ * bounded catch-up once the price is zero, every record is kept and every sum is taken again.
+ *
+ * @author: Long
+ * @date: 2019-06-18
+ */
+public class RewardModel {
+
+    private static final BigDecimal HALVING = new BigDecimal("2");
+
+    private final long createHeight;
+
+    private final int awardingCycle;
+
+    private final int rewardHalvingCycle;
+
+    private final int minimumLocked;
+
+    private final int decimals;
+
+    /**
+     * Reward cycle records in the order they were added, and the position of the latest record of each reward cycle
+     */
+    private final List<Record> records = new ArrayList<Record>();
+
+    private final Map<Integer, Integer> index = new HashMap<Integer, Integer>();
+
+    /**
+     * Reward cycle of the record added last, 0 before the first one
+     */
+    private int lastCalcCycle = 0;
+
+    private BigDecimal currentPrice;
+
+    private long nextRewardHalvingHeight;
+
+    /**
+     * Live deposits by number
+     */
+    private final Map<Long, Deposit> deposits = new TreeMap<Long, Deposit>();
+
+    /**
+     * Live deposits of each depositor, a new map each time the depositor had none
+     */
+    private final Map<String, Map<Long, Deposit>> depositorDeposits = new HashMap<String, Map<Long, Deposit>>();
+
+    private long nextNumber = 1;
+
+    private final Map<String, BigInteger> balances = new HashMap<String, BigInteger>();
+
+    /**
+     * Token mined for each receiving address since it last had no deposit
+     */
+    private final Map<String, BigInteger> totalMining = new HashMap<String, BigInteger>();
+
+    private BigInteger totalMinted = BigInteger.ZERO;
+
+    /**
+     * @param createHeight       contract creation height
+     * @param awardingCycle      reward distribution cycle
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param minimumLocked      minimum locking height
+     * @param decimals           Token precision
+     * @param initialPrice       initial price of the reward cycle
+     */
+    public RewardModel(long createHeight, int awardingCycle, int rewardHalvingCycle, int minimumLocked, int decimals,
+                       BigDecimal initialPrice) {
+        this.createHeight = createHeight;
+        this.awardingCycle = awardingCycle;
+        this.rewardHalvingCycle = rewardHalvingCycle;
+        this.minimumLocked = minimumLocked;
+        this.decimals = decimals;
+        this.currentPrice = initialPrice;
+        this.nextRewardHalvingHeight = createHeight + rewardHalvingCycle;
+    }
+
+    /**
+     * Add a deposit
+     *
+     * @param depositor depositor address
+     * @param miner     receiving address
+     * @param amount    amount (Na)
+     * @param height    height of the deposit
+     * @return the deposit number
+     */
+    public long deposit(String depositor, String miner, long amount, long height) {
+        int currentCycle = cycleOf(height);
+        if (!index.containsKey(currentCycle + 1)) {
+            moveLast(height + awardingCycle);
+        }
+        int putCycle = currentCycle + 2;
+        if (!index.containsKey(putCycle)) {
+            if (rewardHalvingCycle > 0 && nextRewardHalvingHeight <= (long) putCycle * awardingCycle + createHeight) {
+                currentPrice = currentPrice.divide(HALVING, decimals, BigDecimal.ROUND_DOWN);
+                nextRewardHalvingHeight += rewardHalvingCycle;
+            }
+            if (lastCalcCycle == 0) {
+                append(putCycle, amount, 1);
+            } else {
+                Record last = records.get(index.get(lastCalcCycle));
+                append(putCycle, amount + last.amount, putCycle - last.cycle);
+            }
+        } else {
+            records.get(index.get(putCycle)).amount += amount;
+        }
+
+        Deposit deposit = new Deposit(nextNumber++, depositor, miner, amount, height, putCycle);
+        deposits.put(deposit.number, deposit);
+        Map<Long, Deposit> details = depositorDeposits.get(depositor);
+        if (details == null) {
+            details = new HashMap<Long, Deposit>();
+            depositorDeposits.put(depositor, details);
+        }
+        details.put(deposit.number, deposit);
+        return deposit.number;
+    }
+
+    /**
+     * Settle the rewards of the deposits of some depositors in one call
+     *
+     * @param depositors depositor addresses
+     * @param height     height of the settlement
+     * @return false if the settlement fails, nothing is changed then
+     */
+    public boolean settle(List<String> depositors, long height) {
+        if (depositors.isEmpty()) {
+            //That contract moves the records only when it settles a depositor
+            return true;
+        }
+        int recordCount = records.size();
+        int savedLastCalcCycle = lastCalcCycle;
+        BigDecimal savedPrice = currentPrice;
+        long savedHalvingHeight = nextRewardHalvingHeight;
+        int currentCycle = cycleOf(height);
+        moveLast(height);
+        List<Settlement> settlements = new ArrayList<Settlement>();
+        for (String depositor : depositors) {
+            Settlement settlement = calcSettlement(depositor, currentCycle);
+            if (settlement == null) {
+                while (records.size() > recordCount) {
+                    records.remove(records.size() - 1);
+                }
+                index.clear();
+                for (int i = 0; i < records.size(); i++) {
+                    index.put(records.get(i).cycle, i);
+                }
+                lastCalcCycle = savedLastCalcCycle;
+                currentPrice = savedPrice;
+                nextRewardHalvingHeight = savedHalvingHeight;
+                return false;
+            }
+            settlements.add(settlement);
+        }
+        for (Settlement settlement : settlements) {
+            for (int i = 0; i < settlement.deposits.size(); i++) {
+                Deposit deposit = settlement.deposits.get(i);
+                BigInteger mining = settlement.minings.get(i);
+                deposit.mining = deposit.mining.add(mining);
+                deposit.miningCount += currentCycle - deposit.nextStartCycle + 1;
+                deposit.nextStartCycle = currentCycle + 1;
+                add(balances, deposit.miner, mining);
+                add(totalMining, deposit.miner, mining);
+            }
+            totalMinted = totalMinted.add(settlement.minted);
+        }
+        return true;
+    }
+
+    /**
+     * Calculate the rewards of the deposits of a depositor up to the end of the records
+     *
+     * @return null if the settlement fails
+     */
+    private Settlement calcSettlement(String depositor, int currentCycle) {
+        Settlement settlement = new Settlement();
+        Map<Long, Deposit> details = depositorDeposits.get(depositor);
+        if (details == null) {
+            return settlement;
+        }
+        Map<String, BigInteger> receiverMinings = new HashMap<String, BigInteger>();
+        for (Deposit deposit : details.values()) {
+            if (deposit.nextStartCycle > currentCycle) {
+                continue;
+            }
+            BigDecimal sumPrice = BigDecimal.ZERO;
+            for (int i = index.get(deposit.nextStartCycle - 1) + 1; i < records.size(); i++) {
+                Record record = records.get(i);
+                if (record.amount == 0) {
+                    return null;
+                }
+                sumPrice = sumPrice.add(record.price.divide(toNuls(record.amount), decimals, BigDecimal.ROUND_DOWN)
+                        .multiply(BigDecimal.valueOf(record.differ)));
+            }
+            BigInteger mining = toNuls(deposit.amount).multiply(sumPrice).scaleByPowerOfTen(decimals).toBigInteger();
+            settlement.deposits.add(deposit);
+            settlement.minings.add(mining);
+            BigInteger receiverMining = receiverMinings.get(deposit.miner);
+            receiverMining = receiverMining == null ? mining : receiverMining.add(mining);
+            receiverMinings.put(deposit.miner, receiverMining);
+            //The total supply grows by the sum of the receiving address so far, as in that contract
+            settlement.minted = settlement.minted.add(receiverMining);
+        }
+        for (BigInteger receiverMining : receiverMinings.values()) {
+            if (receiverMining.signum() < 0) {
+                return null;
+            }
+        }
+        return settlement;
+    }
+
+    /**
+     * Settle the rewards of a depositor and remove some of its deposits, one after the other
+     *
+     * @param depositor depositor address
+     * @param numbers   deposit numbers
+     * @param height    height of the quit
+     * @return false if the settlement fails, nothing is changed then
+     */
+    public boolean quit(String depositor, List<Long> numbers, long height) {
+        if (!settle(Collections.singletonList(depositor), height)) {
+            return false;
+        }
+        for (Long number : numbers) {
+            quit(deposits.get(number), height);
+        }
+        return true;
+    }
+
+    private void quit(Deposit deposit, long height) {
+        int currentCycle = cycleOf(height);
+        if (currentCycle == cycleOf(deposit.height)) {
+            records.get(index.get(currentCycle + 2)).amount -= deposit.amount;
+        } else {
+            int operCycle = currentCycle + 1;
+            if (index.containsKey(operCycle)) {
+                records.get(index.get(operCycle)).amount -= deposit.amount;
+            } else {
+                long nextHeight = height + awardingCycle;
+                if (rewardHalvingCycle > 0 && nextRewardHalvingHeight <= nextHeight) {
+                    moveLastToHalvingHeight(nextHeight);
+                }
+                Record last = records.get(records.size() - 1);
+                append(operCycle, last.amount - deposit.amount, operCycle - last.cycle);
+            }
+        }
+        deposits.remove(deposit.number);
+        Map<Long, Deposit> details = depositorDeposits.get(deposit.depositor);
+        details.remove(deposit.number);
+        if (details.isEmpty()) {
+            depositorDeposits.remove(deposit.depositor);
+        }
+        if (getMiningDeposits(deposit.miner).isEmpty()) {
+            totalMining.remove(deposit.miner);
+        }
+    }
+
+    /**
+     * Add the record of the reward cycle of a height, after the ones of the halving heights reached
+     */
+    private void moveLast(long height) {
+        int currentCycle = cycleOf(height);
+        if (index.containsKey(currentCycle)) {
+            return;
+        }
+        if (rewardHalvingCycle > 0 && nextRewardHalvingHeight <= height) {
+            moveLastToHalvingHeight(height);
+        }
+        if (!index.containsKey(currentCycle)) {
+            if (records.isEmpty()) {
+                append(currentCycle, 0, 1);
+            } else {
+                Record last = records.get(records.size() - 1);
+                append(currentCycle, last.amount, currentCycle - last.cycle);
+            }
+        }
+    }
+
+    /**
+     * Halve the price for each halving height reached up to a height, with a record of its reward cycle unless the
+     * reward cycle is in the index
+     */
+    private void moveLastToHalvingHeight(long height) {
+        long halvingHeight = nextRewardHalvingHeight;
+        while (halvingHeight <= height) {
+            currentPrice = currentPrice.divide(HALVING, decimals, BigDecimal.ROUND_DOWN);
+            int cycle = cycleOf(halvingHeight);
+            if (!index.containsKey(cycle)) {
+                if (lastCalcCycle != 0) {
+                    Record last = records.get(index.get(lastCalcCycle));
+                    append(cycle, last.amount, cycle - last.cycle);
+                } else {
+                    append(cycle, 0, 1);
+                }
+            }
+            halvingHeight += rewardHalvingCycle;
+        }
+        nextRewardHalvingHeight = halvingHeight;
+    }
+
+    private void append(int cycle, long amount, int differ) {
+        records.add(new Record(cycle, currentPrice, amount, differ));
+        index.put(cycle, records.size() - 1);
+        lastCalcCycle = cycle;
+    }
+
+    /**
+     * Whether a deposit can be quit at a height
+     */
+    public boolean isUnlocked(long number, long height) {
+        return deposits.get(number).height + minimumLocked + 1 <= height;
+    }
+
+    /**
+     * Live deposits of a depositor in number order
+     */
+    public List<Deposit> getDeposits(String depositor) {
+        List<Deposit> list = new ArrayList<Deposit>();
+        for (Deposit deposit : deposits.values()) {
+            if (deposit.depositor.equals(depositor)) {
+                list.add(deposit);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Live deposits whose rewards go to a receiving address, in number order
+     */
+    public List<Deposit> getMiningDeposits(String miner) {
+        List<Deposit> list = new ArrayList<Deposit>();
+        for (Deposit deposit : deposits.values()) {
+            if (deposit.miner.equals(miner)) {
+                list.add(deposit);
+            }
+        }
+        return list;
+    }
+
+    public BigInteger balanceOf(String address) {
+        BigInteger balance = balances.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public BigInteger getTotalMining(String miner) {
+        BigInteger mining = totalMining.get(miner);
+        return mining == null ? BigInteger.ZERO : mining;
+    }
+
+    /**
+     * Token added to the total supply by the settlements
+     */
+    public BigInteger getTotalMinted() {
+        return totalMinted;
+    }
+
+    private int cycleOf(long height) {
+        return (int) ((height - createHeight) / awardingCycle);
+    }
+
+    private static BigDecimal toNuls(long amount) {
+        return new BigDecimal(BigInteger.valueOf(amount)).movePointLeft(8);
+    }
+
+    private static void add(Map<String, BigInteger> map, String address, BigInteger value) {
+        BigInteger current = map.get(address);
+        map.put(address, current == null ? value : current.add(value));
+    }
+
+    /**
+     * The rewards of the deposits of a depositor, before they are added
+     */
+    private static class Settlement {
+
+        private final List<Deposit> deposits = new ArrayList<Deposit>();
+
+        private final List<BigInteger> minings = new ArrayList<BigInteger>();
+
+        private BigInteger minted = BigInteger.ZERO;
+
+    }
+
+    /**
+     * A reward cycle record
+     */
+    private static class Record {
+
+        private final int cycle;
+
+        private final BigDecimal price;
+
+        private long amount;
+
+        private final int differ;
+
+        private Record(int cycle, BigDecimal price, long amount, int differ) {
+            this.cycle = cycle;
+            this.price = price;
+            this.amount = amount;
+            this.differ = differ;
+        }
+
+    }
+
+    /**
+     * A live deposit
+     */
+    public static class Deposit {
+
+        private final long number;
+
+        private final String depositor;
+
+        private final String miner;
+
+        private final long amount;
+
+        private final long height;
+
+        private int nextStartCycle;
+
+        private BigInteger mining = BigInteger.ZERO;
+
+        private int miningCount = 0;
+
+        private Deposit(long number, String depositor, String miner, long amount, long height, int startCycle) {
+            this.number = number;
+            this.depositor = depositor;
+            this.miner = miner;
+            this.amount = amount;
+            this.height = height;
+            this.nextStartCycle = startCycle;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public String getDepositor() {
+            return depositor;
+        }
+
+        public String getMiner() {
+            return miner;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        public long getHeight() {
+            return height;
+        }
+
+        public int getNextStartCycle() {
+            return nextStartCycle;
+        }
+
+        public BigInteger getMining() {
+            return mining;
+        }
+
+        public int getMiningCount() {
+            return miningCount;
+        }
+
+    }
+
+}
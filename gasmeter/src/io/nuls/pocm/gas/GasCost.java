@@ -0,0 +1,109 @@
+package io.nuls.pocm.gas;
+
+/**
+ * Cost of a contract call measured in the local VM
+ * <p>
+ * The NULS VM charges gas for every bytecode executed, with higher prices for big number arithmetic,
+ * collection access, object creation and events, so these counts tell which part of a call uses the gas.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public class GasCost {
+
+    /**
+     * Bytecode instructions executed in the contract classes
+     */
+    private final long instructions;
+
+    /**
+     * Calls of BigInteger and BigDecimal methods and constructors
+     */
+    private final long bigNumberOperations;
+
+    /**
+     * Map lookups and iterations
+     */
+    private final long mapReads;
+
+    /**
+     * Map insertions and removals
+     */
+    private final long mapWrites;
+
+    /**
+     * Reward cycle records read from the reward cycle store, including the binary search
+     */
+    private final long cycleRecordReads;
+
+    /**
+     * Objects and arrays created in the contract classes
+     */
+    private final long allocations;
+
+    private final long events;
+
+    public GasCost(long instructions, long bigNumberOperations, long mapReads, long mapWrites, long cycleRecordReads,
+                   long allocations, long events) {
+        this.instructions = instructions;
+        this.bigNumberOperations = bigNumberOperations;
+        this.mapReads = mapReads;
+        this.mapWrites = mapWrites;
+        this.cycleRecordReads = cycleRecordReads;
+        this.allocations = allocations;
+        this.events = events;
+    }
+
+    /**
+     * The cost between two snapshots
+     *
+     * @param start the earlier snapshot
+     * @param events events emitted in between
+     * @return
+     */
+    public GasCost since(GasCost start, long events) {
+        return new GasCost(instructions - start.instructions, bigNumberOperations - start.bigNumberOperations,
+                mapReads - start.mapReads, mapWrites - start.mapWrites, cycleRecordReads - start.cycleRecordReads,
+                allocations - start.allocations, events);
+    }
+
+    public long getInstructions() {
+        return instructions;
+    }
+
+    public long getBigNumberOperations() {
+        return bigNumberOperations;
+    }
+
+    public long getMapReads() {
+        return mapReads;
+    }
+
+    public long getMapWrites() {
+        return mapWrites;
+    }
+
+    public long getCycleRecordReads() {
+        return cycleRecordReads;
+    }
+
+    public long getAllocations() {
+        return allocations;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return "{instructions=" + instructions +
+                ", bigNumberOperations=" + bigNumberOperations +
+                ", mapReads=" + mapReads +
+                ", mapWrites=" + mapWrites +
+                ", cycleRecordReads=" + cycleRecordReads +
+                ", allocations=" + allocations +
+                ", events=" + events + '}';
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.nuls.pocm.gas;
+
+/**
+ * Counters incremented by the instrumented contract classes
+ * <p>
+ * The counters are plain static fields, so only one thread may run instrumented code at a time.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public final class GasCounter {
+
+    private static long instructions;
+
+    private static long bigNumberOperations;
+
+    private static long mapReads;
+
+    private static long mapWrites;
+
+    private static long cycleRecordReads;
+
+    private static long allocations;
+
+    private GasCounter() {
+    }
+
+    public static void instructions(int count) {
+        instructions += count;
+    }
+
+    public static void bigNumberOperation() {
+        bigNumberOperations++;
+    }
+
+    public static void mapRead() {
+        mapReads++;
+    }
+
+    public static void mapWrite() {
+        mapWrites++;
+    }
+
+    public static void cycleRecordRead() {
+        cycleRecordReads++;
+    }
+
+    public static void allocation() {
+        allocations++;
+    }
+
+    /**
+     * The counters since the start of the program, events are not counted here
+     *
+     * @return
+     */
+    public static GasCost snapshot() {
+        return new GasCost(instructions, bigNumberOperations, mapReads, mapWrites, cycleRecordReads, allocations, 0);
+    }
+
+}
@@ -0,0 +1,75 @@
+package io.nuls.pocm.gas;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Print the cost of the contract entry points, measured with the metered contract classes
+ * <p>
+ * Options are given as {@code name=value}: {@code users}, {@code deposits} and {@code cycles} are comma separated
+ * pool sizes, the first value of each is the base value used while another dimension changes,
+ * {@code method} selects the entry points whose name contains it.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public class GasReportMain {
+
+    private static final String CONTRACT_CLASS = "io.nuls.pocm.contract.Pocm";
+
+    private static final String[] DIMENSIONS = {"users", "deposits", "cycles"};
+
+    private static final String[] DEFAULT_VALUES = {"100,10,1000,10000", "10,1,100,1000", "100,1,10000,1000000"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int[] base = new int[DIMENSIONS.length];
+        int[][] values = new int[DIMENSIONS.length][];
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            String option = options.get(DIMENSIONS[i]);
+            String[] items = (option == null ? DEFAULT_VALUES[i] : option).split(",");
+            values[i] = new int[items.length];
+            for (int j = 0; j < items.length; j++) {
+                values[i][j] = Integer.parseInt(items[j].trim());
+                if (values[i][j] < 1) {
+                    throw new IllegalArgumentException(DIMENSIONS[i] + " should be at least 1");
+                }
+            }
+            base[i] = values[i][0];
+        }
+        String method = options.get("method");
+
+        MeteringClassLoader loader = new MeteringClassLoader(classPath(), GasReportMain.class.getClassLoader());
+        try {
+            loader.checkClassVersion(CONTRACT_CLASS);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        Class<?> reportClass = loader.loadClass("io.nuls.pocm.gas.report.GasReport");
+        Object report = reportClass.getConstructor(PrintStream.class, int[].class, int[][].class)
+                .newInstance(System.out, base, values);
+        reportClass.getMethod("run", String.class).invoke(report, method == null ? "" : method);
+    }
+
+    private static URL[] classPath() throws MalformedURLException {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            urls[i] = new File(entries[i]).toURI().toURL();
+        }
+        return urls;
+    }
+
+}
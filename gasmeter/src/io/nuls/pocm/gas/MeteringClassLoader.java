@@ -0,0 +1,100 @@
+package io.nuls.pocm.gas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Loads the contract classes with metering, and the classes that drive the contract next to them
+ * <p>
+ * The classes of the contract and of its drivers are loaded by this loader instead of the parent,
+ * so the drivers call the metered contract. The SDK stand-in and the counters come from the parent
+ * and are shared with the code that reads the counters.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public class MeteringClassLoader extends URLClassLoader {
+
+    private static final String CONTRACT_PACKAGE = "io.nuls.pocm.contract.";
+
+    private static final String[] DRIVER_PACKAGES = {"io.nuls.pocm.simulator.", "io.nuls.pocm.gas.report."};
+
+    private final MeteringTransformer transformer = new MeteringTransformer();
+
+    public MeteringClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!isLocal(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> type = findLoadedClass(name);
+            if (type == null) {
+                byte[] classBytes = readClass(name);
+                if (name.startsWith(CONTRACT_PACKAGE)) {
+                    transformer.checkClassVersion(name, classBytes);
+                    classBytes = transformer.transform(classBytes);
+                }
+                type = defineClass(name, classBytes, 0, classBytes.length);
+            }
+            if (resolve) {
+                resolveClass(type);
+            }
+            return type;
+        }
+    }
+
+    /**
+     * Check that a contract class can be metered, without loading it
+     *
+     * @param name class name
+     * @throws ClassNotFoundException   if the class is not in the class path
+     * @throws IllegalArgumentException if the class was not compiled for Java 8
+     */
+    public void checkClassVersion(String name) throws ClassNotFoundException {
+        transformer.checkClassVersion(name, readClass(name));
+    }
+
+    private static boolean isLocal(String name) {
+        if (name.startsWith(CONTRACT_PACKAGE)) {
+            return true;
+        }
+        for (String driverPackage : DRIVER_PACKAGES) {
+            if (name.startsWith(driverPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] readClass(String name) throws ClassNotFoundException {
+        InputStream in = getResourceAsStream(name.replace('.', '/') + ".class");
+        if (in == null) {
+            throw new ClassNotFoundException(name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package io.nuls.pocm.gas;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds calls of {@link GasCounter} to a contract class
+ * <p>
+ * Instructions are counted once per straight-line block, so the counter costs one call per block
+ * instead of one per instruction. The other counters are incremented before the counted instruction.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public class MeteringTransformer {
+
+    private static final String COUNTER = "io/nuls/pocm/gas/GasCounter";
+
+    /**
+     * Latest class file version transformed: the NULS VM runs Java 8 classes, and ASM 7.1 cannot read the
+     * versions of Java 14 and later
+     */
+    private static final int MAXIMUM_CLASS_VERSION = Opcodes.V1_8;
+
+    /**
+     * The class whose array reads are reward cycle record reads
+     */
+    private static final String CYCLE_STORE = "io/nuls/pocm/contract/model/RewardCycleStore";
+
+    private static final Set<String> BIG_NUMBERS = new HashSet<String>(Arrays.asList(
+            "java/math/BigInteger", "java/math/BigDecimal"));
+
+    private static final Set<String> MAPS = new HashSet<String>(Arrays.asList(
+            "java/util/Map", "java/util/HashMap", "java/util/LinkedHashMap", "java/util/TreeMap"));
+
+    private static final Set<String> MAP_READS = new HashSet<String>(Arrays.asList(
+            "get", "containsKey", "containsValue", "keySet", "values", "entrySet", "size", "isEmpty"));
+
+    private static final Set<String> MAP_WRITES = new HashSet<String>(Arrays.asList(
+            "put", "putAll", "remove", "clear"));
+
+    /**
+     * Check that a class was compiled for Java 8, before it is read
+     *
+     * @param name       class name
+     * @param classBytes class file
+     * @throws IllegalArgumentException with the version found and how to compile the classes
+     */
+    public void checkClassVersion(String name, byte[] classBytes) {
+        int version = classBytes.length < 8 ? -1 : ((classBytes[6] & 0xff) << 8) | (classBytes[7] & 0xff);
+        if (version > MAXIMUM_CLASS_VERSION) {
+            throw new IllegalArgumentException(name + " has class file version " + version + " (Java " + (version - 44)
+                    + "), the metering reads Java 8 classes (version " + MAXIMUM_CLASS_VERSION + ") only: compile "
+                    + "local-sdk, the contract module and simulator with javac --release 8 (or -source 8 -target 8)");
+        }
+    }
+
+    public byte[] transform(byte[] classBytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classBytes).accept(classNode, 0);
+        for (MethodNode method : classNode.methods) {
+            if (method.instructions.size() > 0) {
+                transform(classNode.name, method);
+            }
+        }
+        // the inserted calls only push constants, so the frames stay valid and only the stack size changes
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classNode.accept(writer);
+        return writer.toByteArray();
+    }
+
+    private void transform(String className, MethodNode method) {
+        InsnList instructions = method.instructions;
+        List<AbstractInsnNode> blockStarts = new ArrayList<AbstractInsnNode>();
+        List<Integer> blockSizes = new ArrayList<Integer>();
+        AbstractInsnNode blockStart = null;
+        int blockSize = 0;
+        for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LabelNode) {
+                if (blockStart != null) {
+                    blockStarts.add(blockStart);
+                    blockSizes.add(blockSize);
+                    blockStart = null;
+                }
+                continue;
+            }
+            if (insn.getOpcode() < 0) {
+                continue;
+            }
+            if (blockStart == null) {
+                blockStart = insn;
+                blockSize = 0;
+            }
+            blockSize++;
+            countOperation(className, instructions, insn);
+            if (endsBlock(insn)) {
+                blockStarts.add(blockStart);
+                blockSizes.add(blockSize);
+                blockStart = null;
+            }
+        }
+        if (blockStart != null) {
+            blockStarts.add(blockStart);
+            blockSizes.add(blockSize);
+        }
+        for (int i = 0; i < blockStarts.size(); i++) {
+            InsnList counter = new InsnList();
+            counter.add(new LdcInsnNode(blockSizes.get(i)));
+            counter.add(new MethodInsnNode(Opcodes.INVOKESTATIC, COUNTER, "instructions", "(I)V", false));
+            instructions.insertBefore(blockStarts.get(i), counter);
+        }
+    }
+
+    private void countOperation(String className, InsnList instructions, AbstractInsnNode insn) {
+        String counter = null;
+        int opcode = insn.getOpcode();
+        if (insn instanceof MethodInsnNode) {
+            MethodInsnNode call = (MethodInsnNode) insn;
+            if (BIG_NUMBERS.contains(call.owner)) {
+                counter = "bigNumberOperation";
+            } else if (MAPS.contains(call.owner) && MAP_READS.contains(call.name)) {
+                counter = "mapRead";
+            } else if (MAPS.contains(call.owner) && MAP_WRITES.contains(call.name)) {
+                counter = "mapWrite";
+            }
+        } else if (opcode == Opcodes.NEW || opcode == Opcodes.NEWARRAY || opcode == Opcodes.ANEWARRAY
+                || opcode == Opcodes.MULTIANEWARRAY || opcode == Opcodes.INVOKEDYNAMIC) {
+            counter = "allocation";
+        } else if ((opcode == Opcodes.AALOAD || opcode == Opcodes.IALOAD) && CYCLE_STORE.equals(className)) {
+            counter = "cycleRecordRead";
+        }
+        if (counter != null) {
+            instructions.insertBefore(insn, new MethodInsnNode(Opcodes.INVOKESTATIC, COUNTER, counter, "()V", false));
+        }
+    }
+
+    private static boolean endsBlock(AbstractInsnNode insn) {
+        int opcode = insn.getOpcode();
+        return insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode || insn instanceof LookupSwitchInsnNode
+                || (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN) || opcode == Opcodes.ATHROW;
+    }
+
+}
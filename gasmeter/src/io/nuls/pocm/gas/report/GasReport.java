@@ -0,0 +1,261 @@
+package io.nuls.pocm.gas.report;
+
+import io.nuls.pocm.contract.Pocm;
+import io.nuls.pocm.gas.GasCost;
+import io.nuls.pocm.gas.GasCounter;
+import io.nuls.pocm.simulator.CallResult;
+import io.nuls.pocm.simulator.ContractCall;
+import io.nuls.pocm.simulator.PocmSimulation;
+
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of every public entry point of the contract as the pool grows
+ * <p>
+ * Each measurement deploys a pool, fills it and makes one call. One of the three pool dimensions changes
+ * at a time, the others keep their base value:
+ * <ul>
+ * <li>users: number of other users, each deposits once in a reward cycle of its own,
+ * so it is also the number of reward cycle records</li>
+ * <li>deposits: number of deposits of the measured user, and of the depositors of the measured mining address</li>
+ * <li>cycles: reward cycles since the last call</li>
+ * </ul>
+ * Must be loaded by a {@link io.nuls.pocm.gas.MeteringClassLoader}, otherwise all counts are 0.
+ *
+ * @author: Long
+ * @date: 2019-06-05
+ */
+public class GasReport {
+
+    private static final int AWARDING_CYCLE = 10;
+
+    private static final String SUBJECT = "subject";
+
+    private static final String MINER = "miner";
+
+    private static final String[] DIMENSIONS = {"users", "deposits", "cycles"};
+
+    private final PrintStream out;
+
+    private final int[] base;
+
+    private final int[][] values;
+
+    public GasReport(PrintStream out, int[] base, int[][] values) {
+        this.out = out;
+        this.base = base;
+        this.values = values;
+    }
+
+    /**
+     * Print the report of the entry points whose name contains the filter
+     *
+     * @param filter part of the entry point name, empty for all of them
+     */
+    public void run(String filter) {
+        for (EntryPoint entryPoint : entryPoints()) {
+            if (entryPoint.name.contains(filter)) {
+                report(entryPoint);
+            }
+        }
+    }
+
+    private void report(EntryPoint entryPoint) {
+        out.println("== " + entryPoint.name + " ==");
+        out.println(String.format("%8s %8s %8s | %12s %9s %8s %8s %9s %8s %6s", "users", "deposits", "cycles",
+                "instructions", "bigNumber", "mapRead", "mapWrite", "cycleRead", "alloc", "events"));
+        for (int dimension = 0; dimension < DIMENSIONS.length; dimension++) {
+            for (int value : values[dimension]) {
+                if (dimension > 0 && value == base[dimension]) {
+                    // the base pool is measured once
+                    continue;
+                }
+                int[] pool = base.clone();
+                pool[dimension] = value;
+                GasCost cost = measure(entryPoint, pool);
+                out.println(String.format("%8d %8d %8d | %12d %9d %8d %8d %9d %8d %6d", pool[0], pool[1], pool[2],
+                        cost.getInstructions(), cost.getBigNumberOperations(), cost.getMapReads(), cost.getMapWrites(),
+                        cost.getCycleRecordReads(), cost.getAllocations(), cost.getEvents()));
+            }
+        }
+        out.println();
+    }
+
+    private GasCost measure(EntryPoint entryPoint, int[] pool) {
+        PocmSimulation simulation = new PocmSimulation(AWARDING_CYCLE, 1, 0, Integer.MAX_VALUE);
+        for (int i = 0; i < pool[0]; i++) {
+            check(simulation, simulation.deposit("user" + i, 1000));
+            simulation.advance(AWARDING_CYCLE);
+        }
+        // the users made the deposits numbered from 1
+        long subjectDeposit = pool[0] + 1;
+        for (int i = 0; i < pool[1]; i++) {
+            check(simulation, simulation.deposit(SUBJECT, 100));
+            check(simulation, simulation.depositFor("depositor" + i, MINER, 100));
+        }
+        simulation.advance((long) pool[2] * AWARDING_CYCLE);
+
+        GasCost start = GasCounter.snapshot();
+        CallResult result = simulation.getChain().call(simulation.user(entryPoint.sender), BigInteger.valueOf(entryPoint.value),
+                entryPoint.call(simulation, subjectDeposit, pool[1]));
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(entryPoint.name + " failed: " + result.getErrorMessage());
+        }
+        return GasCounter.snapshot().since(start, result.getEvents().size());
+    }
+
+    private static void check(PocmSimulation simulation, boolean success) {
+        if (!success) {
+            throw new IllegalStateException("Pool setup failed: " + simulation.getLastError());
+        }
+    }
+
+    private static List<EntryPoint> entryPoints() {
+        List<EntryPoint> entryPoints = new ArrayList<EntryPoint>();
+        entryPoints.add(new EntryPoint("depositForOwn", SUBJECT, 100L * 100000000L) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.depositForOwn();
+            }
+        });
+        entryPoints.add(new EntryPoint("depositForOther", SUBJECT, 100L * 100000000L) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.depositForOther(simulation.user(MINER));
+            }
+        });
+        entryPoints.add(new EntryPoint("depositForOthers, 10 mining addresses", SUBJECT, 10 * 100L * 100000000L) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                String[] miningAddresses = new String[10];
+                long[] depositAmounts = new long[10];
+                for (int i = 0; i < miningAddresses.length; i++) {
+                    miningAddresses[i] = simulation.user("batch" + i).toString();
+                    depositAmounts[i] = 100L * 100000000L;
+                }
+                pocm.depositForOthers(miningAddresses, depositAmounts);
+            }
+        });
+        entryPoints.add(new EntryPoint("quit one deposit", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.quit(String.valueOf(subjectDeposit));
+            }
+        });
+        entryPoints.add(new EntryPoint("quitDeposits, half of the deposits", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                //the deposits of the measured user alternate with the deposits for the mining address
+                long[] depositNumbers = new long[(deposits + 1) / 2];
+                for (int i = 0; i < depositNumbers.length; i++) {
+                    depositNumbers[i] = subjectDeposit + 2 * i;
+                }
+                pocm.quitDeposits(depositNumbers);
+            }
+        });
+        entryPoints.add(new EntryPoint("quit all deposits", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.quit("0");
+            }
+        });
+        entryPoints.add(new EntryPoint("quitUnlocked", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.quitUnlocked();
+            }
+        });
+        entryPoints.add(new EntryPoint("receiveAwards", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.receiveAwards();
+            }
+        });
+        entryPoints.add(new EntryPoint("receiveAwardsForMiningAddress", MINER, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.receiveAwardsForMiningAddress();
+            }
+        });
+        entryPoints.add(new EntryPoint("pendingReward", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.pendingReward(simulation.user(SUBJECT));
+            }
+        });
+        entryPoints.add(new EntryPoint("claimFor, measured user and 9 others", "keeper", 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                String[] depositorAddresses = new String[10];
+                depositorAddresses[0] = simulation.user(SUBJECT).toString();
+                for (int i = 1; i < depositorAddresses.length; i++) {
+                    depositorAddresses[i] = simulation.user("user" + i).toString();
+                }
+                pocm.claimFor(depositorAddresses);
+            }
+        });
+        entryPoints.add(new EntryPoint("transfer", "owner", 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.transfer(simulation.user(SUBJECT), BigInteger.ONE);
+            }
+        });
+        entryPoints.add(new EntryPoint("currentPrice", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.currentPrice();
+            }
+        });
+        entryPoints.add(new EntryPoint("getTotalDepositList", SUBJECT, 0) {
+            @Override
+            void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits) {
+                pocm.getTotalDepositList();
+            }
+        });
+        return entryPoints;
+    }
+
+    /**
+     * A public method of the contract and the caller used to measure it
+     */
+    private abstract static class EntryPoint {
+
+        private final String name;
+
+        private final String sender;
+
+        /**
+         * NULS sent with the call in Na
+         */
+        private final long value;
+
+        private EntryPoint(String name, String sender, long value) {
+            this.name = name;
+            this.sender = sender;
+            this.value = value;
+        }
+
+        /**
+         * @param simulation     the pool
+         * @param pocm           the contract
+         * @param subjectDeposit the number of the first deposit of the measured user
+         * @param deposits       the number of deposits of the measured user
+         */
+        abstract void invoke(PocmSimulation simulation, Pocm pocm, long subjectDeposit, int deposits);
+
+        ContractCall<Pocm> call(final PocmSimulation simulation, final long subjectDeposit, final int deposits) {
+            return new ContractCall<Pocm>() {
+                @Override
+                public Object invoke(Pocm pocm) {
+                    EntryPoint.this.invoke(simulation, pocm, subjectDeposit, deposits);
+                    return null;
+                }
+            };
+        }
+
+    }
+
+}
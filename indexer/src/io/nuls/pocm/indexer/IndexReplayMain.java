@@ -0,0 +1,232 @@
+package io.nuls.pocm.indexer;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.Pocm;
+import io.nuls.pocm.simulator.ContractCall;
+import io.nuls.pocm.simulator.LocalChain;
+import io.nuls.pocm.simulator.PocmSimulation;
+import io.nuls.pocm.simulator.RandomScenario;
+import io.nuls.pocm.simulator.TransactionListener;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static io.nuls.pocm.contract.util.PocmUtil.toNuls;
+
+/**
+ * Replay the events of a random pool activity into a {@link PoolIndex} and compare the index with the contract
+ * <p>
+ * The activity is a {@link RandomScenario} with the options {@code seed}, {@code blocks}, {@code users} and
+ * {@code interval} of {@code SimulatorMain}, plus batch deposits, batch and unlocked withdrawals, settlements for
+ * others, token transfers, ownership transfers and switches of the transfer event compatibility. It is cut into
+ * {@code checks} parts; after each part the new transactions are applied to the index and the mortgage information,
+ * the mining information and the Token balance of every user are compared with the views of the contract. The pool
+ * is configured with {@code awardingCycle}, {@code minimumLocked} and {@code rewardHalvingCycle}.
+ *
+ * @author: Long
+ * @date: 2019-06-17
+ */
+public class IndexReplayMain {
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        long seed = longOption(options, "seed", 1L);
+        int userCount = intOption(options, "users", 100);
+        int checks = intOption(options, "checks", 10);
+        // about a month of blocks at one block every ten seconds
+        long blocks = longOption(options, "blocks", 259200L);
+
+        TransactionLog log = new TransactionLog();
+        PocmSimulation simulation = new PocmSimulation(intOption(options, "awardingCycle", 100),
+                intOption(options, "minimumLocked", 1000), intOption(options, "rewardHalvingCycle", 0),
+                LocalChain.DEFAULT_CHECKPOINT_INTERVAL, log);
+        Pocm pocm = simulation.getPocm();
+        String initialPrice = pocm.initialPrice();
+        PoolIndex index = new PoolIndex(pocm.createHeight(), (int) pocm.awardingCycle(), (int) pocm.rewardHalvingCycle(),
+                pocm.decimals(), new BigDecimal(initialPrice.substring(0, initialPrice.indexOf(' '))), pocm.minimumLocked(),
+                pocm.viewOwner().toString());
+
+        RandomScenario scenario = new RandomScenario(simulation, seed, userCount, intOption(options, "interval", 50));
+        Random random = new Random(seed);
+        long start = System.currentTimeMillis();
+        int mismatches = 0;
+        for (int i = 0; i < checks; i++) {
+            scenario.run(blocks / checks);
+            for (int j = 0; j < userCount / 10 + 1; j++) {
+                batchStep(simulation, random, userCount);
+            }
+            log.replay(index);
+            mismatches += compare(simulation, index);
+        }
+        LocalChain<?> chain = simulation.getChain();
+        System.out.println("height " + chain.getHeight() + ", " + index.getTransactionCount() + " transactions indexed, "
+                + mismatches + " mismatches, " + (System.currentTimeMillis() - start) + " ms");
+        printQueryTimes(simulation, index);
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The calls the random scenario does not make
+     */
+    private static void batchStep(PocmSimulation simulation, Random random, int userCount) {
+        String user = "user" + random.nextInt(userCount);
+        int action = random.nextInt(100);
+        if (action < 25) {
+            int count = 1 + random.nextInt(3);
+            String[] miners = new String[count];
+            long[] nuls = new long[count];
+            for (int i = 0; i < count; i++) {
+                miners[i] = "user" + random.nextInt(userCount);
+                nuls[i] = 1 + random.nextInt(1000);
+            }
+            simulation.depositForAll(user, miners, nuls);
+        } else if (action < 45) {
+            List<Long> numbers = simulation.depositNumbers(user);
+            if (numbers.size() >= 2) {
+                simulation.quitAll(user, new long[]{numbers.get(0), numbers.get(numbers.size() - 1)});
+            }
+        } else if (action < 60) {
+            simulation.quitUnlocked(user);
+        } else if (action < 75) {
+            String[] depositors = new String[1 + random.nextInt(5)];
+            for (int i = 0; i < depositors.length; i++) {
+                depositors[i] = "user" + random.nextInt(userCount);
+            }
+            simulation.claimFor("keeper", depositors);
+        } else if (action < 90) {
+            final Address to = simulation.user("user" + random.nextInt(userCount));
+            final BigInteger value = simulation.tokenBalance(user).divide(BigInteger.valueOf(2));
+            simulation.getChain().call(simulation.user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+                @Override
+                public Object invoke(Pocm pocm) {
+                    return pocm.transfer(to, value);
+                }
+            });
+        } else if (action < 95) {
+            final boolean compatible = random.nextBoolean();
+            simulation.getChain().call(ownerOf(simulation), BigInteger.ZERO, new ContractCall<Pocm>() {
+                @Override
+                public Object invoke(Pocm pocm) {
+                    pocm.setTransferEventCompatible(compatible);
+                    return null;
+                }
+            });
+        } else {
+            final Address newOwner = simulation.user("owner" + random.nextInt(3));
+            simulation.getChain().call(ownerOf(simulation), BigInteger.ZERO, new ContractCall<Pocm>() {
+                @Override
+                public Object invoke(Pocm pocm) {
+                    pocm.transferOwnership(newOwner);
+                    return null;
+                }
+            });
+        }
+    }
+
+    private static Address ownerOf(PocmSimulation simulation) {
+        return simulation.getPocm().viewOwner();
+    }
+
+    /**
+     * Compare the index with the contract views
+     *
+     * @return number of differences
+     */
+    private static int compare(PocmSimulation simulation, PoolIndex index) {
+        Pocm pocm = simulation.getPocm();
+        List<String> differences = new ArrayList<String>();
+        for (Address user : simulation.getUsers()) {
+            String address = user.toString();
+            compare(differences, "deposit info of " + address, pocm.getDepositInfo(user), index.getDepositInfo(address));
+            compare(differences, "mining info of " + address, pocm.getMingInfo(user), index.getMiningInfo(address));
+            compare(differences, "balance of " + address, pocm.balanceOf(user), index.balanceOf(address));
+        }
+        compare(differences, "total deposit", pocm.totalDeposit(), toNuls(index.getTotalDeposit()).toPlainString());
+        compare(differences, "deposit address count", pocm.totalDepositAddressCount(), index.getTotalDepositAddressCount());
+        compare(differences, "total supply", pocm.totalSupply(), index.getTotalSupply());
+        compare(differences, "owner", pocm.viewOwner(), index.getOwner());
+        for (String difference : differences) {
+            System.out.println("height " + index.getHeight() + ": " + difference);
+        }
+        return differences.size();
+    }
+
+    private static void compare(List<String> differences, String name, Object contract, Object index) {
+        String contractValue = String.valueOf(contract);
+        String indexValue = String.valueOf(index);
+        if (!contractValue.equals(indexValue)) {
+            differences.add(name + " is " + contractValue + " in the contract and " + indexValue + " in the index");
+        }
+    }
+
+    private static void printQueryTimes(PocmSimulation simulation, PoolIndex index) {
+        List<Address> users = simulation.getUsers();
+        Pocm pocm = simulation.getPocm();
+        long start = System.nanoTime();
+        for (Address user : users) {
+            index.getDepositInfo(user.toString());
+            index.getMiningInfo(user.toString());
+        }
+        long indexTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Address user : users) {
+            String.valueOf(pocm.getDepositInfo(user));
+            String.valueOf(pocm.getMingInfo(user));
+        }
+        long viewTime = System.nanoTime() - start;
+        System.out.println(String.format("mortgage and mining information of %d users: %.1f us per user from the index, "
+                        + "%.1f us per user as serialized contract views", users.size(),
+                indexTime / 1000.0 / users.size(), viewTime / 1000.0 / users.size()));
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Keeps the transactions of the chain until they are applied to the index
+     */
+    private static class TransactionLog implements TransactionListener {
+
+        private final List<Long> heights = new ArrayList<Long>();
+
+        private final List<List<Event>> transactions = new ArrayList<List<Event>>();
+
+        @Override
+        public void onTransaction(long height, List<Event> events) {
+            heights.add(height);
+            transactions.add(events);
+        }
+
+        private void replay(PoolIndex index) {
+            for (int i = 0; i < transactions.size(); i++) {
+                index.applyTransaction(heights.get(i), transactions.get(i));
+            }
+            heights.clear();
+            transactions.clear();
+        }
+
+    }
+
+}
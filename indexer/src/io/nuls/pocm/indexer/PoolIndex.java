@@ -0,0 +1,313 @@
+package io.nuls.pocm.indexer;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.event.BatchDepositEvent;
+import io.nuls.pocm.contract.event.BatchQuitEvent;
+import io.nuls.pocm.contract.event.DepositAddedEvent;
+import io.nuls.pocm.contract.event.DepositWithdrawnEvent;
+import io.nuls.pocm.contract.event.RewardSettlementEvent;
+import io.nuls.pocm.contract.model.DepositInfo;
+import io.nuls.pocm.contract.model.DepositStore;
+import io.nuls.pocm.contract.model.MiningInfo;
+import io.nuls.pocm.contract.model.MiningResult;
+import io.nuls.pocm.contract.ownership.Ownable;
+import io.nuls.pocm.contract.service.DepositService;
+import io.nuls.pocm.contract.service.MiningService;
+import io.nuls.pocm.contract.token.Token;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a POCM pool rebuilt off-chain from the events of the contract
+ * <p>
+ * The transactions are applied in chain order with the height of their block. The mortgages and the reward cycle
+ * queue are kept in the same {@link DepositStore} and {@link MiningService} as in the contract, fed with the same
+ * calls, so the mortgage and mining information are built as the contract builds them. The settlement events name the
+ * mortgage addresses settled, which is enough to settle them again here; a claim that settles nothing still emits
+ * one, as it still brings the reward cycle queue up to date. The totals carried by the events are checked
+ * against the index, a missed or reordered transaction fails the next check.
+ * <p>
+ * Settled rewards appear twice while the transfer event compatibility is on, as the TransferEvents and as the
+ * settlement event of the same transaction; they are credited once.
+ *
+ * @author: Long
+ * @date: 2019-06-17
+ */
+public class PoolIndex {
+
+    private final DepositStore depositStore = new DepositStore();
+
+    private final DepositService depositService;
+
+    private final MiningService miningService;
+
+    /**
+     * Token balance of each address
+     */
+    private final Map<String, BigInteger> balances = new HashMap<String, BigInteger>();
+
+    private BigInteger totalSupply = BigInteger.ZERO;
+
+    private String owner;
+
+    /**
+     * Height of the last transaction applied
+     */
+    private long height;
+
+    private long transactionCount = 0;
+
+    /**
+     * @param createHeight       contract creation height
+     * @param awardingCycle      reward distribution cycle
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param decimals           Token precision
+     * @param initialPrice       initial price of the reward cycle
+     * @param minimumLocked      minimum locking height
+     * @param owner              contract creator
+     */
+    public PoolIndex(long createHeight, int awardingCycle, int rewardHalvingCycle, int decimals, BigDecimal initialPrice,
+                     int minimumLocked, String owner) {
+        // the events only report mortgages the contract accepted, so no minimum and no address limit
+        this.depositService = new DepositService(minimumLocked, BigInteger.ZERO, 0, depositStore);
+        this.miningService = new MiningService(createHeight, awardingCycle, rewardHalvingCycle, decimals, initialPrice, depositStore);
+        this.owner = owner;
+        this.height = createHeight;
+    }
+
+    /**
+     * Apply the events of a transaction
+     *
+     * @param height height of the block of the transaction, not lower than the previous one
+     * @param events the events of the transaction, in order
+     */
+    public void applyTransaction(long height, List<? extends Event> events) {
+        if (height < this.height) {
+            throw new IllegalArgumentException("Transaction at height " + height + " after height " + this.height);
+        }
+        this.height = height;
+        List<Token.TransferEvent> mints = new ArrayList<Token.TransferEvent>();
+        for (Event event : events) {
+            if (event instanceof DepositAddedEvent) {
+                apply((DepositAddedEvent) event);
+            } else if (event instanceof BatchDepositEvent) {
+                apply((BatchDepositEvent) event);
+            } else if (event instanceof DepositWithdrawnEvent) {
+                apply((DepositWithdrawnEvent) event);
+            } else if (event instanceof BatchQuitEvent) {
+                apply((BatchQuitEvent) event);
+            } else if (event instanceof RewardSettlementEvent) {
+                apply((RewardSettlementEvent) event, mints);
+                mints.clear();
+            } else if (event instanceof Token.TransferEvent) {
+                Token.TransferEvent transfer = (Token.TransferEvent) event;
+                if (transfer.getFrom() == null) {
+                    mints.add(transfer);
+                } else {
+                    addBalance(transfer.getFrom().toString(), transfer.getValue().negate());
+                    addBalance(transfer.getTo().toString(), transfer.getValue());
+                }
+            } else if (event instanceof Ownable.OwnershipTransferredEvent) {
+                owner = ((Ownable.OwnershipTransferredEvent) event).getNewOwner().toString();
+            } else if (event instanceof Ownable.OwnershipRenouncedEvent) {
+                owner = null;
+            }
+        }
+        //Token created outside a settlement, the initial supply and the airdrops
+        for (Token.TransferEvent mint : mints) {
+            mint(mint.getTo().toString(), mint.getValue());
+        }
+        transactionCount++;
+    }
+
+    private void apply(DepositAddedEvent event) {
+        long depositAmount = event.getDepositAmount().longValue();
+        depositService.addDeposit(event.getDepositorAddress(), event.getMiningAddress(), depositAmount,
+                event.getDepositHeight(), event.getDepositNumber());
+        miningService.putDeposit(depositAmount, event.getDepositHeight());
+        miningService.initMingInfo(event.getDepositHeight(), event.getDepositNumber());
+        checkTotals(event.getDepositorAddress(), event.getDepositorTotalAmount(), event.getDepositorDepositCount(), event.getTotalDeposit());
+    }
+
+    private void apply(BatchDepositEvent event) {
+        depositService.addDeposits(event.getDepositorAddress(), event.getMiningAddresses(), event.getDepositAmounts(),
+                event.getDepositHeight(), event.getFirstDepositNumber());
+        miningService.putDeposit(event.getDepositTotalAmount().longValue(), event.getDepositHeight());
+        for (int i = 0; i < event.getDepositCount(); i++) {
+            miningService.initMingInfo(event.getDepositHeight(), event.getFirstDepositNumber() + i);
+        }
+        checkTotals(event.getDepositorAddress(), event.getDepositorTotalAmount(), event.getDepositorDepositCount(), event.getTotalDeposit());
+    }
+
+    private void apply(DepositWithdrawnEvent event) {
+        int[] slots;
+        if (event.getDepositNumber() == 0) {
+            slots = depositService.getDepositSlots(event.getDepositorAddress());
+        } else {
+            slots = new int[]{depositService.getDepositSlot(event.getDepositorAddress(), event.getDepositNumber())};
+        }
+        quit(event.getDepositorAddress(), slots, event.getDepositAmount());
+        checkTotals(event.getDepositorAddress(), event.getDepositorTotalAmount(), event.getDepositorDepositCount(), event.getTotalDeposit());
+    }
+
+    private void apply(BatchQuitEvent event) {
+        long[] depositNumbers = event.getDepositNumbers();
+        int[] slots = new int[depositNumbers.length];
+        for (int i = 0; i < depositNumbers.length; i++) {
+            slots[i] = depositService.getDepositSlot(event.getDepositorAddress(), depositNumbers[i]);
+        }
+        quit(event.getDepositorAddress(), slots, event.getDepositTotalAmount());
+        checkTotals(event.getDepositorAddress(), event.getDepositorTotalAmount(), event.getDepositorDepositCount(), event.getTotalDeposit());
+    }
+
+    private void quit(String depositorAddress, int[] slots, BigInteger amount) {
+        long deposit = 0;
+        for (int i = 0; i < slots.length; i++) {
+            deposit += depositService.getDepositAmount(slots[i]);
+        }
+        check(amount.equals(BigInteger.valueOf(deposit)), "amount withdrawn by " + depositorAddress, amount, deposit);
+        if (slots.length == 1) {
+            miningService.quitDeposit(slots[0], height);
+        } else {
+            miningService.quitDeposits(slots, height);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            depositService.removeDeposit(slots[i]);
+        }
+        depositService.setTotalDeposit(depositService.getTotalDeposit() - deposit);
+    }
+
+    /**
+     * Settle the mortgage addresses again and credit the rewards, unless the TransferEvents before the settlement
+     * already did
+     */
+    private void apply(RewardSettlementEvent event, List<Token.TransferEvent> mints) {
+        MiningResult mingResult = new MiningResult();
+        miningService.calcMining(Arrays.asList(event.getDepositorAddresses()), mingResult, height);
+        check(mingResult.getTotalAmount().equals(event.getTotalAmount()), "settled reward", event.getTotalAmount(),
+                mingResult.getTotalAmount());
+
+        String[] receiverAddresses = event.getReceiverAddresses();
+        BigInteger[] amounts = event.getAmounts();
+        boolean transferred = mints.size() >= receiverAddresses.length;
+        int offset = mints.size() - receiverAddresses.length;
+        for (int i = 0; transferred && i < receiverAddresses.length; i++) {
+            Token.TransferEvent mint = mints.get(offset + i);
+            transferred = mint.getTo().toString().equals(receiverAddresses[i]) && mint.getValue().equals(amounts[i]);
+        }
+        if (transferred) {
+            for (int i = 0; i < offset; i++) {
+                mint(mints.get(i).getTo().toString(), mints.get(i).getValue());
+            }
+        } else {
+            for (Token.TransferEvent mint : mints) {
+                mint(mint.getTo().toString(), mint.getValue());
+            }
+        }
+        for (int i = 0; i < receiverAddresses.length; i++) {
+            addBalance(receiverAddresses[i], amounts[i]);
+        }
+        //The total supply of a settlement is not the sum of the rewards, see MiningService#calcSupplyAmount
+        totalSupply = totalSupply.add(mingResult.getSupplyAmount());
+    }
+
+    private void checkTotals(String depositorAddress, BigInteger depositorTotalAmount, int depositorDepositCount, BigInteger totalDeposit) {
+        check(depositorTotalAmount.equals(BigInteger.valueOf(depositService.getDepositTotalAmount(depositorAddress))),
+                "mortgage amount of " + depositorAddress, depositorTotalAmount, depositService.getDepositTotalAmount(depositorAddress));
+        check(depositService.getDepositCount(depositorAddress) == depositorDepositCount,
+                "number of mortgages of " + depositorAddress, depositorDepositCount, depositService.getDepositCount(depositorAddress));
+        check(totalDeposit.equals(BigInteger.valueOf(depositService.getTotalDeposit())), "total mortgage", totalDeposit, depositService.getTotalDeposit());
+    }
+
+    private void check(boolean condition, String name, Object expected, Object actual) {
+        if (!condition) {
+            throw new IllegalStateException("The index is out of step with the contract at height " + height + ": the "
+                    + name + " is " + expected + " in the event and " + actual + " in the index");
+        }
+    }
+
+    private void mint(String address, BigInteger value) {
+        addBalance(address, value);
+        totalSupply = totalSupply.add(value);
+    }
+
+    private void addBalance(String address, BigInteger value) {
+        balances.put(address, balanceOf(address).add(value));
+    }
+
+    /**
+     * Mortgage information of a user, as getDepositInfo of the contract
+     *
+     * @param address Mortgage address
+     * @return null if the user has no mortgage
+     */
+    public DepositInfo getDepositInfo(String address) {
+        return depositService.getDepositInfo(address);
+    }
+
+    /**
+     * Mining information of a receiving address, as getMingInfo of the contract
+     *
+     * @param address mining address
+     * @return null if the address receives the Token of no mortgage
+     */
+    public MiningInfo getMiningInfo(String address) {
+        return miningService.getMiningInfo(address);
+    }
+
+    /**
+     * Reward cycle records between two reward cycles, as getRewardCycleListBetween of the contract but without a page
+     * limit
+     *
+     * @param fromCycle the first reward cycle
+     * @param toCycle   the last reward cycle
+     * @return
+     */
+    public String getRewardCycleList(int fromCycle, int toCycle) {
+        return miningService.rewardCycleListToString(fromCycle, toCycle, Integer.MAX_VALUE);
+    }
+
+    public BigInteger balanceOf(String address) {
+        BigInteger balance = balances.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public BigInteger getTotalSupply() {
+        return totalSupply;
+    }
+
+    /**
+     * Total mortgage amount of the pool (Na)
+     *
+     * @return
+     */
+    public long getTotalDeposit() {
+        return depositService.getTotalDeposit();
+    }
+
+    public int getTotalDepositAddressCount() {
+        return depositService.getTotalDepositAddressCount();
+    }
+
+    /**
+     * @return null after the ownership was renounced
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+}
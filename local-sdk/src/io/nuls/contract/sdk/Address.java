@@ -0,0 +1,65 @@
+package io.nuls.contract.sdk;
+
+import io.nuls.pocm.local.LocalVm;
+
+import java.math.BigInteger;
+
+/**
+ * Local stand-in of the contract SDK address
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class Address {
+
+    private final String address;
+
+    public Address(String address) {
+        LocalVm.checkAddress(address);
+        this.address = address;
+    }
+
+    /**
+     * NULS balance of the address in Na
+     *
+     * @return
+     */
+    public BigInteger balance() {
+        return LocalVm.current().balanceOf(address);
+    }
+
+    /**
+     * Transfer NULS from the contract to this address
+     *
+     * @param value the amount in Na
+     */
+    public void transfer(BigInteger value) {
+        LocalVm.current().transfer(this, value);
+    }
+
+    public boolean isContract() {
+        return LocalVm.current().isContract(address);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address.equals(((Address) o).address);
+    }
+
+    @Override
+    public int hashCode() {
+        return address.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return address;
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.nuls.contract.sdk;
+
+import io.nuls.pocm.local.LocalVm;
+
+/**
+ * Local stand-in of the contract SDK block information
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class Block {
+
+    /**
+     * Current block height
+     *
+     * @return
+     */
+    public static long number() {
+        return LocalVm.current().getHeight();
+    }
+
+    /**
+     * Current block timestamp in milliseconds
+     *
+     * @return
+     */
+    public static long timestamp() {
+        return LocalVm.current().getTimestamp();
+    }
+
+}
@@ -0,0 +1,10 @@
+package io.nuls.contract.sdk;
+
+/**
+ * Local stand-in of the contract SDK event marker
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public interface Event {
+}
@@ -0,0 +1,42 @@
+package io.nuls.contract.sdk;
+
+import io.nuls.pocm.local.LocalVm;
+
+import java.math.BigInteger;
+
+/**
+ * Local stand-in of the contract SDK call message
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class Msg {
+
+    /**
+     * Caller of the contract method
+     *
+     * @return
+     */
+    public static Address sender() {
+        return LocalVm.current().getSender();
+    }
+
+    /**
+     * NULS sent with the call in Na
+     *
+     * @return
+     */
+    public static BigInteger value() {
+        return LocalVm.current().getValue();
+    }
+
+    /**
+     * Address of the contract
+     *
+     * @return
+     */
+    public static Address address() {
+        return LocalVm.current().getContractAddress();
+    }
+
+}
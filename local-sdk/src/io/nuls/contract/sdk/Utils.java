@@ -0,0 +1,38 @@
+package io.nuls.contract.sdk;
+
+import io.nuls.pocm.local.LocalVm;
+import io.nuls.pocm.local.RevertException;
+
+/**
+ * Local stand-in of the contract SDK utilities, a failed check reverts the call with a {@link RevertException}
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class Utils {
+
+    public static void require(boolean expression) {
+        if (!expression) {
+            revert();
+        }
+    }
+
+    public static void require(boolean expression, String errorMessage) {
+        if (!expression) {
+            revert(errorMessage);
+        }
+    }
+
+    public static void revert() {
+        throw new RevertException(null);
+    }
+
+    public static void revert(String errorMessage) {
+        throw new RevertException(errorMessage);
+    }
+
+    public static void emit(Event event) {
+        LocalVm.current().emit(event);
+    }
+
+}
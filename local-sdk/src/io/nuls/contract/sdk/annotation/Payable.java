@@ -0,0 +1,17 @@
+package io.nuls.contract.sdk.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Local stand-in of the contract SDK annotation: The method accepts NULS
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Payable {
+}
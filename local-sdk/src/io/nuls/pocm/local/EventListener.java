@@ -0,0 +1,15 @@
+package io.nuls.pocm.local;
+
+import io.nuls.contract.sdk.Event;
+
+/**
+ * Receives the events emitted by the contract in the local VM
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public interface EventListener {
+
+    void onEvent(Event event);
+
+}
@@ -0,0 +1,179 @@
+package io.nuls.pocm.local;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chain state behind the local stand-in of the contract SDK
+ * <p>
+ * Each thread has its own VM, so independent contracts can be driven in parallel.
+ * The height, the caller and the NULS sent with the call are set by the driver before each contract call.
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class LocalVm {
+
+    /**
+     * Block interval in milliseconds
+     */
+    public static final long BLOCK_INTERVAL = 10000L;
+
+    private static final ThreadLocal<LocalVm> CURRENT = new ThreadLocal<LocalVm>() {
+        @Override
+        protected LocalVm initialValue() {
+            return new LocalVm();
+        }
+    };
+
+    private long height = 1L;
+
+    private long timestamp = 1546300800000L;
+
+    private Address contractAddress = new Address("localContract");
+
+    private Address sender = contractAddress;
+
+    private BigInteger value = BigInteger.ZERO;
+
+    /**
+     * NULS balances (Na) of the addresses touched by the contract
+     */
+    private Map<String, BigInteger> balances = new HashMap<String, BigInteger>();
+
+    private EventListener eventListener;
+
+    private long eventCount = 0;
+
+    public static LocalVm current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Replace the VM of the current thread
+     *
+     * @param vm the VM
+     */
+    public static void setCurrent(LocalVm vm) {
+        CURRENT.set(vm);
+    }
+
+    /**
+     * The real SDK rejects malformed addresses, the local one only rejects empty ones
+     *
+     * @param address address string
+     */
+    public static void checkAddress(String address) {
+        if (address == null || address.length() == 0) {
+            throw new RevertException("Invalid address");
+        }
+    }
+
+    /**
+     * Prepare a contract call: the caller sends the NULS to the contract
+     *
+     * @param sender caller
+     * @param value  NULS sent with the call in Na
+     */
+    public void call(Address sender, BigInteger value) {
+        this.sender = sender;
+        this.value = value == null ? BigInteger.ZERO : value;
+        if (this.value.signum() > 0) {
+            addBalance(contractAddress.toString(), this.value);
+        }
+    }
+
+    /**
+     * Move to a later block
+     *
+     * @param blocks number of blocks
+     */
+    public void advance(long blocks) {
+        this.height += blocks;
+        this.timestamp += blocks * BLOCK_INTERVAL;
+    }
+
+    public void transfer(Address to, BigInteger value) {
+        BigInteger contractBalance = balanceOf(contractAddress.toString());
+        if (value.signum() < 0 || contractBalance.compareTo(value) < 0) {
+            throw new RevertException("Insufficient balance of the contract");
+        }
+        balances.put(contractAddress.toString(), contractBalance.subtract(value));
+        addBalance(to.toString(), value);
+    }
+
+    public void emit(Event event) {
+        eventCount++;
+        if (eventListener != null) {
+            eventListener.onEvent(event);
+        }
+    }
+
+    public BigInteger balanceOf(String address) {
+        BigInteger balance = balances.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public boolean isContract(String address) {
+        return contractAddress.toString().equals(address);
+    }
+
+    private void addBalance(String address, BigInteger value) {
+        balances.put(address, balanceOf(address).add(value));
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public void setHeight(long height) {
+        this.timestamp += (height - this.height) * BLOCK_INTERVAL;
+        this.height = height;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Address getSender() {
+        return sender;
+    }
+
+    public BigInteger getValue() {
+        return value;
+    }
+
+    public Address getContractAddress() {
+        return contractAddress;
+    }
+
+    /**
+     * NULS balances (Na) by address, the contract itself included
+     *
+     * @return
+     */
+    public Map<String, BigInteger> getBalances() {
+        return balances;
+    }
+
+    public void setBalances(Map<String, BigInteger> balances) {
+        this.balances = balances;
+    }
+
+    public EventListener getEventListener() {
+        return eventListener;
+    }
+
+    public void setEventListener(EventListener eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+}
@@ -0,0 +1,17 @@
+package io.nuls.pocm.local;
+
+/**
+ * Thrown by the local SDK when a contract call fails a check, the local equivalent of a reverted call
+ *
+ * @author: Long
+ * @date: 2019-05-27
+ */
+public class RevertException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RevertException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.nuls.pocm.simulator;
+
+import io.nuls.contract.sdk.Event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a contract call in the local chain
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class CallResult {
+
+    private final boolean success;
+
+    private final Object returnValue;
+
+    private final String errorMessage;
+
+    private final List<Event> events;
+
+    private CallResult(boolean success, Object returnValue, String errorMessage, List<Event> events) {
+        this.success = success;
+        this.returnValue = returnValue;
+        this.errorMessage = errorMessage;
+        this.events = events;
+    }
+
+    public static CallResult success(Object returnValue, List<Event> events) {
+        return new CallResult(true, returnValue, null, Collections.unmodifiableList(events));
+    }
+
+    /**
+     * The call was reverted, its state changes and events are discarded
+     *
+     * @param errorMessage the message of the failed require, or the exception thrown
+     * @return
+     */
+    public static CallResult reverted(String errorMessage) {
+        return new CallResult(false, null, errorMessage, Collections.<Event>emptyList());
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public Object getReturnValue() {
+        return returnValue;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return success ? "success " + returnValue : "reverted: " + errorMessage;
+    }
+
+}
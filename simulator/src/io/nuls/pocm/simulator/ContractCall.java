@@ -0,0 +1,19 @@
+package io.nuls.pocm.simulator;
+
+/**
+ * A call of a contract method made by a transaction
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public interface ContractCall<C> {
+
+    /**
+     * Invoke the contract method, the caller and the NULS sent are already set in the VM
+     *
+     * @param contract the contract
+     * @return the return value of the method, null for void methods
+     */
+    Object invoke(C contract);
+
+}
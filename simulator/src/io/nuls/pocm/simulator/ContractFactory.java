@@ -0,0 +1,13 @@
+package io.nuls.pocm.simulator;
+
+/**
+ * Creates a contract, called as the deployment transaction
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public interface ContractFactory<C> {
+
+    C create();
+
+}
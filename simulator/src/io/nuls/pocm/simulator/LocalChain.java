@@ -0,0 +1,269 @@
+package io.nuls.pocm.simulator;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.local.EventListener;
+import io.nuls.pocm.local.LocalVm;
+import io.nuls.pocm.local.RevertException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A local chain running one contract in a {@link LocalVm}
+ * <p>
+ * Moving to a later block only changes the height, so millions of blocks cost nothing. A call that fails
+ * (a failed require or any other exception) is reverted like in the VM: the contract state and the NULS balances
+ * go back to what they were before the call and its events are dropped.
+ * <p>
+ * Copying the whole contract before every call is too slow for large pools, so the state is saved every
+ * {@code checkpointInterval} successful calls and the calls made since then are kept in a journal.
+ * A revert restores the saved state and replays the journal at the heights the calls were made.
+ * The contract must not keep mutable static state, which the VM does not allow anyway.
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class LocalChain<C> {
+
+    /**
+     * A revert replays at most this many calls, which is much cheaper than copying a large pool more often
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+
+    private final LocalVm vm;
+
+    private final int checkpointInterval;
+
+    private final List<EventListener> listeners = new ArrayList<EventListener>();
+
+    private final List<TransactionListener> transactionListeners = new ArrayList<TransactionListener>();
+
+    private C contract;
+
+    private StateSnapshot savedState;
+
+    private Map<String, BigInteger> savedBalances;
+
+    /**
+     * Successful calls made since the state was saved
+     */
+    private final List<JournalEntry<C>> journal = new ArrayList<JournalEntry<C>>();
+
+    private long successCount = 0;
+
+    private long revertCount = 0;
+
+    public LocalChain() {
+        this(new LocalVm(), DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * @param vm                 the VM, its height is the height of the chain
+     * @param checkpointInterval number of successful calls between two saves of the state, 1 saves before every call
+     */
+    public LocalChain(LocalVm vm, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("The checkpoint interval should be at least 1");
+        }
+        this.vm = vm;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Deploy the contract
+     *
+     * @param owner   creator of the contract
+     * @param factory calls the contract constructor
+     * @return the result of the deployment, the contract is returned on success
+     */
+    public CallResult deploy(Address owner, ContractFactory<C> factory) {
+        if (contract != null) {
+            throw new IllegalStateException("The contract is already deployed");
+        }
+        LocalVm.setCurrent(vm);
+        List<Event> events = new ArrayList<Event>();
+        vm.setEventListener(new EventBuffer(events));
+        Map<String, BigInteger> balances = new HashMap<String, BigInteger>(vm.getBalances());
+        vm.call(owner, BigInteger.ZERO);
+        try {
+            contract = factory.create();
+        } catch (RuntimeException e) {
+            vm.setBalances(balances);
+            revertCount++;
+            return CallResult.reverted(errorMessage(e));
+        } finally {
+            vm.setEventListener(null);
+        }
+        successCount++;
+        saveState();
+        publish(events);
+        return CallResult.success(contract, events);
+    }
+
+    /**
+     * Call the contract at the current height
+     *
+     * @param sender caller
+     * @param value  NULS sent with the call in Na
+     * @param call   the contract method
+     * @return
+     */
+    public CallResult call(Address sender, BigInteger value, ContractCall<C> call) {
+        if (contract == null) {
+            throw new IllegalStateException("The contract is not deployed");
+        }
+        LocalVm.setCurrent(vm);
+        if (journal.size() >= checkpointInterval) {
+            saveState();
+        }
+        List<Event> events = new ArrayList<Event>();
+        vm.setEventListener(new EventBuffer(events));
+        vm.call(sender, value);
+        Object returnValue;
+        try {
+            returnValue = call.invoke(contract);
+        } catch (RuntimeException e) {
+            vm.setEventListener(null);
+            rollback();
+            revertCount++;
+            return CallResult.reverted(errorMessage(e));
+        }
+        vm.setEventListener(null);
+        journal.add(new JournalEntry<C>(vm.getHeight(), sender, value, call));
+        successCount++;
+        publish(events);
+        return CallResult.success(returnValue, events);
+    }
+
+    /**
+     * Call a view method, which changes nothing and sends no NULS
+     *
+     * @param call the contract method
+     * @return the return value of the method
+     */
+    public Object view(ContractCall<C> call) {
+        LocalVm.setCurrent(vm);
+        vm.call(vm.getContractAddress(), BigInteger.ZERO);
+        return call.invoke(contract);
+    }
+
+    /**
+     * Move to a later block
+     *
+     * @param blocks number of blocks
+     */
+    public void advance(long blocks) {
+        vm.advance(blocks);
+    }
+
+    public void addListener(EventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void addTransactionListener(TransactionListener listener) {
+        transactionListeners.add(listener);
+    }
+
+    private void saveState() {
+        savedState = StateSnapshot.of(contract);
+        savedBalances = new HashMap<String, BigInteger>(vm.getBalances());
+        journal.clear();
+    }
+
+    private void rollback() {
+        long height = vm.getHeight();
+        savedState.restore();
+        vm.setBalances(new HashMap<String, BigInteger>(savedBalances));
+        for (JournalEntry<C> entry : journal) {
+            vm.setHeight(entry.height);
+            vm.call(entry.sender, entry.value);
+            entry.call.invoke(contract);
+        }
+        vm.setHeight(height);
+    }
+
+    private void publish(List<Event> events) {
+        for (Event event : events) {
+            for (EventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+        }
+        for (TransactionListener listener : transactionListeners) {
+            listener.onTransaction(vm.getHeight(), Collections.unmodifiableList(events));
+        }
+    }
+
+    private static String errorMessage(RuntimeException e) {
+        if (e instanceof RevertException && e.getMessage() != null) {
+            return e.getMessage();
+        }
+        return e.toString();
+    }
+
+    public LocalVm getVm() {
+        return vm;
+    }
+
+    public C getContract() {
+        return contract;
+    }
+
+    public long getHeight() {
+        return vm.getHeight();
+    }
+
+    public BigInteger balanceOf(Address address) {
+        return vm.balanceOf(address.toString());
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getRevertCount() {
+        return revertCount;
+    }
+
+    private static class JournalEntry<C> {
+
+        private final long height;
+
+        private final Address sender;
+
+        private final BigInteger value;
+
+        private final ContractCall<C> call;
+
+        private JournalEntry(long height, Address sender, BigInteger value, ContractCall<C> call) {
+            this.height = height;
+            this.sender = sender;
+            this.value = value;
+            this.call = call;
+        }
+
+    }
+
+    /**
+     * Keeps the events of a call until it is known to be successful
+     */
+    private static class EventBuffer implements EventListener {
+
+        private final List<Event> events;
+
+        private EventBuffer(List<Event> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            events.add(event);
+        }
+
+    }
+
+}
@@ -0,0 +1,319 @@
+package io.nuls.pocm.simulator;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.pocm.contract.Pocm;
+import io.nuls.pocm.contract.model.DepositInfo;
+import io.nuls.pocm.local.LocalVm;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A POCM pool in a local chain, driven by named users
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class PocmSimulation {
+
+    private static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+
+    private final LocalChain<Pocm> chain;
+
+    private final Address owner;
+
+    /**
+     * Users by name, sorted so that random scenarios pick the same users for the same seed
+     */
+    private final Map<String, Address> users = new TreeMap<String, Address>();
+
+    private String lastError;
+
+    /**
+     * @param awardingCycle      reward distribution cycle
+     * @param minimumLocked      minimum number of locked blocks
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param checkpointInterval number of successful calls between two saves of the state
+     */
+    public PocmSimulation(int awardingCycle, int minimumLocked, int rewardHalvingCycle, int checkpointInterval) {
+        this(awardingCycle, minimumLocked, rewardHalvingCycle, checkpointInterval, null);
+    }
+
+    /**
+     * @param awardingCycle      reward distribution cycle
+     * @param minimumLocked      minimum number of locked blocks
+     * @param rewardHalvingCycle reward halving period, 0 means no halving
+     * @param checkpointInterval number of successful calls between two saves of the state
+     * @param listener           receives the transactions from the deployment on, may be null
+     */
+    public PocmSimulation(final int awardingCycle, final int minimumLocked, final int rewardHalvingCycle, int checkpointInterval,
+                          TransactionListener listener) {
+        this.chain = new LocalChain<Pocm>(new LocalVm(), checkpointInterval);
+        if (listener != null) {
+            chain.addTransactionListener(listener);
+        }
+        this.owner = new Address("owner");
+        CallResult result = chain.deploy(owner, new ContractFactory<Pocm>() {
+            @Override
+            public Pocm create() {
+                return new Pocm("Simulation", "SIM", BigInteger.valueOf(100000000L), 8, new BigDecimal("10"), awardingCycle,
+                        new BigDecimal("1"), minimumLocked, String.valueOf(rewardHalvingCycle), "0", null, null);
+            }
+        });
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException("Deployment failed: " + result.getErrorMessage());
+        }
+    }
+
+    /**
+     * Get a user, creating it on first use
+     *
+     * @param name user name, also the address string
+     * @return
+     */
+    public Address user(String name) {
+        Address address = users.get(name);
+        if (address == null) {
+            address = new Address(name);
+            users.put(name, address);
+        }
+        return address;
+    }
+
+    public List<Address> getUsers() {
+        return new ArrayList<Address>(users.values());
+    }
+
+    public void advance(long blocks) {
+        chain.advance(blocks);
+    }
+
+    /**
+     * Deposit for the user itself
+     *
+     * @param user  user name
+     * @param nuls  amount in NULS
+     * @return whether the call succeeded
+     */
+    public boolean deposit(String user, long nuls) {
+        return record(chain.call(user(user), toNa(nuls), new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.depositForOwn();
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Deposit for another user, who receives the rewards
+     *
+     * @param user   user name of the depositor
+     * @param miner  user name of the mining address
+     * @param nuls   amount in NULS
+     * @return whether the call succeeded
+     */
+    public boolean depositFor(String user, String miner, long nuls) {
+        final Address miningAddress = user(miner);
+        return record(chain.call(user(user), toNa(nuls), new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.depositForOther(miningAddress);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Deposit for several other users in one call
+     *
+     * @param user   user name of the depositor
+     * @param miners user names of the mining addresses
+     * @param nuls   amount of each deposit in NULS
+     * @return whether the call succeeded
+     */
+    public boolean depositForAll(String user, String[] miners, long[] nuls) {
+        final String[] miningAddresses = new String[miners.length];
+        final long[] amounts = new long[nuls.length];
+        long total = 0;
+        for (int i = 0; i < miners.length; i++) {
+            miningAddresses[i] = user(miners[i]).toString();
+        }
+        for (int i = 0; i < nuls.length; i++) {
+            amounts[i] = toNa(nuls[i]).longValue();
+            total += nuls[i];
+        }
+        return record(chain.call(user(user), toNa(total), new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.depositForOthers(miningAddresses, amounts);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Quit a deposit, 0 quits all of them
+     *
+     * @param user   user name
+     * @param number deposit number
+     * @return whether the call succeeded
+     */
+    public boolean quit(String user, final long number) {
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.quit(String.valueOf(number));
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Quit several deposits in one call
+     *
+     * @param user    user name
+     * @param numbers deposit numbers
+     * @return whether the call succeeded
+     */
+    public boolean quitAll(String user, final long[] numbers) {
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.quitDeposits(numbers);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Quit all the unlocked deposits in one call
+     *
+     * @param user user name
+     * @return whether the call succeeded
+     */
+    public boolean quitUnlocked(String user) {
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.quitUnlocked();
+                return null;
+            }
+        }));
+    }
+
+    public boolean claim(String user) {
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.receiveAwards();
+                return null;
+            }
+        }));
+    }
+
+    public boolean claimMining(String user) {
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.receiveAwardsForMiningAddress();
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Settle the rewards of several depositors
+     *
+     * @param user       user name of the caller
+     * @param depositors user names of the depositors
+     * @return whether the call succeeded
+     */
+    public boolean claimFor(String user, String[] depositors) {
+        final String[] depositorAddresses = new String[depositors.length];
+        for (int i = 0; i < depositors.length; i++) {
+            depositorAddresses[i] = user(depositors[i]).toString();
+        }
+        return record(chain.call(user(user), BigInteger.ZERO, new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                pocm.claimFor(depositorAddresses);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Deposit numbers of the user in ascending order
+     *
+     * @param user user name
+     * @return
+     */
+    public List<Long> depositNumbers(String user) {
+        final Address address = user(user);
+        DepositInfo info = (DepositInfo) chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.getDepositInfo(address);
+            }
+        });
+        List<Long> numbers = new ArrayList<Long>();
+        if (info != null) {
+            numbers.addAll(info.getDepositDetailInfos().keySet());
+            Collections.sort(numbers);
+        }
+        return numbers;
+    }
+
+    /**
+     * Token balance of the user
+     *
+     * @param user user name
+     * @return
+     */
+    public BigInteger tokenBalance(String user) {
+        final Address address = user(user);
+        return (BigInteger) chain.view(new ContractCall<Pocm>() {
+            @Override
+            public Object invoke(Pocm pocm) {
+                return pocm.balanceOf(address);
+            }
+        });
+    }
+
+    private boolean record(CallResult result) {
+        lastError = result.getErrorMessage();
+        return result.isSuccess();
+    }
+
+    private static BigInteger toNa(long nuls) {
+        return BigInteger.valueOf(nuls).multiply(ONE_NULS);
+    }
+
+    /**
+     * The error message of the last call, null if it succeeded
+     *
+     * @return
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalChain<Pocm> getChain() {
+        return chain;
+    }
+
+    public Pocm getPocm() {
+        return chain.getContract();
+    }
+
+    public Address getOwner() {
+        return owner;
+    }
+
+}
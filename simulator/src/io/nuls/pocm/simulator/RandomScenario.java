@@ -0,0 +1,96 @@
+package io.nuls.pocm.simulator;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A random pool activity: users deposit, quit and claim at random heights, with long idle stretches
+ * <p>
+ * The same seed and parameters always give the same calls at the same heights.
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class RandomScenario {
+
+    private final PocmSimulation simulation;
+
+    private final Random random;
+
+    private final int userCount;
+
+    /**
+     * Mean number of blocks between two actions
+     */
+    private final int meanInterval;
+
+    private long actions = 0;
+
+    private long failures = 0;
+
+    public RandomScenario(PocmSimulation simulation, long seed, int userCount, int meanInterval) {
+        this.simulation = simulation;
+        this.random = new Random(seed);
+        this.userCount = userCount;
+        this.meanInterval = meanInterval;
+    }
+
+    /**
+     * Run actions until the chain has moved the specified number of blocks
+     *
+     * @param blocks number of blocks
+     */
+    public void run(long blocks) {
+        long endHeight = simulation.getChain().getHeight() + blocks;
+        while (true) {
+            long interval = 1 + (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+            if (random.nextInt(100) == 0) {
+                // a quiet stretch of about a hundred times the usual interval
+                interval *= 100;
+            }
+            if (simulation.getChain().getHeight() + interval > endHeight) {
+                simulation.advance(endHeight - simulation.getChain().getHeight());
+                return;
+            }
+            simulation.advance(interval);
+            step();
+        }
+    }
+
+    private void step() {
+        String user = "user" + random.nextInt(userCount);
+        int action = random.nextInt(100);
+        boolean success;
+        if (action < 35) {
+            success = simulation.deposit(user, 1 + random.nextInt(1000));
+        } else if (action < 45) {
+            success = simulation.depositFor(user, "user" + random.nextInt(userCount), 1 + random.nextInt(1000));
+        } else if (action < 65) {
+            List<Long> numbers = simulation.depositNumbers(user);
+            long number = numbers.isEmpty() ? 1 : numbers.get(random.nextInt(numbers.size()));
+            success = simulation.quit(user, random.nextInt(10) == 0 ? 0 : number);
+        } else if (action < 90) {
+            success = simulation.claim(user);
+        } else {
+            success = simulation.claimMining(user);
+        }
+        actions++;
+        if (!success) {
+            failures++;
+        }
+    }
+
+    public long getActions() {
+        return actions;
+    }
+
+    /**
+     * Number of reverted actions, such as quitting a locked deposit or claiming without deposits
+     *
+     * @return
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.nuls.pocm.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+
+/**
+ * A scenario written as text, one action per line, {@code #} starts a comment:
+ * <pre>
+ * advance 100000              move 100000 blocks forward
+ * deposit alice 500           alice deposits 500 NULS for herself
+ * depositFor alice bob 200    alice deposits 200 NULS, bob receives the rewards
+ * depositForAll alice bob 200 carol 300   one call, a deposit of 200 NULS for bob and one of 300 NULS for carol
+ * quit alice 1                alice quits deposit 1, 0 quits all deposits
+ * quitAll alice 1 4 5         alice quits deposits 1, 4 and 5 in one call
+ * quitUnlocked alice          alice quits all her unlocked deposits in one call
+ * claim alice                 alice receives her rewards
+ * claimMining bob             bob receives the rewards of the deposits made for him
+ * claimFor keeper alice carol the keeper settles the rewards of alice and carol
+ * expect fail                 the next action should be reverted
+ * balance alice               print the token balance of alice
+ * </pre>
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class ScenarioScript {
+
+    private final PocmSimulation simulation;
+
+    private final PrintStream out;
+
+    public ScenarioScript(PocmSimulation simulation, PrintStream out) {
+        this.simulation = simulation;
+        this.out = out;
+    }
+
+    /**
+     * Run the script
+     *
+     * @param reader script text
+     * @return number of actions that did not end as expected
+     * @throws IOException
+     */
+    public int run(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        int unexpected = 0;
+        boolean expectFailure = false;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.length() == 0) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            String action = words[0];
+            if ("expect".equals(action)) {
+                expectFailure = "fail".equals(argument(words, 1, lineNumber));
+                continue;
+            }
+            if ("advance".equals(action)) {
+                simulation.advance(Long.parseLong(argument(words, 1, lineNumber)));
+                continue;
+            }
+            if ("balance".equals(action)) {
+                String user = argument(words, 1, lineNumber);
+                out.println("height " + simulation.getChain().getHeight() + ": " + user + " has " + simulation.tokenBalance(user));
+                continue;
+            }
+            boolean success = execute(action, words, lineNumber);
+            if (success == expectFailure) {
+                unexpected++;
+                out.println("line " + lineNumber + ": " + line + " -> "
+                        + (success ? "succeeded, a failure was expected" : "failed: " + simulation.getLastError()));
+            }
+            expectFailure = false;
+        }
+        return unexpected;
+    }
+
+    private boolean execute(String action, String[] words, int lineNumber) {
+        String user = argument(words, 1, lineNumber);
+        if ("deposit".equals(action)) {
+            return simulation.deposit(user, Long.parseLong(argument(words, 2, lineNumber)));
+        } else if ("depositFor".equals(action)) {
+            return simulation.depositFor(user, argument(words, 2, lineNumber), Long.parseLong(argument(words, 3, lineNumber)));
+        } else if ("depositForAll".equals(action)) {
+            int count = (words.length - 2) / 2;
+            String[] miners = new String[count];
+            long[] amounts = new long[count];
+            for (int i = 0; i < count; i++) {
+                miners[i] = argument(words, 2 + 2 * i, lineNumber);
+                amounts[i] = Long.parseLong(argument(words, 3 + 2 * i, lineNumber));
+            }
+            return simulation.depositForAll(user, miners, amounts);
+        } else if ("quit".equals(action)) {
+            return simulation.quit(user, Long.parseLong(argument(words, 2, lineNumber)));
+        } else if ("quitAll".equals(action)) {
+            long[] numbers = new long[words.length - 2];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = Long.parseLong(words[2 + i]);
+            }
+            return simulation.quitAll(user, numbers);
+        } else if ("quitUnlocked".equals(action)) {
+            return simulation.quitUnlocked(user);
+        } else if ("claim".equals(action)) {
+            return simulation.claim(user);
+        } else if ("claimMining".equals(action)) {
+            return simulation.claimMining(user);
+        } else if ("claimFor".equals(action)) {
+            String[] depositors = new String[words.length - 2];
+            System.arraycopy(words, 2, depositors, 0, depositors.length);
+            return simulation.claimFor(user, depositors);
+        }
+        throw new IllegalArgumentException("line " + lineNumber + ": unknown action " + action);
+    }
+
+    private static String argument(String[] words, int index, int lineNumber) {
+        if (index >= words.length) {
+            throw new IllegalArgumentException("line " + lineNumber + ": missing argument of " + words[0]);
+        }
+        return words[index];
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.nuls.pocm.simulator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Run a scenario against a POCM pool in a local chain
+ * <p>
+ * {@code SimulatorMain script=scenario.txt} runs a script, otherwise a random scenario is run with the options
+ * {@code seed}, {@code blocks}, {@code users} and {@code interval}. The pool is configured with the options
+ * {@code awardingCycle}, {@code minimumLocked}, {@code rewardHalvingCycle} and {@code checkpointInterval}.
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class SimulatorMain {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        PocmSimulation simulation = new PocmSimulation(intOption(options, "awardingCycle", 100),
+                intOption(options, "minimumLocked", 1000), intOption(options, "rewardHalvingCycle", 0),
+                intOption(options, "checkpointInterval", LocalChain.DEFAULT_CHECKPOINT_INTERVAL));
+
+        long start = System.currentTimeMillis();
+        String script = options.get("script");
+        if (script != null) {
+            Reader reader = new InputStreamReader(new FileInputStream(script), "UTF-8");
+            int unexpected;
+            try {
+                unexpected = new ScenarioScript(simulation, System.out).run(reader);
+            } finally {
+                reader.close();
+            }
+            System.out.println(unexpected + " unexpected results");
+        } else {
+            RandomScenario scenario = new RandomScenario(simulation, longOption(options, "seed", 1L),
+                    intOption(options, "users", 100), intOption(options, "interval", 50));
+            // about a year of blocks at one block every ten seconds
+            scenario.run(longOption(options, "blocks", 3153600L));
+            System.out.println(scenario.getActions() + " actions, " + scenario.getFailures() + " reverted");
+        }
+        LocalChain<?> chain = simulation.getChain();
+        System.out.println("height " + chain.getHeight() + ", " + chain.getSuccessCount() + " successful calls, "
+                + chain.getRevertCount() + " reverted calls, " + simulation.getPocm().getTotalDepositNumber()
+                + " reward cycle records, total deposit " + simulation.getPocm().totalDeposit() + ", "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+}
@@ -0,0 +1,302 @@
+package io.nuls.pocm.simulator;
+
+import io.nuls.contract.sdk.Address;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Snapshot of contract state: the fields of every object reachable from the contract fields
+ * <p>
+ * Immutable values (strings, numbers, addresses) are kept as they are, arrays and collections are copied with their
+ * elements, and the other objects are kept by identity with their fields recorded. Restoring writes the recorded
+ * fields back into the same objects, with new copies of the arrays and collections (collections are rebuilt with the
+ * same class so that iteration order is kept; a HashMap is rebuilt with the table length it had, which its iteration
+ * order depends on, if java.util is open to reflection, see {@link #keepsHashMapOrder}). Contract objects are
+ * therefore never created outside their own constructors; objects created after the snapshot are simply no longer
+ * referenced. A snapshot can be restored any number of times.
+ *
+ * @author: Long
+ * @date: 2019-06-03
+ */
+public class StateSnapshot {
+
+    private static final Map<Class<?>, List<Field>> FIELDS = new HashMap<Class<?>, List<Field>>();
+
+    /**
+     * No-argument constructors of the collections
+     */
+    private static final Map<Class<?>, Constructor<?>> CONSTRUCTORS = new HashMap<Class<?>, Constructor<?>>();
+
+    /**
+     * Initial capacity constructors of the maps
+     */
+    private static final Map<Class<?>, Constructor<?>> CAPACITY_CONSTRUCTORS = new HashMap<Class<?>, Constructor<?>>();
+
+    /**
+     * Table of a HashMap, null if java.util is not open to reflection
+     */
+    private static final Field HASH_MAP_TABLE = hashMapTable();
+
+    /**
+     * Recorded field values of each object, in the order of {@link #fieldsOf}
+     */
+    private final IdentityHashMap<Object, Object[]> objects = new IdentityHashMap<Object, Object[]>();
+
+    /**
+     * Copies of the arrays and collections met while saving, so shared ones stay shared
+     */
+    private final IdentityHashMap<Object, Object> saved = new IdentityHashMap<Object, Object>();
+
+    private StateSnapshot() {
+    }
+
+    /**
+     * Take a snapshot of a state object
+     *
+     * @param root the object, usually the contract
+     * @return
+     */
+    public static StateSnapshot of(Object root) {
+        StateSnapshot snapshot = new StateSnapshot();
+        snapshot.save(root);
+        snapshot.saved.clear();
+        return snapshot;
+    }
+
+    /**
+     * Whether a restored HashMap iterates in the order it did when the snapshot was taken. That order depends on the
+     * length of its table, which only grows while entries are put and removed; a map rebuilt with its entries alone may
+     * get a shorter table. Reading the table takes {@code --add-opens java.base/java.util=ALL-UNNAMED} from Java 9 on.
+     *
+     * @return
+     */
+    public static boolean keepsHashMapOrder() {
+        return HASH_MAP_TABLE != null;
+    }
+
+    /**
+     * Put the objects of the snapshot back in the state they had when it was taken
+     */
+    public void restore() {
+        IdentityHashMap<Object, Object> restored = new IdentityHashMap<Object, Object>();
+        try {
+            for (Map.Entry<Object, Object[]> entry : objects.entrySet()) {
+                List<Field> fields = fieldsOf(entry.getKey().getClass());
+                Object[] values = entry.getValue();
+                for (int i = 0; i < values.length; i++) {
+                    fields.get(i).set(entry.getKey(), restore(values[i], restored));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the value to record for a value of the state
+     */
+    @SuppressWarnings("unchecked")
+    private Object save(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        if (objects.containsKey(value)) {
+            return value;
+        }
+        Object copy = saved.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            copy = Array.newInstance(type.getComponentType(), length);
+            saved.put(value, copy);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, copy, 0, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Array.set(copy, i, save(Array.get(value, i)));
+                }
+            }
+            return copy;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            SavedCollection collection = new SavedCollection(type, map.size() * 2);
+            if (value instanceof HashMap) {
+                collection.capacity = tableLength((HashMap<Object, Object>) value);
+            }
+            saved.put(value, collection);
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                collection.elements.add(save(entry.getKey()));
+                collection.elements.add(save(entry.getValue()));
+            }
+            return collection;
+        }
+        if (value instanceof Collection) {
+            Collection<Object> source = (Collection<Object>) value;
+            SavedCollection collection = new SavedCollection(type, source.size());
+            saved.put(value, collection);
+            for (Object element : source) {
+                collection.elements.add(save(element));
+            }
+            return collection;
+        }
+        List<Field> fields = fieldsOf(type);
+        Object[] values = new Object[fields.size()];
+        objects.put(value, values);
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = save(fields.get(i).get(value));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot save " + type.getName(), e);
+        }
+        return value;
+    }
+
+    /**
+     * @return the value of the state for a recorded value, new arrays and collections for the recorded copies
+     */
+    @SuppressWarnings("unchecked")
+    private Object restore(Object value, IdentityHashMap<Object, Object> restored) {
+        if (value == null || isImmutable(value) || objects.containsKey(value)) {
+            return value;
+        }
+        Object copy = restored.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        if (value instanceof SavedCollection) {
+            SavedCollection collection = (SavedCollection) value;
+            copy = newCollection(collection.type, collection.capacity);
+            restored.put(value, copy);
+            List<Object> elements = collection.elements;
+            if (copy instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>) copy;
+                for (int i = 0; i < elements.size(); i += 2) {
+                    map.put(restore(elements.get(i), restored), restore(elements.get(i + 1), restored));
+                }
+            } else {
+                Collection<Object> target = (Collection<Object>) copy;
+                for (Object element : elements) {
+                    target.add(restore(element, restored));
+                }
+            }
+            return copy;
+        }
+        int length = Array.getLength(value);
+        Class<?> componentType = value.getClass().getComponentType();
+        copy = Array.newInstance(componentType, length);
+        restored.put(value, copy);
+        if (componentType.isPrimitive()) {
+            System.arraycopy(value, 0, copy, 0, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                Array.set(copy, i, restore(Array.get(value, i), restored));
+            }
+        }
+        return copy;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof BigInteger || value instanceof BigDecimal
+                || value instanceof Address || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof Class;
+    }
+
+    private static synchronized Object newCollection(Class<?> type, int capacity) {
+        try {
+            if (capacity > 0) {
+                Constructor<?> constructor = CAPACITY_CONSTRUCTORS.get(type);
+                if (constructor == null) {
+                    constructor = type.getConstructor(int.class);
+                    CAPACITY_CONSTRUCTORS.put(type, constructor);
+                }
+                return constructor.newInstance(capacity);
+            }
+            Constructor<?> constructor = CONSTRUCTORS.get(type);
+            if (constructor == null) {
+                constructor = type.getConstructor();
+                CONSTRUCTORS.put(type, constructor);
+            }
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported collection " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @return the length of the table of the map, 0 if it has none or it cannot be read
+     */
+    private static int tableLength(HashMap<Object, Object> map) {
+        if (HASH_MAP_TABLE == null) {
+            return 0;
+        }
+        try {
+            Object table = HASH_MAP_TABLE.get(map);
+            return table == null ? 0 : Array.getLength(table);
+        } catch (IllegalAccessException e) {
+            return 0;
+        }
+    }
+
+    private static Field hashMapTable() {
+        try {
+            Field field = HashMap.class.getDeclaredField("table");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // java.util is not open to this module
+            return null;
+        }
+    }
+
+    private static synchronized List<Field> fieldsOf(Class<?> type) {
+        List<Field> fields = FIELDS.get(type);
+        if (fields == null) {
+            fields = new ArrayList<Field>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            FIELDS.put(type, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * Elements of a collection, keys and values alternating for a map
+     */
+    private static class SavedCollection {
+
+        private final Class<?> type;
+
+        private final List<Object> elements;
+
+        /**
+         * Table length of a HashMap, 0 to rebuild the collection with its no-argument constructor
+         */
+        private int capacity;
+
+        private SavedCollection(Class<?> type, int size) {
+            this.type = type;
+            this.elements = new ArrayList<Object>(size);
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package io.nuls.pocm.simulator;
+
+import io.nuls.contract.sdk.Event;
+
+import java.util.List;
+
+/**
+ * Receives the events of each successful transaction of the local chain, as a node reports them with the block
+ *
+ * @author: Long
+ * @date: 2019-06-17
+ */
+public interface TransactionListener {
+
+    /**
+     * @param height height of the block of the transaction
+     * @param events the events emitted by the transaction, in order
+     */
+    void onTransaction(long height, List<Event> events);
+
+}
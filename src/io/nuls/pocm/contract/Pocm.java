@@ -30,13 +30,17 @@ import io.nuls.contract.sdk.Msg;
 import io.nuls.contract.sdk.annotation.Payable;
 import io.nuls.contract.sdk.annotation.Required;
 import io.nuls.contract.sdk.annotation.View;
-import io.nuls.pocm.contract.event.DepositInfoEvent;
-import io.nuls.pocm.contract.event.MiningInfoEvent;
+import io.nuls.pocm.contract.event.BatchDepositEvent;
+import io.nuls.pocm.contract.event.BatchQuitEvent;
+import io.nuls.pocm.contract.event.DepositAddedEvent;
+import io.nuls.pocm.contract.event.DepositWithdrawnEvent;
+import io.nuls.pocm.contract.event.RewardSettlementEvent;
 import io.nuls.pocm.contract.model.*;
 import io.nuls.pocm.contract.service.AriDropperService;
 import io.nuls.pocm.contract.service.DepositService;
 import io.nuls.pocm.contract.service.MiningService;
 import io.nuls.pocm.contract.token.PocmToken;
+import io.nuls.pocm.contract.util.ModelWriter;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -60,6 +64,11 @@ public class Pocm extends PocmToken implements Contract {
 
     private AriDropperService ariDropperService;
 
+    /**
+     * Whether a TransferEvent is emitted for each receiving address of the settled rewards, as before the settlement event
+     */
+    private boolean transferEventCompatible = true;
+
     public Pocm(@Required String name, @Required String symbol, @Required BigInteger initialAmount, @Required int decimals, @Required BigDecimal price, @Required int awardingCycle,
                 @Required BigDecimal minimumDepositNULS, @Required int minimumLocked, String rewardHalvingCycle, String maximumDepositAddressCount, String[] receiverAddress, long[] receiverAmount) {
         super(name, symbol, initialAmount, decimals, receiverAddress, receiverAmount);
@@ -82,8 +91,9 @@ public class Pocm extends PocmToken implements Contract {
             require(maximumDepositAddressCountForInt >= 0, "The minimum amount of mortgage should be greater than or equal to 0.");
         }
 
-        depositService = new DepositService(minimumLocked, toNa(minimumDepositNULS), maximumDepositAddressCountForInt);
-        miningService = new MiningService(Block.number(), awardingCycle, rewardHalvingCycleForInt, decimals, price);
+        DepositStore depositStore = new DepositStore(getAddressRegistry());
+        depositService = new DepositService(minimumLocked, toNa(minimumDepositNULS), maximumDepositAddressCountForInt, depositStore);
+        miningService = new MiningService(Block.number(), awardingCycle, rewardHalvingCycleForInt, decimals, price, depositStore);
         ariDropperService = new AriDropperService();
 
         BigInteger receiverTotalAmount = BigInteger.ZERO;
@@ -126,18 +136,20 @@ public class Pocm extends PocmToken implements Contract {
     @Payable
     public void depositForOwn() {
         BigInteger value = Msg.value();
+        long depositValue = toLongNa(value);
         String userStr = Msg.sender().toString();
         long currentHeight = Block.number();
         long depositNumber = NUMBER++;
-        DepositInfo info = depositService.addDeposit(userStr, userStr, value, currentHeight, depositNumber);
+        depositService.addDeposit(userStr, userStr, depositValue, currentHeight, depositNumber);
 
         //Add the number of mortgages to the queue
-        miningService.putDeposit(value, currentHeight);
+        miningService.putDeposit(depositValue, currentHeight);
 
         //Initialization of mining information
-        miningService.initMingInfo(currentHeight, userStr, userStr, depositNumber);
+        miningService.initMingInfo(currentHeight, depositNumber);
 
-        emit(new DepositInfoEvent(info));
+        emit(new DepositAddedEvent(userStr, depositNumber, userStr, value, currentHeight, BigInteger.valueOf(depositService.getDepositTotalAmount(userStr)),
+                depositService.getDepositCount(userStr), BigInteger.valueOf(depositService.getTotalDeposit())));
     }
 
     /**
@@ -150,17 +162,56 @@ public class Pocm extends PocmToken implements Contract {
     public void depositForOther(@Required Address miningAddress) {
         String userStr = Msg.sender().toString();
         BigInteger value = Msg.value();
+        long depositValue = toLongNa(value);
         long currentHeight = Block.number();
         long depositNumber = NUMBER++;
-        DepositInfo info = depositService.addDeposit(userStr, miningAddress.toString(), value, currentHeight, depositNumber);
+        depositService.addDeposit(userStr, miningAddress.toString(), depositValue, currentHeight, depositNumber);
 
         //Add the number of mortgages to the queue
-        miningService.putDeposit(value, currentHeight);
+        miningService.putDeposit(depositValue, currentHeight);
+
+        //Initialization of mining information
+        miningService.initMingInfo(currentHeight, depositNumber);
+
+        emit(new DepositAddedEvent(userStr, depositNumber, miningAddress.toString(), value, currentHeight,
+                BigInteger.valueOf(depositService.getDepositTotalAmount(userStr)), depositService.getDepositCount(userStr),
+                BigInteger.valueOf(depositService.getTotalDeposit())));
+    }
+
+    /**
+     * Mortgaging Nuls for several others in one transaction; the NULS sent are split into one mortgage per mining address
+     *
+     * @param miningAddresses Addresses that get the Token of each mortgage
+     * @param depositAmounts  Amount of each mortgage (Na), the sum should be equal to the NULS sent
+     * @return
+     */
+    @Payable
+    public void depositForOthers(@Required String[] miningAddresses, @Required long[] depositAmounts) {
+        require(miningAddresses.length > 0, "At least one mining address should be input");
+        require(miningAddresses.length == depositAmounts.length, "The number of mining addresses and deposit amounts should be the same");
+        require(miningAddresses.length <= MAXIMUM_BATCH_SIZE, "At most " + MAXIMUM_BATCH_SIZE + " deposits in one batch");
+        BigInteger value = Msg.value();
+        require(checkAmount(depositAmounts) && sumAmount(depositAmounts).compareTo(value) == 0,
+                "The sum of the deposit amounts should be equal to the NULS sent");
+        long depositValue = toLongNa(value);
+        convertStringToAddres(miningAddresses);
+        String userStr = Msg.sender().toString();
+        long currentHeight = Block.number();
+        long firstDepositNumber = NUMBER;
+        NUMBER += miningAddresses.length;
+        depositService.addDeposits(userStr, miningAddresses, depositAmounts, currentHeight, firstDepositNumber);
+
+        //All the mortgages start mining in the same cycle, so the queue is updated once with their sum
+        miningService.putDeposit(depositValue, currentHeight);
 
         //Initialization of mining information
-        miningService.initMingInfo(currentHeight, miningAddress.toString(), userStr, depositNumber);
+        for (int i = 0; i < miningAddresses.length; i++) {
+            miningService.initMingInfo(currentHeight, firstDepositNumber + i);
+        }
 
-        emit(new DepositInfoEvent(info));
+        emit(new BatchDepositEvent(userStr, firstDepositNumber, miningAddresses, depositAmounts, value, currentHeight,
+                BigInteger.valueOf(depositService.getDepositTotalAmount(userStr)), depositService.getDepositCount(userStr),
+                BigInteger.valueOf(depositService.getTotalDeposit())));
     }
 
     /**
@@ -177,78 +228,145 @@ public class Pocm extends PocmToken implements Contract {
             require(canConvertNumeric(number.trim(), String.valueOf(Long.MAX_VALUE)), "Mortgage Number Input is Illegal and Digital Characters should be Input");
             depositNumber = Long.valueOf(number.trim());
         }
-        DepositInfo depositInfo = depositService.getDepositInfo(userStr);
-        require(depositInfo != null, "This user is not involved in the mortgage");
+        require(depositService.hasDeposit(userStr), "This user is not involved in the mortgage");
 
         // Award
-        this.receive(depositInfo);
+        this.receive(userStr, currentHeight);
 
-        BigInteger deposit;
-        MiningInfo miningInfo;
+        long deposit;
 
         //Withdrawal of all mortgages
         if (depositNumber == 0) {
-            miningInfo = miningService.getMiningInfo(depositInfo.getDepositorAddress());
-            long result = depositService.checkAllDepositLocked(depositInfo);
+            long result = depositService.checkAllDepositLocked(userStr, currentHeight);
             require(result == -1, "The mortgaged NULS is not fully unlocked");
 
-            deposit = depositInfo.getDepositTotalAmount();
-            miningService.removeAllMiningInfo(depositInfo);
-
-            Map<Long, DepositDetailInfo> depositDetailInfos = depositInfo.getDepositDetailInfos();
+            int[] slots = depositService.getDepositSlots(userStr);
+            deposit = depositService.getDepositTotalAmount(userStr);
 
             //Withdrawal from the totalDepositList queue
-            for (Long key : depositDetailInfos.keySet()) {
-                DepositDetailInfo detailInfo = depositDetailInfos.get(key);
-                miningService.quitDeposit(detailInfo, currentHeight);
-            }
+            miningService.quitDeposits(slots, currentHeight);
 
-            depositService.clearDepositDetailInfos(depositInfo);
+            //Delete mortgage and mining information
+            for (int i = 0; i < slots.length; i++) {
+                depositService.removeDeposit(slots[i]);
+            }
         } else {
             //Withdrawal from a mortgage
-            DepositDetailInfo detailInfo = depositInfo.getDepositDetailInfoByNumber(depositNumber);
+            int slot = depositService.getDepositSlot(userStr, depositNumber);
 
-            miningInfo = miningService.getMiningInfo(detailInfo.getMiningAddress());
+            long unLockedHeight = depositService.checkDepositLocked(slot, currentHeight);
+            require(unLockedHeight == -1, "In mining locking, the unlocking height is " + unLockedHeight);
 
-            long unLockedHeight = depositService.checkDepositLocked(detailInfo);
+            // Return the deposit money
+            deposit = depositService.getDepositAmount(slot);
+
+            //Withdrawal from the totalDepositList queue
+            miningService.quitDeposit(slot, currentHeight);
+
+            //Delete mortgage and mining information
+            depositService.removeDeposit(slot);
+        }
+
+        depositService.setTotalDeposit(subtractNa(depositService.getTotalDeposit(), deposit));
+
+        BigInteger depositValue = BigInteger.valueOf(deposit);
+        Msg.sender().transfer(depositValue);
+
+        emit(new DepositWithdrawnEvent(userStr, depositNumber, depositValue, BigInteger.valueOf(depositService.getDepositTotalAmount(userStr)),
+                depositService.getDepositCount(userStr), BigInteger.valueOf(depositService.getTotalDeposit())));
+    }
+
+    /**
+     * Withdrawal from several mortgages: the awards are received once, the reward cycle queue is updated with the sum of
+     * the mortgages and the NULS are returned in one transfer
+     *
+     * @param depositNumbers Mortgage numbers
+     * @return
+     */
+    public void quitDeposits(@Required long[] depositNumbers) {
+        require(depositNumbers.length > 0, "At least one mortgage number should be input");
+        require(depositNumbers.length <= MAXIMUM_BATCH_SIZE, "At most " + MAXIMUM_BATCH_SIZE + " mortgages in one batch");
+        long currentHeight = Block.number();
+        String userStr = Msg.sender().toString();
+        require(depositService.hasDeposit(userStr), "This user is not involved in the mortgage");
+
+        // Award
+        this.receive(userStr, currentHeight);
+
+        int[] slots = new int[depositNumbers.length];
+        long deposit = 0;
+        for (int i = 0; i < depositNumbers.length; i++) {
+            int slot = depositService.getDepositSlot(userStr, depositNumbers[i]);
+            //A number given twice would be withdrawn twice
+            for (int j = 0; j < i; j++) {
+                require(slots[j] != slot, "Duplicate mortgage number: " + depositNumbers[i]);
+            }
+
+            long unLockedHeight = depositService.checkDepositLocked(slot, currentHeight);
             require(unLockedHeight == -1, "In mining locking, the unlocking height is " + unLockedHeight);
 
-            //Delete mining information
-            miningService.removeMiningInfo(detailInfo.getMiningAddress(), depositNumber);
+            slots[i] = slot;
+            deposit += depositService.getDepositAmount(slot);
+        }
 
-            //Delete Mortgage Information
-            depositInfo.removeDepositDetailInfoByNumber(depositNumber);
+        quitDepositSlots(userStr, slots, depositNumbers, deposit, currentHeight);
+    }
 
-            // Return the deposit money
-            deposit = detailInfo.getDepositAmount();
-            depositInfo.setDepositTotalAmount(depositInfo.getDepositTotalAmount().subtract(deposit));
-            depositInfo.setDepositCount(depositInfo.getDepositCount() - 1);
+    /**
+     * Withdrawal from all the unlocked mortgages, the mortgages still locked are kept
+     *
+     * @return
+     */
+    public void quitUnlocked() {
+        long currentHeight = Block.number();
+        String userStr = Msg.sender().toString();
+        require(depositService.hasDeposit(userStr), "This user is not involved in the mortgage");
 
-            //Withdrawal from the totalDepositList queue
-            miningService.quitDeposit(detailInfo, currentHeight);
+        // Award
+        this.receive(userStr, currentHeight);
+
+        int[] slots = depositService.getUnlockedDepositSlots(userStr, currentHeight);
+        require(slots.length > 0, "No mortgaged NULS is unlocked");
+
+        long[] depositNumbers = new long[slots.length];
+        long deposit = 0;
+        for (int i = 0; i < slots.length; i++) {
+            depositNumbers[i] = depositService.getDepositNumber(slots[i]);
+            deposit += depositService.getDepositAmount(slots[i]);
         }
 
-        depositService.setTotalDeposit(depositService.getTotalDeposit().subtract(deposit));
+        quitDepositSlots(userStr, slots, depositNumbers, deposit, currentHeight);
+    }
 
-        if (depositInfo.getDepositDetailInfos().size() == 0) {
-            depositService.removeDeposit(userStr);
+    /**
+     * Withdrawal from several unlocked mortgages of the sender whose awards are received
+     */
+    private void quitDepositSlots(String userStr, int[] slots, long[] depositNumbers, long deposit, long currentHeight) {
+        //Withdrawal from the totalDepositList queue
+        miningService.quitDeposits(slots, currentHeight);
+
+        //Delete mortgage and mining information
+        for (int i = 0; i < slots.length; i++) {
+            depositService.removeDeposit(slots[i]);
         }
-        Msg.sender().transfer(deposit);
 
-        emit(new MiningInfoEvent(miningInfo));
+        depositService.setTotalDeposit(subtractNa(depositService.getTotalDeposit(), deposit));
+
+        BigInteger depositValue = BigInteger.valueOf(deposit);
+        Msg.sender().transfer(depositValue);
+
+        emit(new BatchQuitEvent(userStr, depositNumbers, depositValue, BigInteger.valueOf(depositService.getDepositTotalAmount(userStr)),
+                depositService.getDepositCount(userStr), BigInteger.valueOf(depositService.getTotalDeposit())));
     }
 
     /**
      * Receive Token for the mortgage nuls
      */
     public void receiveAwards() {
-        Address user = Msg.sender();
-        MiningInfo miningInfo = miningService.getMiningInfo(user.toString());
-        require(miningInfo != null, "Mining information that does not mortgage itself");
-        DepositInfo depositInfo = depositService.getDepositInfo(user.toString());
-        require(depositInfo != null, "This user is not involved in the mortgage");
-        this.receive(depositInfo);
-        emit(new MiningInfoEvent(miningInfo));
+        String userStr = Msg.sender().toString();
+        require(miningService.hasMiningInfo(userStr), "Mining information that does not mortgage itself");
+        require(depositService.hasDeposit(userStr), "This user is not involved in the mortgage");
+        this.receive(userStr, Block.number());
     }
 
     /**
@@ -258,21 +376,37 @@ public class Pocm extends PocmToken implements Contract {
      * @return
      */
     public void receiveAwardsForMiningAddress() {
-        List<String> alreadyReceive = new ArrayList<String>();
-        Address user = Msg.sender();
-        MiningInfo info = miningService.getMiningInfo(user.toString());
-        require(info != null, "Mining information not collateralized for " + user.toString());
-        Map<Long, MiningDetailInfo> detailInfos = info.getMiningDetailInfos();
-        for (Long key : detailInfos.keySet()) {
-            MiningDetailInfo detailInfo = detailInfos.get(key);
-            if (!alreadyReceive.contains(detailInfo.getDepositorAddress())) {
-                DepositInfo depositInfo = depositService.getDepositInfo(detailInfo.getDepositorAddress());
-                require(depositInfo != null, "This user is not involved in the mortgage");
-                this.receive(depositInfo);
-                alreadyReceive.add(detailInfo.getDepositorAddress());
+        String userStr = Msg.sender().toString();
+        List<String> depositorAddresses = miningService.getDepositorAddresses(userStr);
+        require(!depositorAddresses.isEmpty(), "Mining information not collateralized for " + userStr);
+        //Settled together like claimFor, in one settlement
+        MiningResult mingResult = new MiningResult();
+        miningService.calcMining(depositorAddresses, mingResult, Block.number());
+        this.creditMining(mingResult);
+    }
+
+    /**
+     * Settle the awards of several mortgage users, anyone can call it; the Token goes to the receiving addresses as
+     * when the users receive the awards themselves. The reward cycles are brought up to date once for all the users,
+     * each receiving address gets one transfer, and addresses without mortgage are skipped.
+     *
+     * @param depositorAddresses Mortgage addresses
+     * @return
+     */
+    public void claimFor(@Required String[] depositorAddresses) {
+        require(depositorAddresses.length <= MAXIMUM_SETTLEMENT_BATCH_SIZE, "At most " + MAXIMUM_SETTLEMENT_BATCH_SIZE + " addresses in one settlement");
+        List<String> depositors = new ArrayList<String>();
+        for (int i = 0; i < depositorAddresses.length; i++) {
+            if (depositService.hasDeposit(depositorAddresses[i])) {
+                depositors.add(depositorAddresses[i]);
             }
         }
-        emit(new MiningInfoEvent(info));
+        if (depositors.isEmpty()) {
+            return;
+        }
+        MiningResult mingResult = new MiningResult();
+        miningService.calcMining(depositors, mingResult, Block.number());
+        this.creditMining(mingResult);
     }
 
     /**
@@ -283,6 +417,36 @@ public class Pocm extends PocmToken implements Contract {
         return miningService.getMiningInfo(address.toString());
     }
 
+    /**
+     * View the rewards receiveAwards would settle now for the mortgage address, by receiving address;
+     * nothing is changed
+     *
+     * @param address Mortgage address
+     * @return
+     */
+    @View
+    public String pendingReward(@Required Address address) {
+        List<String> depositors = new ArrayList<String>();
+        depositors.add(address.toString());
+        MiningResult mingResult = new MiningResult();
+        miningService.calcPendingMining(depositors, mingResult, Block.number());
+        return mingResult.toString();
+    }
+
+    /**
+     * View the rewards receiveAwardsForMiningAddress would settle now for the mining address, by receiving address;
+     * the other mortgages of its mortgage users are settled too, so other receiving addresses may be listed
+     *
+     * @param address mining address
+     * @return
+     */
+    @View
+    public String pendingRewardForMiningAddress(@Required Address address) {
+        MiningResult mingResult = new MiningResult();
+        miningService.calcPendingMining(miningService.getDepositorAddresses(address.toString()), mingResult, Block.number());
+        return mingResult.toString();
+    }
+
     /**
      * View User Mortgage Information
      *
@@ -303,6 +467,40 @@ public class Pocm extends PocmToken implements Contract {
         return ariDropperService.getAriDropperInfos();
     }
 
+    /**
+     * View the number of airdrop records
+     *
+     * @return
+     */
+    @View
+    public int getAirdropperInfoCount() {
+        return ariDropperService.getAriDropperInfoCount();
+    }
+
+    /**
+     * View a page of the airdrop records, the next page starts at the returned nextIndex
+     *
+     * @param start position of the first record, starting from 0
+     * @param limit the maximum number of records, at most MAXIMUM_PAGE_SIZE are returned
+     * @return
+     */
+    @View
+    public String getAirdropperInfoList(int start, int limit) {
+        require(limit > 0, "The number of records should be greater than 0");
+        return ariDropperService.ariDropperInfoListToString(start, limit > MAXIMUM_PAGE_SIZE ? MAXIMUM_PAGE_SIZE : limit);
+    }
+
+    /**
+     * View the airdrop record of an address
+     *
+     * @param address receiving address
+     * @return null if the address received no airdrop
+     */
+    @View
+    public AirdropperInfo getAirdropperInfoByAddress(@Required Address address) {
+        return ariDropperService.getAriDropperInfo(address.toString());
+    }
+
     /**
      * View the current price
      */
@@ -328,25 +526,54 @@ public class Pocm extends PocmToken implements Contract {
 
     @View
     public int getTotalDepositNumber() {
-        return miningService.getTotalDepositList().size();
+        return miningService.getRewardCycleStore().size();
     }
 
+    /**
+     * View all the reward cycle records; beyond MAXIMUM_VIEW_LENGTH the remaining records are left out and replaced by
+     * the truncation marker, they can be read with getRewardCycleList
+     *
+     * @return
+     */
     @View
     public String getTotalDepositList() {
-        List<RewardCycleInfo> totalDepositList = miningService.getTotalDepositList();
-        int size = totalDepositList.size();
-        String depositInfo = "{";
-        for (int i = 0; i < size; i++) {
-            RewardCycleInfo info = totalDepositList.get(i);
-            depositInfo = depositInfo + info.toString() + ",";
-        }
-        if (size > 0) {
-            depositInfo = depositInfo.substring(0, depositInfo.length() - 1) + "}";
-        } else {
-            depositInfo = depositInfo + "}";
+        RewardCycleStore rewardCycleStore = miningService.getRewardCycleStore();
+        int size = rewardCycleStore.size();
+        ModelWriter writer = new ModelWriter(MAXIMUM_VIEW_LENGTH);
+        writer.beginObject();
+        for (int i = 0; i < size && !writer.isTruncated(); i++) {
+            rewardCycleStore.get(i).writeTo(writer);
         }
+        return writer.endObject().toString();
+    }
 
-        return depositInfo;
+    /**
+     * View a page of the reward cycle records, starting at the first record whose reward cycle is not less than startCycle;
+     * the next page starts at the returned nextCycle
+     *
+     * @param startCycle the first reward cycle
+     * @param limit      the maximum number of records, at most MAXIMUM_PAGE_SIZE are returned
+     * @return
+     */
+    @View
+    public String getRewardCycleList(int startCycle, int limit) {
+        require(limit > 0, "The number of records should be greater than 0");
+        return miningService.rewardCycleListToString(startCycle, Integer.MAX_VALUE,
+                limit > MAXIMUM_PAGE_SIZE ? MAXIMUM_PAGE_SIZE : limit);
+    }
+
+    /**
+     * View the reward cycle records between two reward cycles, inclusive, at most MAXIMUM_PAGE_SIZE of them;
+     * when more records of the range follow, the rest starts at the returned nextCycle
+     *
+     * @param fromCycle the first reward cycle
+     * @param toCycle   the last reward cycle
+     * @return
+     */
+    @View
+    public String getRewardCycleListBetween(int fromCycle, int toCycle) {
+        require(fromCycle <= toCycle, "The start reward cycle should not be greater than the end reward cycle");
+        return miningService.rewardCycleListToString(fromCycle, toCycle, MAXIMUM_PAGE_SIZE);
     }
 
     /**
@@ -364,6 +591,22 @@ public class Pocm extends PocmToken implements Contract {
         return depositService.getTotalDepositAddressCount();
     }
 
+    /**
+     * Turn on or off the TransferEvent of each receiving address when rewards are settled,
+     * the settlement event is emitted in both cases
+     *
+     * @param compatible whether the TransferEvents are emitted
+     */
+    public void setTransferEventCompatible(boolean compatible) {
+        onlyOwner();
+        this.transferEventCompatible = compatible;
+    }
+
+    @View
+    public boolean transferEventCompatible() {
+        return transferEventCompatible;
+    }
+
     @View
     public String totalDeposit() {
         return toNuls(depositService.getTotalDeposit()).toPlainString();
@@ -381,7 +624,7 @@ public class Pocm extends PocmToken implements Contract {
 
     @View
     public BigInteger minimumDeposit() {
-        return depositService.getMinimumDeposit();
+        return BigInteger.valueOf(depositService.getMinimumDeposit());
     }
 
     @View
@@ -398,19 +641,35 @@ public class Pocm extends PocmToken implements Contract {
     /**
      * Receive awards
      *
-     * @param depositInfo
+     * @param depositorAddress Mortgage address
+     * @param currentHeight    current height
      */
-    private void receive(DepositInfo depositInfo) {
-        Map<String, BigInteger> mingResult = new HashMap<String, BigInteger>();
+    private void receive(String depositorAddress, long currentHeight) {
+        MiningResult mingResult = new MiningResult();
         //Calculate the amount of reward
-        BigInteger thisMining = miningService.calcMining(depositInfo, mingResult);
-        Set<String> set = new HashSet<String>(mingResult.keySet());
-        for (String address : set) {
-            Address user = new Address(address);
-            BigInteger mingValue = mingResult.get(address);
-            addBalance(user, mingValue);
-            emit(new TransferEvent(null, user, mingValue));
+        miningService.calcMining(depositorAddress, mingResult, currentHeight);
+        this.creditMining(mingResult);
+    }
+
+    /**
+     * Add the mined Token to the balances of the receiving addresses and emit one settlement event for all of them;
+     * a TransferEvent per receiving address is emitted too while the transfer event compatibility is on
+     * <p>
+     * The settlement event is emitted even when nothing is settled: the claim brought the reward cycle records up to
+     * the current reward cycle, which the later rewards depend on, and the indexer replays that from the event.
+     *
+     * @param mingResult Mining results by receiving address
+     */
+    private void creditMining(MiningResult mingResult) {
+        int receiverCount = mingResult.getReceiverCount();
+        for (int i = 0; i < receiverCount; i++) {
+            //The receiving address ids are the ones of the shared address registry, in use by the mortgages
+            addBalance(mingResult.getReceiverId(i), mingResult.getReceiverAmount(i));
+            if (transferEventCompatible) {
+                emit(new TransferEvent(null, new Address(mingResult.getReceiverAddress(i)), mingResult.getReceiverAmount(i)));
+            }
         }
-        this.setTotalSupply(this.getTotalSupply().add(thisMining));
+        this.setTotalSupply(this.getTotalSupply().add(mingResult.getSupplyAmount()));
+        emit(new RewardSettlementEvent(mingResult));
     }
 }
@@ -0,0 +1,150 @@
+package io.nuls.pocm.contract.event;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+
+/**
+ * Summary of a batch deposit: the mortgages are numbered from firstDepositNumber to firstDepositNumber + depositCount - 1,
+ * in the order of the mining addresses, with the totals after it
+ *
+ * @author: Long
+ * @date: 2019-06-10
+ */
+public class BatchDepositEvent implements Event {
+
+    /**
+     * Mortgage address
+     */
+    private String depositorAddress;
+
+    /**
+     * Mortgage number of the first mortgage
+     */
+    private long firstDepositNumber;
+
+    /**
+     * Number of mortgages
+     */
+    private int depositCount;
+
+    /**
+     * Total amount of the mortgages (Na)
+     */
+    private BigInteger depositTotalAmount;
+
+    /**
+     * Address receiving the Token of each mortgage
+     */
+    private String[] miningAddresses;
+
+    /**
+     * Amount of each mortgage (Na)
+     */
+    private long[] depositAmounts;
+
+    /**
+     * Mortgage height
+     */
+    private long depositHeight;
+
+    /**
+     * Total mortgage amount of the mortgage address (Na)
+     */
+    private BigInteger depositorTotalAmount;
+
+    /**
+     * Number of mortgages of the mortgage address
+     */
+    private int depositorDepositCount;
+
+    /**
+     * Total mortgage amount of the pool (Na)
+     */
+    private BigInteger totalDeposit;
+
+    public BatchDepositEvent(String depositorAddress, long firstDepositNumber, String[] miningAddresses, long[] depositAmounts,
+                             BigInteger depositTotalAmount, long depositHeight, BigInteger depositorTotalAmount,
+                             int depositorDepositCount, BigInteger totalDeposit) {
+        this.depositorAddress = depositorAddress;
+        this.firstDepositNumber = firstDepositNumber;
+        this.depositCount = miningAddresses.length;
+        this.depositTotalAmount = depositTotalAmount;
+        this.miningAddresses = miningAddresses;
+        this.depositAmounts = depositAmounts;
+        this.depositHeight = depositHeight;
+        this.depositorTotalAmount = depositorTotalAmount;
+        this.depositorDepositCount = depositorDepositCount;
+        this.totalDeposit = totalDeposit;
+    }
+
+    public String getDepositorAddress() {
+        return depositorAddress;
+    }
+
+    public long getFirstDepositNumber() {
+        return firstDepositNumber;
+    }
+
+    public int getDepositCount() {
+        return depositCount;
+    }
+
+    public BigInteger getDepositTotalAmount() {
+        return depositTotalAmount;
+    }
+
+    public String[] getMiningAddresses() {
+        return miningAddresses;
+    }
+
+    public long[] getDepositAmounts() {
+        return depositAmounts;
+    }
+
+    public long getDepositHeight() {
+        return depositHeight;
+    }
+
+    public BigInteger getDepositorTotalAmount() {
+        return depositorTotalAmount;
+    }
+
+    public int getDepositorDepositCount() {
+        return depositorDepositCount;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositorAddress", depositorAddress)
+                .field("firstDepositNumber", firstDepositNumber)
+                .field("depositCount", depositCount)
+                .field("depositTotalAmount", depositTotalAmount)
+                .name("deposits").beginList();
+        for (int i = 0; i < miningAddresses.length; i++) {
+            writer.beginObject()
+                    .field("miningAddress", miningAddresses[i])
+                    .field("depositAmount", depositAmounts[i])
+                    .endObject();
+        }
+        writer.endList()
+                .field("depositHeight", depositHeight)
+                .field("depositorTotalAmount", depositorTotalAmount)
+                .field("depositorDepositCount", depositorDepositCount)
+                .field("totalDeposit", totalDeposit)
+                .endObject();
+    }
+
+}
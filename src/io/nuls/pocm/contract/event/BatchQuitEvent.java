@@ -0,0 +1,113 @@
+package io.nuls.pocm.contract.event;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+
+/**
+ * Summary of a withdrawal from several mortgages, with the totals after it
+ *
+ * @author: Long
+ * @date: 2019-06-12
+ */
+public class BatchQuitEvent implements Event {
+
+    /**
+     * Mortgage address
+     */
+    private String depositorAddress;
+
+    /**
+     * Mortgage numbers withdrawn
+     */
+    private long[] depositNumbers;
+
+    /**
+     * Number of mortgages withdrawn
+     */
+    private int depositCount;
+
+    /**
+     * Total amount returned (Na)
+     */
+    private BigInteger depositTotalAmount;
+
+    /**
+     * Total mortgage amount of the mortgage address (Na)
+     */
+    private BigInteger depositorTotalAmount;
+
+    /**
+     * Number of mortgages of the mortgage address
+     */
+    private int depositorDepositCount;
+
+    /**
+     * Total mortgage amount of the pool (Na)
+     */
+    private BigInteger totalDeposit;
+
+    public BatchQuitEvent(String depositorAddress, long[] depositNumbers, BigInteger depositTotalAmount,
+                          BigInteger depositorTotalAmount, int depositorDepositCount, BigInteger totalDeposit) {
+        this.depositorAddress = depositorAddress;
+        this.depositNumbers = depositNumbers;
+        this.depositCount = depositNumbers.length;
+        this.depositTotalAmount = depositTotalAmount;
+        this.depositorTotalAmount = depositorTotalAmount;
+        this.depositorDepositCount = depositorDepositCount;
+        this.totalDeposit = totalDeposit;
+    }
+
+    public String getDepositorAddress() {
+        return depositorAddress;
+    }
+
+    public long[] getDepositNumbers() {
+        return depositNumbers;
+    }
+
+    public int getDepositCount() {
+        return depositCount;
+    }
+
+    public BigInteger getDepositTotalAmount() {
+        return depositTotalAmount;
+    }
+
+    public BigInteger getDepositorTotalAmount() {
+        return depositorTotalAmount;
+    }
+
+    public int getDepositorDepositCount() {
+        return depositorDepositCount;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositorAddress", depositorAddress)
+                .name("depositNumbers").beginList();
+        for (int i = 0; i < depositNumbers.length; i++) {
+            writer.value(depositNumbers[i]);
+        }
+        writer.endList()
+                .field("depositCount", depositCount)
+                .field("depositTotalAmount", depositTotalAmount)
+                .field("depositorTotalAmount", depositorTotalAmount)
+                .field("depositorDepositCount", depositorDepositCount)
+                .field("totalDeposit", totalDeposit)
+                .endObject();
+    }
+
+}
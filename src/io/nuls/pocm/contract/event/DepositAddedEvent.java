@@ -0,0 +1,120 @@
+package io.nuls.pocm.contract.event;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+
+/**
+ * A mortgage was added, with the totals after it
+ *
+ * @author: Long
+ * @date: 2019-06-14
+ */
+public class DepositAddedEvent implements Event {
+
+    /**
+     * Mortgage address
+     */
+    private String depositorAddress;
+
+    /**
+     * Mortgage number
+     */
+    private long depositNumber;
+
+    /**
+     * Address receiving the Token of the mortgage
+     */
+    private String miningAddress;
+
+    /**
+     * Mortgage amount (Na)
+     */
+    private BigInteger depositAmount;
+
+    /**
+     * Mortgage height
+     */
+    private long depositHeight;
+
+    /**
+     * Total mortgage amount of the mortgage address (Na)
+     */
+    private BigInteger depositorTotalAmount;
+
+    /**
+     * Number of mortgages of the mortgage address
+     */
+    private int depositorDepositCount;
+
+    /**
+     * Total mortgage amount of the pool (Na)
+     */
+    private BigInteger totalDeposit;
+
+    public DepositAddedEvent(String depositorAddress, long depositNumber, String miningAddress, BigInteger depositAmount,
+                             long depositHeight, BigInteger depositorTotalAmount, int depositorDepositCount, BigInteger totalDeposit) {
+        this.depositorAddress = depositorAddress;
+        this.depositNumber = depositNumber;
+        this.miningAddress = miningAddress;
+        this.depositAmount = depositAmount;
+        this.depositHeight = depositHeight;
+        this.depositorTotalAmount = depositorTotalAmount;
+        this.depositorDepositCount = depositorDepositCount;
+        this.totalDeposit = totalDeposit;
+    }
+
+    public String getDepositorAddress() {
+        return depositorAddress;
+    }
+
+    public long getDepositNumber() {
+        return depositNumber;
+    }
+
+    public String getMiningAddress() {
+        return miningAddress;
+    }
+
+    public BigInteger getDepositAmount() {
+        return depositAmount;
+    }
+
+    public long getDepositHeight() {
+        return depositHeight;
+    }
+
+    public BigInteger getDepositorTotalAmount() {
+        return depositorTotalAmount;
+    }
+
+    public int getDepositorDepositCount() {
+        return depositorDepositCount;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositorAddress", depositorAddress)
+                .field("depositNumber", depositNumber)
+                .field("miningAddress", miningAddress)
+                .field("depositAmount", depositAmount)
+                .field("depositHeight", depositHeight)
+                .field("depositorTotalAmount", depositorTotalAmount)
+                .field("depositorDepositCount", depositorDepositCount)
+                .field("totalDeposit", totalDeposit)
+                .endObject();
+    }
+
+}
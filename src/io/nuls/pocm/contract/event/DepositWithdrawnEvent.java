@@ -0,0 +1,98 @@
+package io.nuls.pocm.contract.event;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+
+/**
+ * A mortgage was withdrawn, or all the mortgages of the address when the mortgage number is 0, with the totals after it
+ *
+ * @author: Long
+ * @date: 2019-06-14
+ */
+public class DepositWithdrawnEvent implements Event {
+
+    /**
+     * Mortgage address
+     */
+    private String depositorAddress;
+
+    /**
+     * Mortgage number, 0 for all the mortgages of the address
+     */
+    private long depositNumber;
+
+    /**
+     * Amount returned (Na)
+     */
+    private BigInteger depositAmount;
+
+    /**
+     * Total mortgage amount of the mortgage address (Na)
+     */
+    private BigInteger depositorTotalAmount;
+
+    /**
+     * Number of mortgages of the mortgage address
+     */
+    private int depositorDepositCount;
+
+    /**
+     * Total mortgage amount of the pool (Na)
+     */
+    private BigInteger totalDeposit;
+
+    public DepositWithdrawnEvent(String depositorAddress, long depositNumber, BigInteger depositAmount,
+                                 BigInteger depositorTotalAmount, int depositorDepositCount, BigInteger totalDeposit) {
+        this.depositorAddress = depositorAddress;
+        this.depositNumber = depositNumber;
+        this.depositAmount = depositAmount;
+        this.depositorTotalAmount = depositorTotalAmount;
+        this.depositorDepositCount = depositorDepositCount;
+        this.totalDeposit = totalDeposit;
+    }
+
+    public String getDepositorAddress() {
+        return depositorAddress;
+    }
+
+    public long getDepositNumber() {
+        return depositNumber;
+    }
+
+    public BigInteger getDepositAmount() {
+        return depositAmount;
+    }
+
+    public BigInteger getDepositorTotalAmount() {
+        return depositorTotalAmount;
+    }
+
+    public int getDepositorDepositCount() {
+        return depositorDepositCount;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositorAddress", depositorAddress)
+                .field("depositNumber", depositNumber)
+                .field("depositAmount", depositAmount)
+                .field("depositorTotalAmount", depositorTotalAmount)
+                .field("depositorDepositCount", depositorDepositCount)
+                .field("totalDeposit", totalDeposit)
+                .endObject();
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.nuls.pocm.contract.event;
+
+import io.nuls.contract.sdk.Event;
+import io.nuls.pocm.contract.model.MiningResult;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+
+/**
+ * Rewards settled by one claim: the receiving addresses with their amounts, the mortgage addresses whose mortgages
+ * were settled and the reward cycles settled
+ *
+ * @author: Long
+ * @date: 2019-06-12
+ */
+public class RewardSettlementEvent implements Event {
+
+    /**
+     * Receiving addresses
+     */
+    private String[] receiverAddresses;
+
+    /**
+     * Reward of each receiving address
+     */
+    private BigInteger[] amounts;
+
+    /**
+     * Mortgage addresses whose mortgages were settled
+     */
+    private String[] depositorAddresses;
+
+    /**
+     * Total reward
+     */
+    private BigInteger totalAmount;
+
+    /**
+     * The first reward cycle settled
+     */
+    private int fromCycle;
+
+    /**
+     * The last reward cycle settled
+     */
+    private int toCycle;
+
+    public RewardSettlementEvent(MiningResult mingResult) {
+        int receiverCount = mingResult.getReceiverCount();
+        this.receiverAddresses = new String[receiverCount];
+        this.amounts = new BigInteger[receiverCount];
+        for (int i = 0; i < receiverCount; i++) {
+            receiverAddresses[i] = mingResult.getReceiverAddress(i);
+            amounts[i] = mingResult.getReceiverAmount(i);
+        }
+        this.depositorAddresses = mingResult.getDepositorAddresses().toArray(new String[0]);
+        this.totalAmount = mingResult.getTotalAmount();
+        this.fromCycle = mingResult.getFromCycle();
+        this.toCycle = mingResult.getToCycle();
+    }
+
+    public String[] getReceiverAddresses() {
+        return receiverAddresses;
+    }
+
+    public BigInteger[] getAmounts() {
+        return amounts;
+    }
+
+    public String[] getDepositorAddresses() {
+        return depositorAddresses;
+    }
+
+    public BigInteger getTotalAmount() {
+        return totalAmount;
+    }
+
+    public int getFromCycle() {
+        return fromCycle;
+    }
+
+    public int getToCycle() {
+        return toCycle;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject().name("receivers").beginList();
+        for (int i = 0; i < receiverAddresses.length; i++) {
+            writer.beginObject()
+                    .field("receiverAddress", receiverAddresses[i])
+                    .field("amount", amounts[i])
+                    .endObject();
+        }
+        writer.endList().name("depositorAddresses").beginList();
+        for (int i = 0; i < depositorAddresses.length; i++) {
+            writer.value(depositorAddresses[i]);
+        }
+        writer.endList()
+                .field("totalAmount", totalAmount)
+                .field("fromCycle", fromCycle)
+                .field("toCycle", toCycle)
+                .endObject();
+    }
+
+}
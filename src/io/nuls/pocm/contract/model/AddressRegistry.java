@@ -0,0 +1,135 @@
+package io.nuls.pocm.contract.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Address registry: each address in use gets a compact id, shared by the mortgage store and the Token ledger
+ * <p>
+ * The ledgers keep their per address state in arrays indexed by the id and only convert between the id and the
+ * address at the contract interface. An id is retained by every entry that refers to it (a mortgage as mortgagor or as
+ * mining address, a Token balance, an allowance) and is released with the entry; an id retained by nothing is given
+ * back and reused for the next new address, so the table stays as large as the addresses in use.
+ *
+ * @author: Long
+ * @date: 2019-06-19
+ */
+public class AddressRegistry {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static final int NONE = -1;
+
+    /**
+     * Address of each id
+     */
+    private String[] addresses = new String[INITIAL_CAPACITY];
+
+    /**
+     * Number of entries referring to each id
+     */
+    private int[] references = new int[INITIAL_CAPACITY];
+
+    /**
+     * Id of each address
+     */
+    private Map<String, Integer> addressIds = new HashMap<String, Integer>();
+
+    /**
+     * Number of addresses ever given an id, the ids below it are either used or free
+     */
+    private int addressCount = 0;
+
+    /**
+     * Ids of released addresses, to be reused
+     */
+    private int[] freeAddressIds = new int[INITIAL_CAPACITY];
+
+    private int freeAddressCount = 0;
+
+    /**
+     * Find the id of an address
+     *
+     * @param address address
+     * @return -1 if the address is not in use
+     */
+    public int idOf(String address) {
+        Integer id = addressIds.get(address);
+        return id == null ? NONE : id.intValue();
+    }
+
+    public String getAddress(int addressId) {
+        return addresses[addressId];
+    }
+
+    /**
+     * Upper bound of the ids given so far, for the ledgers to size their arrays
+     *
+     * @return
+     */
+    public int getAddressCount() {
+        return addressCount;
+    }
+
+    /**
+     * Add a reference to an address, giving it an id if it is not in use
+     *
+     * @param address address
+     * @return the id of the address
+     */
+    public int retain(String address) {
+        Integer id = addressIds.get(address);
+        if (id != null) {
+            references[id.intValue()]++;
+            return id.intValue();
+        }
+        int newId;
+        if (freeAddressCount > 0) {
+            newId = freeAddressIds[--freeAddressCount];
+        } else {
+            if (addressCount == addresses.length) {
+                int newCapacity = addresses.length + (addresses.length >> 1);
+                String[] newAddresses = new String[newCapacity];
+                System.arraycopy(addresses, 0, newAddresses, 0, addressCount);
+                addresses = newAddresses;
+                int[] newReferences = new int[newCapacity];
+                System.arraycopy(references, 0, newReferences, 0, addressCount);
+                references = newReferences;
+            }
+            newId = addressCount++;
+        }
+        addresses[newId] = address;
+        references[newId] = 1;
+        addressIds.put(address, newId);
+        return newId;
+    }
+
+    /**
+     * Add a reference to an id in use
+     *
+     * @param addressId address id
+     */
+    public void retain(int addressId) {
+        references[addressId]++;
+    }
+
+    /**
+     * Remove a reference to an id, the id is given back with its last reference
+     *
+     * @param addressId address id
+     */
+    public void release(int addressId) {
+        if (--references[addressId] > 0) {
+            return;
+        }
+        addressIds.remove(addresses[addressId]);
+        addresses[addressId] = null;
+        if (freeAddressCount == freeAddressIds.length) {
+            int[] newFreeAddressIds = new int[freeAddressIds.length + (freeAddressIds.length >> 1)];
+            System.arraycopy(freeAddressIds, 0, newFreeAddressIds, 0, freeAddressCount);
+            freeAddressIds = newFreeAddressIds;
+        }
+        freeAddressIds[freeAddressCount++] = addressId;
+    }
+
+}
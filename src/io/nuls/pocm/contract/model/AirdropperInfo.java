@@ -1,5 +1,7 @@
 package io.nuls.pocm.contract.model;
 
+import io.nuls.pocm.contract.util.ModelWriter;
+
 import java.math.BigInteger;
 
 /**
@@ -47,6 +49,15 @@ public class AirdropperInfo {
 
     @Override
     public String toString() {
-        return "{receiverAddress:" + receiverAddress + ",airdropperAmount:" + airdropperAmount + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("receiverAddress", receiverAddress)
+                .field("airdropperAmount", airdropperAmount)
+                .endObject();
     }
 }
@@ -1,5 +1,7 @@
 package io.nuls.pocm.contract.model;
 
+import io.nuls.pocm.contract.util.ModelWriter;
+
 import java.math.BigInteger;
 
 /**
@@ -63,7 +65,17 @@ public class DepositDetailInfo {
 
     @Override
     public String toString() {
-        return "{depositNumber:" + depositNumber + ",depositHeight:" + depositHeight
-                + ",miningAddress:" + miningAddress + ",depositAmount:" + depositAmount + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositNumber", depositNumber)
+                .field("depositHeight", depositHeight)
+                .field("miningAddress", miningAddress)
+                .field("depositAmount", depositAmount)
+                .endObject();
     }
 }
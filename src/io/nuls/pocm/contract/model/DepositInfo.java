@@ -1,7 +1,8 @@
 package io.nuls.pocm.contract.model;
 
-import java.math.BigInteger;
-import java.util.HashMap;
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static io.nuls.contract.sdk.Utils.require;
@@ -22,7 +23,7 @@ public class DepositInfo {
     /**
      * the amount of mortgage
      */
-    private BigInteger depositTotalAmount;
+    private long depositTotalAmount;
 
     /**
      * Number of mortgages
@@ -30,12 +31,22 @@ public class DepositInfo {
     private int depositCount;
 
     /**
-     * Mortgage Details List
+     * Height of the latest mortgage, all the mortgages are unlocked after it is
+     */
+    private long latestDepositHeight;
+
+    /**
+     * Height at which the earliest mortgage is unlocked
      */
-    private Map<Long, DepositDetailInfo> depositDetailInfos = new HashMap<Long, DepositDetailInfo>();
+    private long earliestUnlockHeight;
+
+    /**
+     * Mortgage Details List, in ascending order of mortgage number
+     */
+    private Map<Long, DepositDetailInfo> depositDetailInfos = new LinkedHashMap<Long, DepositDetailInfo>();
 
     public DepositInfo() {
-        this.depositTotalAmount = BigInteger.ZERO;
+        this.depositTotalAmount = 0;
         this.depositCount = 0;
     }
 
@@ -43,14 +54,16 @@ public class DepositInfo {
         this.depositorAddress = info.depositorAddress;
         this.depositTotalAmount = info.depositTotalAmount;
         this.depositCount = info.depositCount;
+        this.latestDepositHeight = info.latestDepositHeight;
+        this.earliestUnlockHeight = info.earliestUnlockHeight;
         this.depositDetailInfos = info.depositDetailInfos;
     }
 
-    public BigInteger getDepositTotalAmount() {
+    public long getDepositTotalAmount() {
         return depositTotalAmount;
     }
 
-    public void setDepositTotalAmount(BigInteger depositTotalAmount) {
+    public void setDepositTotalAmount(long depositTotalAmount) {
         this.depositTotalAmount = depositTotalAmount;
     }
 
@@ -67,6 +80,22 @@ public class DepositInfo {
     }
 
 
+    public long getLatestDepositHeight() {
+        return latestDepositHeight;
+    }
+
+    public void setLatestDepositHeight(long latestDepositHeight) {
+        this.latestDepositHeight = latestDepositHeight;
+    }
+
+    public long getEarliestUnlockHeight() {
+        return earliestUnlockHeight;
+    }
+
+    public void setEarliestUnlockHeight(long earliestUnlockHeight) {
+        this.earliestUnlockHeight = earliestUnlockHeight;
+    }
+
     public String getDepositorAddress() {
         return depositorAddress;
     }
@@ -96,22 +125,23 @@ public class DepositInfo {
 
     @Override
     public String toString() {
-        return "{depositTotalAmount:" + depositTotalAmount + ",depositorAddress:" + depositorAddress
-                + ",depositCount:" + depositCount + ",depositDetailInfos:" + convertMapToString() + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
     }
 
-    private String convertMapToString() {
-        String detailinfo = "{";
-        String temp = "";
-        for (Long key : depositDetailInfos.keySet()) {
-            DepositDetailInfo detailInfo = depositDetailInfos.get(key);
-            temp = detailInfo.toString();
-            detailinfo = detailinfo + temp + ",";
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositTotalAmount", depositTotalAmount)
+                .field("depositorAddress", depositorAddress)
+                .field("depositCount", depositCount)
+                .field("latestDepositHeight", latestDepositHeight)
+                .field("earliestUnlockHeight", earliestUnlockHeight)
+                .name("depositDetailInfos").beginObject();
+        for (DepositDetailInfo detailInfo : depositDetailInfos.values()) {
+            detailInfo.writeTo(writer);
         }
-        detailinfo = detailinfo.substring(0, detailinfo.length() - 1);
-        detailinfo = detailinfo + "}";
-
-        return detailinfo;
+        writer.endObject().endObject();
     }
 
 }
@@ -0,0 +1,692 @@
+package io.nuls.pocm.contract.model;
+
+import java.math.BigInteger;
+
+/**
+ * Mortgage store: the mortgages and their mining details are kept in primitive arrays, one slot per mortgage
+ * <p>
+ * Each address is stored once in an {@link AddressRegistry}, which may be shared with the Token ledger, and the slots
+ * refer to it by id; every mortgage retains the ids of its mortgagor and its mining address. The mortgages of a mortgagor
+ * and the mortgages of a mining address are linked through the slots, so both can be walked without a map of
+ * details. Mortgages are added at the current height, so the mortgages of a mortgagor are linked from the latest
+ * to the earliest height, and both ends of the list are kept. A mortgage number is found through an open
+ * addressing index of the numbers. The slots of removed mortgages are reused. {@link DepositInfo} and {@link MiningInfo} are built from the store
+ * only when they are viewed.
+ *
+ * @author: Long
+ * @date: 2019-06-10
+ */
+public class DepositStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int NONE = -1;
+
+    private final AddressRegistry addressRegistry;
+
+    /**
+     * First mortgage slot of each mortgagor
+     */
+    private int[] depositorHeads = new int[INITIAL_CAPACITY];
+
+    /**
+     * Last mortgage slot of each mortgagor, the one of the earliest height
+     */
+    private int[] depositorTails = new int[INITIAL_CAPACITY];
+
+    /**
+     * First mortgage slot of each mining address
+     */
+    private int[] miningHeads = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of mortgages of each mortgagor
+     */
+    private int[] depositCounts = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of mortgages of each mining address
+     */
+    private int[] miningDepositCounts = new int[INITIAL_CAPACITY];
+
+    /**
+     * Total mortgage amount of each mortgagor (Na)
+     */
+    private long[] depositTotalAmounts = new long[INITIAL_CAPACITY];
+
+    /**
+     * Table length of the HashMap that held the mortgage details of each mortgagor in commit 1471a21,
+     * see {@link #getDetailBucket(int)}
+     */
+    private int[] detailTableLengths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Total mining amount of each mining address
+     */
+    private BigInteger[] totalMinings = new BigInteger[INITIAL_CAPACITY];
+
+    /**
+     * Mining amount received by each mining address
+     */
+    private BigInteger[] receivedMinings = new BigInteger[INITIAL_CAPACITY];
+
+    /**
+     * Mortgage number of each slot, 0 for a free slot
+     */
+    private long[] numbers = new long[INITIAL_CAPACITY];
+
+    /**
+     * Mortgage height of each slot
+     */
+    private long[] heights = new long[INITIAL_CAPACITY];
+
+    /**
+     * Mortgage amount of each slot (Na)
+     */
+    private long[] amounts = new long[INITIAL_CAPACITY];
+
+    /**
+     * Mortgagor id of each slot
+     */
+    private int[] depositors = new int[INITIAL_CAPACITY];
+
+    /**
+     * Mining address id of each slot
+     */
+    private int[] miners = new int[INITIAL_CAPACITY];
+
+    /**
+     * The award cycle for next mining of each slot
+     */
+    private int[] nextStartMiningCycles = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of mining of each slot
+     */
+    private int[] miningCounts = new int[INITIAL_CAPACITY];
+
+    /**
+     * The amount of mining of each slot
+     */
+    private BigInteger[] miningAmounts = new BigInteger[INITIAL_CAPACITY];
+
+    /**
+     * Next and previous slots of the same mortgagor; the next slot links the free slots too
+     */
+    private int[] nextOfDepositor = new int[INITIAL_CAPACITY];
+
+    private int[] previousOfDepositor = new int[INITIAL_CAPACITY];
+
+    /**
+     * Next and previous slots of the same mining address
+     */
+    private int[] nextOfMiner = new int[INITIAL_CAPACITY];
+
+    private int[] previousOfMiner = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of slots ever used, the slots below it are either used or free
+     */
+    private int slotCount = 0;
+
+    /**
+     * First free slot
+     */
+    private int freeSlot = NONE;
+
+    /**
+     * Number of mortgages
+     */
+    private int size = 0;
+
+    /**
+     * Mortgage numbers of the index, 0 for an empty entry
+     */
+    private long[] indexNumbers = new long[INITIAL_CAPACITY * 2];
+
+    /**
+     * Slot of each mortgage number of the index
+     */
+    private int[] indexSlots = new int[INITIAL_CAPACITY * 2];
+
+    public DepositStore() {
+        this(new AddressRegistry());
+    }
+
+    /**
+     * @param addressRegistry address registry shared with the other ledgers of the contract
+     */
+    public DepositStore(AddressRegistry addressRegistry) {
+        this.addressRegistry = addressRegistry;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a mortgage
+     *
+     * @param depositNumber    mortgage number, greater than 0
+     * @param depositorAddress mortgagor address
+     * @param miningAddress    address receiving the Token of the mortgage
+     * @param amount           mortgage amount (Na)
+     * @param height           mortgage height
+     * @return the slot of the mortgage
+     */
+    public int add(long depositNumber, String depositorAddress, String miningAddress, long amount, long height) {
+        int slot = allocateSlot();
+        numbers[slot] = depositNumber;
+        heights[slot] = height;
+        amounts[slot] = amount;
+        nextStartMiningCycles[slot] = 0;
+        miningCounts[slot] = 0;
+        miningAmounts[slot] = BigInteger.ZERO;
+
+        int depositor = retainAddress(depositorAddress);
+        depositors[slot] = depositor;
+        nextOfDepositor[slot] = depositorHeads[depositor];
+        previousOfDepositor[slot] = NONE;
+        if (depositorHeads[depositor] != NONE) {
+            previousOfDepositor[depositorHeads[depositor]] = slot;
+        } else {
+            depositorTails[depositor] = slot;
+        }
+        depositorHeads[depositor] = slot;
+        depositCounts[depositor]++;
+        depositTotalAmounts[depositor] += amount;
+        detailTableLengths[depositor] = nextDetailTableLength(depositor, slot);
+
+        int miner = retainAddress(miningAddress);
+        miners[slot] = miner;
+        nextOfMiner[slot] = miningHeads[miner];
+        previousOfMiner[slot] = NONE;
+        if (miningHeads[miner] != NONE) {
+            previousOfMiner[miningHeads[miner]] = slot;
+        }
+        miningHeads[miner] = slot;
+        miningDepositCounts[miner]++;
+
+        putIndex(depositNumber, slot);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Remove a mortgage. The mining totals of the mining address are cleared with its last mortgage,
+     * and the ids of the mortgagor and the mining address are released.
+     *
+     * @param slot the slot of the mortgage
+     */
+    public void remove(int slot) {
+        int depositor = depositors[slot];
+        int miner = miners[slot];
+        removeIndex(numbers[slot]);
+
+        if (previousOfDepositor[slot] != NONE) {
+            nextOfDepositor[previousOfDepositor[slot]] = nextOfDepositor[slot];
+        } else {
+            depositorHeads[depositor] = nextOfDepositor[slot];
+        }
+        if (nextOfDepositor[slot] != NONE) {
+            previousOfDepositor[nextOfDepositor[slot]] = previousOfDepositor[slot];
+        } else {
+            depositorTails[depositor] = previousOfDepositor[slot];
+        }
+        depositCounts[depositor]--;
+        depositTotalAmounts[depositor] -= amounts[slot];
+
+        if (previousOfMiner[slot] != NONE) {
+            nextOfMiner[previousOfMiner[slot]] = nextOfMiner[slot];
+        } else {
+            miningHeads[miner] = nextOfMiner[slot];
+        }
+        if (nextOfMiner[slot] != NONE) {
+            previousOfMiner[nextOfMiner[slot]] = previousOfMiner[slot];
+        }
+        miningDepositCounts[miner]--;
+        if (miningDepositCounts[miner] == 0) {
+            totalMinings[miner] = BigInteger.ZERO;
+            receivedMinings[miner] = BigInteger.ZERO;
+        }
+
+        numbers[slot] = 0;
+        miningAmounts[slot] = null;
+        nextOfDepositor[slot] = freeSlot;
+        freeSlot = slot;
+        size--;
+
+        releaseAddress(depositor);
+        releaseAddress(miner);
+    }
+
+    /**
+     * Find the slot of a mortgage number
+     *
+     * @param depositNumber mortgage number
+     * @return -1 if there is no such mortgage
+     */
+    public int slotOf(long depositNumber) {
+        if (depositNumber <= 0) {
+            return NONE;
+        }
+        int mask = indexNumbers.length - 1;
+        for (int i = hash(depositNumber, mask); indexNumbers[i] != 0; i = (i + 1) & mask) {
+            if (indexNumbers[i] == depositNumber) {
+                return indexSlots[i];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Find the id of an address
+     *
+     * @param address address
+     * @return -1 if the address has no mortgage and receives the Token of no mortgage
+     */
+    public int addressIdOf(String address) {
+        int id = addressRegistry.idOf(address);
+        if (id == NONE || id >= depositCounts.length || (depositCounts[id] == 0 && miningDepositCounts[id] == 0)) {
+            return NONE;
+        }
+        return id;
+    }
+
+    public String getAddress(int addressId) {
+        return addressRegistry.getAddress(addressId);
+    }
+
+    /**
+     * Get the first mortgage slot of a mortgagor, the one of the latest height
+     *
+     * @param addressId mortgagor id
+     * @return -1 if the mortgagor has no mortgage
+     */
+    public int firstOfDepositor(int addressId) {
+        return depositorHeads[addressId];
+    }
+
+    /**
+     * Get the next mortgage slot of the same mortgagor, at the same or an earlier height
+     *
+     * @param slot mortgage slot
+     * @return -1 after the last mortgage
+     */
+    public int nextOfDepositor(int slot) {
+        return nextOfDepositor[slot];
+    }
+
+    /**
+     * Get the last mortgage slot of a mortgagor, the one of the earliest height
+     *
+     * @param addressId mortgagor id
+     * @return -1 if the mortgagor has no mortgage
+     */
+    public int lastOfDepositor(int addressId) {
+        return depositorTails[addressId];
+    }
+
+    /**
+     * Get the previous mortgage slot of the same mortgagor, at the same or a later height
+     *
+     * @param slot mortgage slot
+     * @return -1 before the first mortgage
+     */
+    public int previousOfDepositor(int slot) {
+        return previousOfDepositor[slot];
+    }
+
+    /**
+     * Get the first mortgage slot of a mining address
+     *
+     * @param addressId mining address id
+     * @return -1 if the address receives the Token of no mortgage
+     */
+    public int firstOfMiner(int addressId) {
+        return miningHeads[addressId];
+    }
+
+    /**
+     * Get the next mortgage slot of the same mining address
+     *
+     * @param slot mortgage slot
+     * @return -1 after the last mortgage
+     */
+    public int nextOfMiner(int slot) {
+        return nextOfMiner[slot];
+    }
+
+    public int getDepositCount(int addressId) {
+        return depositCounts[addressId];
+    }
+
+    public int getMiningDepositCount(int addressId) {
+        return miningDepositCounts[addressId];
+    }
+
+    /**
+     * Get the height of the latest mortgage of a mortgagor
+     *
+     * @param addressId mortgagor id with at least one mortgage
+     * @return
+     */
+    public long getLatestDepositHeight(int addressId) {
+        return heights[depositorHeads[addressId]];
+    }
+
+    /**
+     * Get the height of the earliest mortgage of a mortgagor
+     *
+     * @param addressId mortgagor id with at least one mortgage
+     * @return
+     */
+    public long getEarliestDepositHeight(int addressId) {
+        return heights[depositorTails[addressId]];
+    }
+
+    public long getDepositTotalAmount(int addressId) {
+        return depositTotalAmounts[addressId];
+    }
+
+    public BigInteger getTotalMining(int addressId) {
+        return totalMinings[addressId];
+    }
+
+    public void setTotalMining(int addressId, BigInteger totalMining) {
+        totalMinings[addressId] = totalMining;
+    }
+
+    public BigInteger getReceivedMining(int addressId) {
+        return receivedMinings[addressId];
+    }
+
+    public void setReceivedMining(int addressId, BigInteger receivedMining) {
+        receivedMinings[addressId] = receivedMining;
+    }
+
+    public long getDepositNumber(int slot) {
+        return numbers[slot];
+    }
+
+    public long getDepositHeight(int slot) {
+        return heights[slot];
+    }
+
+    public long getDepositAmount(int slot) {
+        return amounts[slot];
+    }
+
+    public int getDepositor(int slot) {
+        return depositors[slot];
+    }
+
+    public int getMiner(int slot) {
+        return miners[slot];
+    }
+
+    public int getNextStartMiningCycle(int slot) {
+        return nextStartMiningCycles[slot];
+    }
+
+    public void setNextStartMiningCycle(int slot, int nextStartMiningCycle) {
+        nextStartMiningCycles[slot] = nextStartMiningCycle;
+    }
+
+    public int getMiningCount(int slot) {
+        return miningCounts[slot];
+    }
+
+    public void setMiningCount(int slot, int miningCount) {
+        miningCounts[slot] = miningCount;
+    }
+
+    public BigInteger getMiningAmount(int slot) {
+        return miningAmounts[slot];
+    }
+
+    public void setMiningAmount(int slot, BigInteger miningAmount) {
+        miningAmounts[slot] = miningAmount;
+    }
+
+    /**
+     * Get the bucket of a mortgage in the HashMap that held the mortgage details of its mortgagor in commit 1471a21
+     * <p>
+     * That contract settled the mortgages of a mortgagor in the iteration order of the map, and the total supply it
+     * added depends on that order. The map iterates its buckets in ascending order and the mortgages of a bucket in
+     * the order they were added, which is the order of their numbers. The table length of the map is replayed from
+     * the mortgages added since the mortgagor had none: it starts at 16 and doubles when the map holds more than
+     * three quarters of it, or when a bucket would hold a ninth mortgage while it is shorter than 64. From 64 on,
+     * such a bucket became a tree whose order is not replayed.
+     *
+     * @param slot mortgage slot
+     * @return
+     */
+    public int getDetailBucket(int slot) {
+        return detailBucket(numbers[slot], detailTableLengths[depositors[slot]]);
+    }
+
+    /**
+     * Bucket of a mortgage number in a HashMap with Long keys
+     */
+    private static int detailBucket(long depositNumber, int tableLength) {
+        int h = (int) (depositNumber ^ (depositNumber >>> 32));
+        return (h ^ (h >>> 16)) & (tableLength - 1);
+    }
+
+    /**
+     * Table length of the mortgage details of a mortgagor once the mortgage in the slot is added to them
+     *
+     * @param depositor mortgagor id, its mortgage count includes the mortgage added
+     * @param slot      slot of the mortgage added
+     * @return
+     */
+    private int nextDetailTableLength(int depositor, int slot) {
+        int count = depositCounts[depositor];
+        int length = count == 1 ? INITIAL_CAPACITY : detailTableLengths[depositor];
+        if (length < 64) {
+            int bucket = detailBucket(numbers[slot], length);
+            int binCount = 0;
+            for (int other = nextOfDepositor[slot]; other != NONE; other = nextOfDepositor[other]) {
+                if (detailBucket(numbers[other], length) == bucket) {
+                    binCount++;
+                }
+            }
+            if (binCount >= 8) {
+                length *= 2;
+            }
+        }
+        if (count > length - (length >> 2)) {
+            length *= 2;
+        }
+        return length;
+    }
+
+    /**
+     * Build the mortgage detail information of a slot
+     *
+     * @param slot mortgage slot
+     * @return
+     */
+    public DepositDetailInfo toDepositDetailInfo(int slot) {
+        DepositDetailInfo detailInfo = new DepositDetailInfo();
+        detailInfo.setDepositNumber(numbers[slot]);
+        detailInfo.setDepositAmount(BigInteger.valueOf(amounts[slot]));
+        detailInfo.setDepositHeight(heights[slot]);
+        detailInfo.setMiningAddress(addressRegistry.getAddress(miners[slot]));
+        return detailInfo;
+    }
+
+    /**
+     * Build the mining detail information of a slot
+     *
+     * @param slot mortgage slot
+     * @return
+     */
+    public MiningDetailInfo toMiningDetailInfo(int slot) {
+        MiningDetailInfo detailInfo = new MiningDetailInfo(addressRegistry.getAddress(miners[slot]),
+                addressRegistry.getAddress(depositors[slot]), numbers[slot]);
+        detailInfo.setMiningAmount(miningAmounts[slot]);
+        detailInfo.setMiningCount(miningCounts[slot]);
+        detailInfo.setNextStartMiningCycle(nextStartMiningCycles[slot]);
+        return detailInfo;
+    }
+
+    /**
+     * Retain the id of an address for a mortgage, its entries start empty if it has no other mortgage
+     *
+     * @param address mortgagor or mining address
+     * @return the address id
+     */
+    private int retainAddress(String address) {
+        int id = addressRegistry.retain(address);
+        ensureAddressCapacity(addressRegistry.getAddressCount());
+        if (depositCounts[id] == 0 && miningDepositCounts[id] == 0) {
+            depositorHeads[id] = NONE;
+            depositorTails[id] = NONE;
+            miningHeads[id] = NONE;
+            depositTotalAmounts[id] = 0;
+            totalMinings[id] = BigInteger.ZERO;
+            receivedMinings[id] = BigInteger.ZERO;
+        }
+        return id;
+    }
+
+    private void releaseAddress(int addressId) {
+        if (depositCounts[addressId] == 0 && miningDepositCounts[addressId] == 0) {
+            totalMinings[addressId] = null;
+            receivedMinings[addressId] = null;
+        }
+        addressRegistry.release(addressId);
+    }
+
+    private int allocateSlot() {
+        if (freeSlot != NONE) {
+            int slot = freeSlot;
+            freeSlot = nextOfDepositor[slot];
+            return slot;
+        }
+        ensureSlotCapacity(slotCount + 1);
+        return slotCount++;
+    }
+
+    private static int hash(long depositNumber, int mask) {
+        long h = depositNumber * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void putIndex(long depositNumber, int slot) {
+        if ((size + 1) * 2 > indexNumbers.length) {
+            long[] oldNumbers = indexNumbers;
+            int[] oldSlots = indexSlots;
+            indexNumbers = new long[oldNumbers.length * 2];
+            indexSlots = new int[oldNumbers.length * 2];
+            for (int i = 0; i < oldNumbers.length; i++) {
+                if (oldNumbers[i] != 0) {
+                    insertIndex(oldNumbers[i], oldSlots[i]);
+                }
+            }
+        }
+        insertIndex(depositNumber, slot);
+    }
+
+    private void insertIndex(long depositNumber, int slot) {
+        int mask = indexNumbers.length - 1;
+        int i = hash(depositNumber, mask);
+        while (indexNumbers[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        indexNumbers[i] = depositNumber;
+        indexSlots[i] = slot;
+    }
+
+    /**
+     * Remove a mortgage number from the index; the following entries of the same probe run are moved back
+     * so every number stays reachable from its hash position
+     *
+     * @param depositNumber mortgage number
+     */
+    private void removeIndex(long depositNumber) {
+        int mask = indexNumbers.length - 1;
+        int i = hash(depositNumber, mask);
+        while (indexNumbers[i] != depositNumber) {
+            i = (i + 1) & mask;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (indexNumbers[j] == 0) {
+                break;
+            }
+            int home = hash(indexNumbers[j], mask);
+            //The entry at j can fill the gap at i if its hash position is not between i (exclusive) and j (inclusive)
+            boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                indexNumbers[i] = indexNumbers[j];
+                indexSlots[i] = indexSlots[j];
+                i = j;
+            }
+        }
+        indexNumbers[i] = 0;
+    }
+
+    private void ensureAddressCapacity(int capacity) {
+        if (capacity <= depositCounts.length) {
+            return;
+        }
+        int newCapacity = newCapacity(depositCounts.length, capacity);
+        int length = depositCounts.length;
+        depositorHeads = copyOf(depositorHeads, newCapacity, length);
+        depositorTails = copyOf(depositorTails, newCapacity, length);
+        miningHeads = copyOf(miningHeads, newCapacity, length);
+        depositCounts = copyOf(depositCounts, newCapacity, length);
+        miningDepositCounts = copyOf(miningDepositCounts, newCapacity, length);
+        depositTotalAmounts = copyOf(depositTotalAmounts, newCapacity, length);
+        detailTableLengths = copyOf(detailTableLengths, newCapacity, length);
+        totalMinings = copyOf(totalMinings, newCapacity, length);
+        receivedMinings = copyOf(receivedMinings, newCapacity, length);
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity <= numbers.length) {
+            return;
+        }
+        int newCapacity = newCapacity(numbers.length, capacity);
+        numbers = copyOf(numbers, newCapacity, slotCount);
+        heights = copyOf(heights, newCapacity, slotCount);
+        amounts = copyOf(amounts, newCapacity, slotCount);
+        depositors = copyOf(depositors, newCapacity, slotCount);
+        miners = copyOf(miners, newCapacity, slotCount);
+        nextStartMiningCycles = copyOf(nextStartMiningCycles, newCapacity, slotCount);
+        miningCounts = copyOf(miningCounts, newCapacity, slotCount);
+        miningAmounts = copyOf(miningAmounts, newCapacity, slotCount);
+        nextOfDepositor = copyOf(nextOfDepositor, newCapacity, slotCount);
+        previousOfDepositor = copyOf(previousOfDepositor, newCapacity, slotCount);
+        nextOfMiner = copyOf(nextOfMiner, newCapacity, slotCount);
+        previousOfMiner = copyOf(previousOfMiner, newCapacity, slotCount);
+    }
+
+    private static int newCapacity(int length, int capacity) {
+        int newCapacity = length + (length >> 1);
+        return newCapacity < capacity ? capacity : newCapacity;
+    }
+
+    private static int[] copyOf(int[] array, int newCapacity, int count) {
+        int[] newArray = new int[newCapacity];
+        System.arraycopy(array, 0, newArray, 0, count);
+        return newArray;
+    }
+
+    private static long[] copyOf(long[] array, int newCapacity, int count) {
+        long[] newArray = new long[newCapacity];
+        System.arraycopy(array, 0, newArray, 0, count);
+        return newArray;
+    }
+
+    private static BigInteger[] copyOf(BigInteger[] array, int newCapacity, int count) {
+        BigInteger[] newArray = new BigInteger[newCapacity];
+        System.arraycopy(array, 0, newArray, 0, count);
+        return newArray;
+    }
+
+}
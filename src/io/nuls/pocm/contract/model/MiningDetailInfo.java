@@ -1,5 +1,7 @@
 package io.nuls.pocm.contract.model;
 
+import io.nuls.pocm.contract.util.ModelWriter;
+
 import java.math.BigInteger;
 
 /**
@@ -96,8 +98,20 @@ public class MiningDetailInfo {
 
     @Override
     public String toString() {
-        return "{depositNumber:" + depositNumber + ",miningAmount:" + miningAmount.toString() + ",receiverMiningAddress:" + receiverMiningAddress
-                + ",miningCount:" + miningCount + ",nextStartMiningCycle:" + nextStartMiningCycle + ",depositorAddress:" + depositorAddress + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("depositNumber", depositNumber)
+                .field("miningAmount", miningAmount)
+                .field("receiverMiningAddress", receiverMiningAddress)
+                .field("miningCount", miningCount)
+                .field("nextStartMiningCycle", nextStartMiningCycle)
+                .field("depositorAddress", depositorAddress)
+                .endObject();
     }
 
 }
@@ -23,8 +23,10 @@
  */
 package io.nuls.pocm.contract.model;
 
+import io.nuls.pocm.contract.util.ModelWriter;
+
 import java.math.BigInteger;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static io.nuls.contract.sdk.Utils.require;
@@ -48,9 +50,9 @@ public class MiningInfo {
     private BigInteger receivedMining;
 
     /**
-     * Details of mining
+     * Details of mining, in ascending order of mortgage number
      */
-    private Map<Long, MiningDetailInfo> miningDetailInfos = new HashMap<Long, MiningDetailInfo>();
+    private Map<Long, MiningDetailInfo> miningDetailInfos = new LinkedHashMap<Long, MiningDetailInfo>();
 
     public MiningInfo() {
         this.totalMining = BigInteger.ZERO;
@@ -106,20 +108,20 @@ public class MiningInfo {
 
     @Override
     public String toString() {
-        return "{totalMining:" + totalMining.toString() + ",receivedMining:" + receivedMining.toString()
-                + ",miningDetailInfo:" + this.convertMapToString() + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
     }
 
-    private String convertMapToString() {
-        String detailinfo = "{";
-        String temp = "";
-        for (Long key : miningDetailInfos.keySet()) {
-            MiningDetailInfo detailInfo = miningDetailInfos.get(key);
-            temp = detailInfo.toString();
-            detailinfo = detailinfo + temp + ",";
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("totalMining", totalMining)
+                .field("receivedMining", receivedMining)
+                .name("miningDetailInfo").beginObject();
+        for (MiningDetailInfo detailInfo : miningDetailInfos.values()) {
+            detailInfo.writeTo(writer);
         }
-        detailinfo = detailinfo.substring(0, detailinfo.length() - 1) + "}";
-        return detailinfo;
+        writer.endObject().endObject();
     }
 
 }
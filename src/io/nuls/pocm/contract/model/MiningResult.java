@@ -0,0 +1,231 @@
+package io.nuls.pocm.contract.model;
+
+import io.nuls.pocm.contract.util.ModelWriter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewards settled by one claim: the amount of each receiving address, in the order they were settled,
+ * the mortgage addresses settled and the reward cycles settled
+ * <p>
+ * The receiving addresses are kept with their ids in the address registry of the mortgage store, which the Token
+ * ledger shares, so the rewards are merged and credited by id. The mortgages of a mortgage address mostly reward the
+ * same receiving address, so the rewards added one after the other for the same address are summed apart and only
+ * go into the receivers, and into the total, when another address comes or the result is read.
+ *
+ * @author: Long
+ * @date: 2019-06-12
+ */
+public class MiningResult {
+
+    /**
+     * Index of each receiving address id in the receivers
+     */
+    private Map<Integer, Integer> receiverIndexes = new HashMap<Integer, Integer>();
+
+    /**
+     * Id, address and reward of each receiving address, in the order they were settled
+     */
+    private int[] receiverIds = new int[4];
+
+    private String[] receiverAddresses = new String[4];
+
+    private BigInteger[] receiverAmounts = new BigInteger[4];
+
+    private int receiverCount = 0;
+
+    /**
+     * Mortgage addresses with at least one mortgage settled, in the order they were settled
+     */
+    private List<String> depositorAddresses = new ArrayList<String>();
+
+    /**
+     * Total reward
+     */
+    private BigInteger totalAmount = BigInteger.ZERO;
+
+    /**
+     * Total supply added for the rewards, see {@code MiningService#calcSupplyAmount}
+     */
+    private BigInteger supplyAmount = BigInteger.ZERO;
+
+    /**
+     * The receiving address of the last rewards added and their sum, not yet in the receivers, -1 if none
+     */
+    private int pendingId = AddressRegistry.NONE;
+
+    private String pendingAddress;
+
+    private BigInteger pendingAmount;
+
+    /**
+     * The first reward cycle settled, the earliest next mining cycle of the mortgages settled
+     */
+    private int fromCycle = Integer.MAX_VALUE;
+
+    /**
+     * The last reward cycle settled
+     */
+    private int toCycle = -1;
+
+    /**
+     * Add the reward of a mortgage
+     *
+     * @param receiverId      address id of the receiving address
+     * @param receiverAddress receiving address
+     * @param amount          reward
+     * @param startCycle      the first reward cycle of the reward
+     * @param endCycle        the last reward cycle of the reward
+     */
+    public void add(int receiverId, String receiverAddress, BigInteger amount, int startCycle, int endCycle) {
+        if (receiverId == pendingId) {
+            pendingAmount = pendingAmount.add(amount);
+        } else {
+            flush();
+            pendingId = receiverId;
+            pendingAddress = receiverAddress;
+            pendingAmount = amount;
+        }
+        if (startCycle < fromCycle) {
+            fromCycle = startCycle;
+        }
+        if (endCycle > toCycle) {
+            toCycle = endCycle;
+        }
+    }
+
+    /**
+     * Add a mortgage address whose mortgages were settled
+     *
+     * @param depositorAddress mortgage address
+     */
+    public void addDepositor(String depositorAddress) {
+        depositorAddresses.add(depositorAddress);
+    }
+
+    /**
+     * Add to the total supply added for the rewards
+     *
+     * @param amount supply amount
+     */
+    public void addSupplyAmount(BigInteger amount) {
+        supplyAmount = supplyAmount.add(amount);
+    }
+
+    /**
+     * Move the pending rewards into the receivers
+     */
+    private void flush() {
+        if (pendingId == AddressRegistry.NONE) {
+            return;
+        }
+        Integer index = receiverIndexes.get(pendingId);
+        if (index != null) {
+            receiverAmounts[index.intValue()] = receiverAmounts[index.intValue()].add(pendingAmount);
+        } else {
+            if (receiverCount == receiverIds.length) {
+                int newCapacity = receiverCount * 2;
+                int[] newReceiverIds = new int[newCapacity];
+                System.arraycopy(receiverIds, 0, newReceiverIds, 0, receiverCount);
+                receiverIds = newReceiverIds;
+                String[] newReceiverAddresses = new String[newCapacity];
+                System.arraycopy(receiverAddresses, 0, newReceiverAddresses, 0, receiverCount);
+                receiverAddresses = newReceiverAddresses;
+                BigInteger[] newReceiverAmounts = new BigInteger[newCapacity];
+                System.arraycopy(receiverAmounts, 0, newReceiverAmounts, 0, receiverCount);
+                receiverAmounts = newReceiverAmounts;
+            }
+            receiverIndexes.put(pendingId, receiverCount);
+            receiverIds[receiverCount] = pendingId;
+            receiverAddresses[receiverCount] = pendingAddress;
+            receiverAmounts[receiverCount] = pendingAmount;
+            receiverCount++;
+        }
+        totalAmount = totalAmount.add(pendingAmount);
+        pendingId = AddressRegistry.NONE;
+        pendingAddress = null;
+        pendingAmount = null;
+    }
+
+    public boolean isEmpty() {
+        return pendingId == AddressRegistry.NONE && receiverCount == 0;
+    }
+
+    /**
+     * Number of receiving addresses, the receivers are read by index below it
+     *
+     * @return
+     */
+    public int getReceiverCount() {
+        flush();
+        return receiverCount;
+    }
+
+    public int getReceiverId(int index) {
+        return receiverIds[index];
+    }
+
+    public String getReceiverAddress(int index) {
+        return receiverAddresses[index];
+    }
+
+    public BigInteger getReceiverAmount(int index) {
+        return receiverAmounts[index];
+    }
+
+    public List<String> getDepositorAddresses() {
+        return depositorAddresses;
+    }
+
+    public BigInteger getTotalAmount() {
+        flush();
+        return totalAmount;
+    }
+
+    public BigInteger getSupplyAmount() {
+        return supplyAmount;
+    }
+
+    public int getFromCycle() {
+        return fromCycle;
+    }
+
+    public int getToCycle() {
+        return toCycle;
+    }
+
+    @Override
+    public String toString() {
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Write the rewards by receiving address; the reward cycles are left out when nothing is settled
+     *
+     * @param writer
+     */
+    public void writeTo(ModelWriter writer) {
+        flush();
+        writer.beginObject()
+                .field("totalAmount", totalAmount);
+        if (!isEmpty()) {
+            writer.field("fromCycle", fromCycle)
+                    .field("toCycle", toCycle);
+        }
+        writer.name("receivers").beginList();
+        for (int i = 0; i < receiverCount; i++) {
+            writer.beginObject()
+                    .field("receiverAddress", receiverAddresses[i])
+                    .field("amount", receiverAmounts[i])
+                    .endObject();
+        }
+        writer.endList().endObject();
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.nuls.pocm.contract.model;
 
+import io.nuls.pocm.contract.util.ModelWriter;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -22,20 +24,36 @@ public class RewardCycleInfo {
     private BigDecimal currentPrice;
 
     /**
-     * Total amount of mortgage
+     * The halving round of the current price
+     */
+    private int halvingRound;
+
+    /**
+     * Total amount of mortgage (Na)
      */
-    private BigInteger depositAmount;
+    private long depositAmount;
 
     /**
      * Number of reward cycles that differ from the last statistics
      */
     private int differCycleValue;
 
-    public BigInteger getDepositAmount() {
+    /**
+     * Cumulative reward per NULS from the first reward cycle record added up to and including this one,
+     * in the smallest unit of the token precision
+     */
+    private BigInteger cumulativePrice = BigInteger.ZERO;
+
+    /**
+     * Number of records without mortgage from the first reward cycle record added up to and including this one
+     */
+    private int cumulativeZeroAmountCount;
+
+    public long getDepositAmount() {
         return depositAmount;
     }
 
-    public void setDepositAmount(BigInteger depositAmount) {
+    public void setDepositAmount(long depositAmount) {
         this.depositAmount = depositAmount;
     }
 
@@ -63,9 +81,43 @@ public class RewardCycleInfo {
         this.currentPrice = currentPrice;
     }
 
+    public int getHalvingRound() {
+        return halvingRound;
+    }
+
+    public void setHalvingRound(int halvingRound) {
+        this.halvingRound = halvingRound;
+    }
+
+    public BigInteger getCumulativePrice() {
+        return cumulativePrice;
+    }
+
+    public void setCumulativePrice(BigInteger cumulativePrice) {
+        this.cumulativePrice = cumulativePrice;
+    }
+
+    public int getCumulativeZeroAmountCount() {
+        return cumulativeZeroAmountCount;
+    }
+
+    public void setCumulativeZeroAmountCount(int cumulativeZeroAmountCount) {
+        this.cumulativeZeroAmountCount = cumulativeZeroAmountCount;
+    }
+
     @Override
     public String toString() {
-        return "{rewardingCylce:" + rewardingCylce + ",currentPrice:" + currentPrice.toString() + ",depositAmount:" + depositAmount
-                + ",differCycleValue:" + differCycleValue + "}";
+        ModelWriter writer = new ModelWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    public void writeTo(ModelWriter writer) {
+        writer.beginObject()
+                .field("rewardingCylce", rewardingCylce)
+                .field("currentPrice", currentPrice)
+                .field("depositAmount", depositAmount)
+                .field("differCycleValue", differCycleValue)
+                .endObject();
     }
 }
@@ -0,0 +1,326 @@
+package io.nuls.pocm.contract.model;
+
+import java.math.BigInteger;
+
+/**
+ * Reward cycle information store, the records are kept in the order they were added
+ * <p>
+ * The records are addressed by their position, or by their reward cycle through an index of the reward cycles kept in
+ * ascending order. A reward cycle may be added again, the index then refers to its latest record, as the queue and
+ * its index did before. Records are almost always added for the latest reward cycles, so the index is looked up and
+ * extended at its end in O(1); other reward cycles are found by binary search.
+ * <p>
+ * Each reward cycle of the index counts the mining details whose rewards were settled up to it. Leading records that
+ * are not the record of a counted reward cycle can be removed; positions are then relative to the first remaining
+ * record, and the cumulative price and zero amount count of the last removed record are kept as the base of the
+ * remaining ones.
+ *
+ * @author: Long
+ * @date: 2019-05-20
+ */
+public class RewardCycleStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Reward cycle information records, in the order they were added
+     */
+    private RewardCycleInfo[] cycleInfos = new RewardCycleInfo[INITIAL_CAPACITY];
+
+    /**
+     * Position of the first record in the array, the positions before it belong to removed records
+     */
+    private int head = 0;
+
+    /**
+     * Number of records
+     */
+    private int size = 0;
+
+    /**
+     * Number of records ever added, the position of a record in the array plus the number of removed records is
+     * its absolute position
+     */
+    private int removedCount = 0;
+
+    /**
+     * Reward cycles of the index in ascending order, with the absolute position of the latest record of each
+     */
+    private int[] indexCycles = new int[INITIAL_CAPACITY];
+
+    private int[] indexPositions = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of mining details referencing each reward cycle of the index
+     */
+    private int[] references = new int[INITIAL_CAPACITY];
+
+    private int indexSize = 0;
+
+    /**
+     * Cumulative price of the last removed record, zero if no record was removed
+     */
+    private BigInteger baseCumulativePrice = BigInteger.ZERO;
+
+    /**
+     * Cumulative number of records without mortgage of the last removed record, zero if no record was removed
+     */
+    private int baseZeroAmountCount = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the record at the specified position
+     *
+     * @param index position in the store
+     * @return
+     */
+    public RewardCycleInfo get(int index) {
+        return cycleInfos[head + index];
+    }
+
+    /**
+     * Get the record added last
+     *
+     * @return null if the store is empty
+     */
+    public RewardCycleInfo getLast() {
+        return size == 0 ? null : cycleInfos[head + size - 1];
+    }
+
+    public boolean containsCycle(int cycle) {
+        return findCycle(cycle) >= 0;
+    }
+
+    /**
+     * Get the latest record of the specified reward cycle
+     *
+     * @param cycle reward cycle
+     * @return null if there is no record of the reward cycle
+     */
+    public RewardCycleInfo getByCycle(int cycle) {
+        int index = indexOfCycle(cycle);
+        return index < 0 ? null : cycleInfos[head + index];
+    }
+
+    /**
+     * Find the position of the latest record of the specified reward cycle
+     *
+     * @param cycle reward cycle
+     * @return -1 if there is no record of the reward cycle
+     */
+    public int indexOfCycle(int cycle) {
+        int entry = findCycle(cycle);
+        return entry < 0 ? -1 : indexPositions[entry] - removedCount;
+    }
+
+    /**
+     * Get the number of reward cycles in the index; the reward cycles are read by their rank below it
+     *
+     * @return
+     */
+    public int getCycleCount() {
+        return indexSize;
+    }
+
+    /**
+     * Find the rank of the smallest reward cycle of the index that is not less than the specified one
+     *
+     * @param cycle reward cycle
+     * @return the number of reward cycles if all of them are less than the reward cycle
+     */
+    public int ceilingCycleRank(int cycle) {
+        int entry = findCycle(cycle);
+        return entry >= 0 ? entry : -entry - 1;
+    }
+
+    /**
+     * Get the latest record of the reward cycle of the specified rank in the index
+     *
+     * @param rank rank of the reward cycle, in ascending order of reward cycles
+     * @return
+     */
+    public RewardCycleInfo getByCycleRank(int rank) {
+        return cycleInfos[head + indexPositions[rank] - removedCount];
+    }
+
+    /**
+     * Add a record after the others; the index refers to it from now on for its reward cycle
+     *
+     * @param cycleInfo reward cycle information
+     * @return the position of the record
+     */
+    public int add(RewardCycleInfo cycleInfo) {
+        ensureCapacity(size + 1);
+        cycleInfos[head + size] = cycleInfo;
+        int position = removedCount + size;
+        size++;
+
+        int cycle = cycleInfo.getRewardingCylce();
+        int entry = findCycle(cycle);
+        if (entry >= 0) {
+            indexPositions[entry] = position;
+        } else {
+            entry = -entry - 1;
+            ensureIndexCapacity(indexSize + 1);
+            if (entry < indexSize) {
+                System.arraycopy(indexCycles, entry, indexCycles, entry + 1, indexSize - entry);
+                System.arraycopy(indexPositions, entry, indexPositions, entry + 1, indexSize - entry);
+                System.arraycopy(references, entry, references, entry + 1, indexSize - entry);
+            }
+            indexCycles[entry] = cycle;
+            indexPositions[entry] = position;
+            references[entry] = 0;
+            indexSize++;
+        }
+        return size - 1;
+    }
+
+    /**
+     * Count one more mining detail referencing the reward cycle
+     *
+     * @param cycle reward cycle in the index
+     */
+    public void addReference(int cycle) {
+        references[findCycle(cycle)]++;
+    }
+
+    /**
+     * Count one mining detail less referencing the reward cycle
+     *
+     * @param cycle reward cycle in the index
+     */
+    public void removeReference(int cycle) {
+        references[findCycle(cycle)]--;
+    }
+
+    /**
+     * Check whether the record at the specified position is the latest record of a reward cycle referenced by
+     * mining details
+     *
+     * @param index position in the store
+     * @return
+     */
+    public boolean isReferenced(int index) {
+        int entry = findCycle(cycleInfos[head + index].getRewardingCylce());
+        return entry >= 0 && indexPositions[entry] == removedCount + index && references[entry] > 0;
+    }
+
+    /**
+     * Get the cumulative price of the last removed record, the cumulative prices of the records start from it
+     *
+     * @return zero if no record was removed
+     */
+    public BigInteger getBaseCumulativePrice() {
+        return baseCumulativePrice;
+    }
+
+    /**
+     * Get the cumulative number of records without mortgage of the last removed record
+     *
+     * @return zero if no record was removed
+     */
+    public int getBaseZeroAmountCount() {
+        return baseZeroAmountCount;
+    }
+
+    /**
+     * Remove the first records of the store, and the reward cycles of the index whose latest record is removed
+     *
+     * @param count number of records to remove, less than the size of the store
+     */
+    public void removeFirst(int count) {
+        if (count <= 0) {
+            return;
+        }
+        baseCumulativePrice = cycleInfos[head + count - 1].getCumulativePrice();
+        baseZeroAmountCount = cycleInfos[head + count - 1].getCumulativeZeroAmountCount();
+        for (int i = head; i < head + count; i++) {
+            cycleInfos[i] = null;
+        }
+        head += count;
+        size -= count;
+        removedCount += count;
+
+        int kept = 0;
+        for (int entry = 0; entry < indexSize; entry++) {
+            if (indexPositions[entry] >= removedCount) {
+                indexCycles[kept] = indexCycles[entry];
+                indexPositions[kept] = indexPositions[entry];
+                references[kept] = references[entry];
+                kept++;
+            }
+        }
+        indexSize = kept;
+    }
+
+    /**
+     * Find a reward cycle in the index, the latest reward cycles first
+     *
+     * @param cycle reward cycle
+     * @return the rank of the reward cycle, or -(insertion rank) - 1 if it is not in the index
+     */
+    private int findCycle(int cycle) {
+        if (indexSize == 0 || indexCycles[indexSize - 1] < cycle) {
+            return -indexSize - 1;
+        }
+        if (indexCycles[indexSize - 1] == cycle) {
+            return indexSize - 1;
+        }
+        int low = 0;
+        int high = indexSize - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (indexCycles[mid] < cycle) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return indexCycles[low] == cycle ? low : -low - 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (head + capacity <= cycleInfos.length) {
+            return;
+        }
+        int newCapacity = cycleInfos.length;
+        if (capacity > newCapacity - (newCapacity >> 2)) {
+            //Less than a quarter of the array would be left free after moving the records to the front, so grow it
+            newCapacity = cycleInfos.length + (cycleInfos.length >> 1);
+            if (newCapacity < capacity) {
+                newCapacity = capacity;
+            }
+        }
+        RewardCycleInfo[] newCycleInfos = new RewardCycleInfo[newCapacity];
+        System.arraycopy(cycleInfos, head, newCycleInfos, 0, size);
+        cycleInfos = newCycleInfos;
+        head = 0;
+    }
+
+    private void ensureIndexCapacity(int capacity) {
+        if (capacity <= indexCycles.length) {
+            return;
+        }
+        int newCapacity = indexCycles.length + (indexCycles.length >> 1);
+        if (newCapacity < capacity) {
+            newCapacity = capacity;
+        }
+        int[] newIndexCycles = new int[newCapacity];
+        int[] newIndexPositions = new int[newCapacity];
+        int[] newReferences = new int[newCapacity];
+        System.arraycopy(indexCycles, 0, newIndexCycles, 0, indexSize);
+        System.arraycopy(indexPositions, 0, newIndexPositions, 0, indexSize);
+        System.arraycopy(references, 0, newReferences, 0, indexSize);
+        indexCycles = newIndexCycles;
+        indexPositions = newIndexPositions;
+        references = newReferences;
+    }
+
+}
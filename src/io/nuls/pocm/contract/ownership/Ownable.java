@@ -66,7 +66,7 @@ public class Ownable {
     /**
      * Transfer of Contract Ownership Event
      */
-    class OwnershipTransferredEvent implements Event {
+    public static class OwnershipTransferredEvent implements Event {
 
         /**
          * Previous owners
@@ -138,7 +138,7 @@ public class Ownable {
     /**
      * 放弃拥有者
      */
-    class OwnershipRenouncedEvent implements Event {
+    public static class OwnershipRenouncedEvent implements Event {
 
         // 先前拥有者
         private Address previousOwner;
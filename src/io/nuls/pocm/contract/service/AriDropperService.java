@@ -1,9 +1,12 @@
 package io.nuls.pocm.contract.service;
 
 import io.nuls.pocm.contract.model.AirdropperInfo;
+import io.nuls.pocm.contract.util.ModelWriter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author: Long
@@ -17,12 +20,23 @@ public class AriDropperService {
     private List<AirdropperInfo> ariDropperInfos = new ArrayList<AirdropperInfo>();
 
     /**
-     * Adding Airdrop Records
+     * Airdrop records by receiving address, each address has one record
+     */
+    private Map<String, AirdropperInfo> ariDropperInfoMap = new HashMap<String, AirdropperInfo>();
+
+    /**
+     * Adding Airdrop Records, the quantity of an address that already has a record is added to that record
      *
      * @param info
      */
     public void addAriDropperInfo(AirdropperInfo info) {
+        AirdropperInfo existing = ariDropperInfoMap.get(info.getReceiverAddress());
+        if (existing != null) {
+            existing.setAirdropperAmount(existing.getAirdropperAmount().add(info.getAirdropperAmount()));
+            return;
+        }
         ariDropperInfos.add(info);
+        ariDropperInfoMap.put(info.getReceiverAddress(), info);
     }
 
     /**
@@ -34,4 +48,42 @@ public class AriDropperService {
         return ariDropperInfos;
     }
 
+    /**
+     * Query the airdrop record of a receiving address
+     *
+     * @param receiverAddress receiving address
+     * @return null if the address received no airdrop
+     */
+    public AirdropperInfo getAriDropperInfo(String receiverAddress) {
+        return ariDropperInfoMap.get(receiverAddress);
+    }
+
+    public int getAriDropperInfoCount() {
+        return ariDropperInfos.size();
+    }
+
+    /**
+     * Convert a page of airdrop records to a string
+     *
+     * @param start position of the first record
+     * @param limit the maximum number of records
+     * @return the records, whether more records follow and the position of the next one, -1 if none
+     */
+    public String ariDropperInfoListToString(int start, int limit) {
+        int size = ariDropperInfos.size();
+        int index = start < 0 ? 0 : (start > size ? size : start);
+        int pageEnd = size - index > limit ? index + limit : size;
+        ModelWriter writer = new ModelWriter();
+        writer.beginObject().name("airdropperInfos").beginList();
+        for (int i = index; i < pageEnd; i++) {
+            ariDropperInfos.get(i).writeTo(writer);
+        }
+        boolean hasMore = pageEnd < size;
+        writer.endList()
+                .field("hasMore", hasMore)
+                .field("nextIndex", hasMore ? pageEnd : -1)
+                .endObject();
+        return writer.toString();
+    }
+
 }
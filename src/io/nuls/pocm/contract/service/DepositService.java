@@ -1,14 +1,13 @@
 package io.nuls.pocm.contract.service;
 
-import io.nuls.contract.sdk.Block;
-import io.nuls.pocm.contract.model.DepositDetailInfo;
 import io.nuls.pocm.contract.model.DepositInfo;
+import io.nuls.pocm.contract.model.DepositStore;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
 
 import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.pocm.contract.util.PocmUtil.addNa;
+import static io.nuls.pocm.contract.util.PocmUtil.toLongNa;
 
 /**
  * @author: Long
@@ -24,7 +23,7 @@ public class DepositService {
     /**
      * Number of minimum mortgage Na (100 million Na equals 1 NULS)
      */
-    private BigInteger minimumDeposit;
+    private long minimumDeposit;
 
     /**
      * the maximum number of mortgage addresses
@@ -32,9 +31,9 @@ public class DepositService {
     private int maximumDepositAddressCount;
 
     /**
-     * User Mortgage Information (key is the mortgagor's address)
+     * Mortgages and their mining details, shared with the mining service
      */
-    private Map<String, DepositInfo> depositUsers = new HashMap<String, DepositInfo>();
+    private DepositStore depositStore;
 
 
     /**
@@ -43,92 +42,230 @@ public class DepositService {
     private int totalDepositAddressCount = 0;
 
     /**
-     * Total Mortgage Amount
+     * Total Mortgage Amount (Na), added up with overflow checks, so any sum of mortgages fits in a long too
      */
-    private BigInteger totalDeposit = BigInteger.ZERO;
+    private long totalDeposit = 0;
 
 
-    public DepositService(int minimumLocked, BigInteger minimumDeposit, int maximumDepositAddressCount) {
+    public DepositService(int minimumLocked, BigInteger minimumDeposit, int maximumDepositAddressCount, DepositStore depositStore) {
         this.minimumLocked = minimumLocked;
-        this.minimumDeposit = minimumDeposit;
+        this.minimumDeposit = toLongNa(minimumDeposit);
         this.maximumDepositAddressCount = maximumDepositAddressCount;
+        this.depositStore = depositStore;
     }
 
-    public Map<String, DepositInfo> getDeposit() {
-        return depositUsers;
+    /**
+     * Build the mortgage information of a user from the mortgage store
+     *
+     * @param userAddress Mortgage address
+     * @return null if the user has no mortgage
+     */
+    public DepositInfo getDepositInfo(String userAddress) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        if (depositor < 0 || depositStore.getDepositCount(depositor) == 0) {
+            return null;
+        }
+        DepositInfo info = new DepositInfo();
+        info.setDepositorAddress(userAddress);
+        info.setDepositTotalAmount(depositStore.getDepositTotalAmount(depositor));
+        info.setDepositCount(depositStore.getDepositCount(depositor));
+        info.setLatestDepositHeight(depositStore.getLatestDepositHeight(depositor));
+        info.setEarliestUnlockHeight(depositStore.getEarliestDepositHeight(depositor) + minimumLocked + 1);
+        //The slots of a mortgagor are linked from the latest mortgage
+        int[] slots = getDepositSlots(userAddress);
+        for (int i = slots.length - 1; i >= 0; i--) {
+            info.getDepositDetailInfos().put(depositStore.getDepositNumber(slots[i]), depositStore.toDepositDetailInfo(slots[i]));
+        }
+        return info;
     }
 
-    public DepositInfo getDepositInfo(String userAddress) {
-        return depositUsers.get(userAddress);
+    /**
+     * Check whether the user has a mortgage
+     *
+     * @param userAddress Mortgage address
+     * @return
+     */
+    public boolean hasDeposit(String userAddress) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        return depositor >= 0 && depositStore.getDepositCount(depositor) > 0;
+    }
+
+    /**
+     * Get the total mortgage amount of a user
+     *
+     * @param userAddress Mortgage address
+     * @return 0 if the user has no mortgage
+     */
+    public long getDepositTotalAmount(String userAddress) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        return depositor < 0 ? 0 : depositStore.getDepositTotalAmount(depositor);
+    }
+
+    /**
+     * Get the number of mortgages of a user
+     *
+     * @param userAddress Mortgage address
+     * @return 0 if the user has no mortgage
+     */
+    public int getDepositCount(String userAddress) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        return depositor < 0 ? 0 : depositStore.getDepositCount(depositor);
+    }
+
+    /**
+     * Get the slots of all the mortgages of a user
+     *
+     * @param userAddress Mortgage address
+     * @return empty if the user has no mortgage
+     */
+    public int[] getDepositSlots(String userAddress) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        if (depositor < 0) {
+            return new int[0];
+        }
+        int[] slots = new int[depositStore.getDepositCount(depositor)];
+        int i = 0;
+        for (int slot = depositStore.firstOfDepositor(depositor); slot >= 0; slot = depositStore.nextOfDepositor(slot)) {
+            slots[i++] = slot;
+        }
+        return slots;
+    }
+
+    /**
+     * Find the slot of a mortgage of the user based on mortgage number
+     *
+     * @param userAddress   Mortgage address
+     * @param depositNumber Mortgage number
+     * @return
+     */
+    public int getDepositSlot(String userAddress, long depositNumber) {
+        int slot = depositStore.slotOf(depositNumber);
+        require(slot >= 0 && depositStore.getAddress(depositStore.getDepositor(slot)).equals(userAddress),
+                "Mortgage details of this mortgage number were not found");
+        return slot;
+    }
+
+    /**
+     * Get the mortgage number of a slot
+     *
+     * @param slot Mortgage slot
+     * @return
+     */
+    public long getDepositNumber(int slot) {
+        return depositStore.getDepositNumber(slot);
     }
 
     /**
-     * Adding Mortgage Information to Mortgage Queue (depositUsers)
+     * Get the mortgage amount of a slot
+     *
+     * @param slot Mortgage slot
+     * @return
+     */
+    public long getDepositAmount(int slot) {
+        return depositStore.getDepositAmount(slot);
+    }
+
+    /**
+     * Adding Mortgage Information to Mortgage Queue
      *
      * @param depositAddress Mortgage address
      * @param miningAddress  Receiving Token Address
-     * @param depositValue   Amount of mortgage
+     * @param depositValue   Amount of mortgage (Na)
      * @param currentHeight  Current height
      * @param depositNumber  Mortgage number
-     * @return Mortgage information
-     */
-    public DepositInfo addDeposit(String depositAddress, String miningAddress, BigInteger depositValue, long currentHeight, long depositNumber) {
-        require(depositValue.compareTo(minimumDeposit) >= 0, "未达到最低抵押值:" + minimumDeposit);
-        DepositInfo info = depositUsers.get(depositAddress);
-        if (info == null) {
-            if (maximumDepositAddressCount > 0) {
-                require(totalDepositAddressCount + 1 <= maximumDepositAddressCount, "超过最大抵押地址数量");
-            }
-            info = new DepositInfo();
-            totalDepositAddressCount += 1;
+     */
+    public void addDeposit(String depositAddress, String miningAddress, long depositValue, long currentHeight, long depositNumber) {
+        require(depositValue >= minimumDeposit, "未达到最低抵押值:" + minimumDeposit);
+        checkDepositAddressCount(depositAddress);
+        addDepositDetailInfo(depositAddress, miningAddress, depositValue, currentHeight, depositNumber);
+    }
+
+    /**
+     * Adding several mortgages of one mortgage address, numbered consecutively
+     *
+     * @param depositAddress     Mortgage address
+     * @param miningAddresses    Receiving Token Address of each mortgage
+     * @param depositValues      Amount of each mortgage (Na)
+     * @param currentHeight      Current height
+     * @param firstDepositNumber Mortgage number of the first mortgage
+     */
+    public void addDeposits(String depositAddress, String[] miningAddresses, long[] depositValues, long currentHeight, long firstDepositNumber) {
+        for (int i = 0; i < depositValues.length; i++) {
+            require(depositValues[i] >= minimumDeposit, "未达到最低抵押值:" + minimumDeposit);
+        }
+        checkDepositAddressCount(depositAddress);
+        for (int i = 0; i < miningAddresses.length; i++) {
+            addDepositDetailInfo(depositAddress, miningAddresses[i], depositValues[i], currentHeight, firstDepositNumber + i);
         }
-        DepositDetailInfo detailInfo = new DepositDetailInfo();
-        detailInfo.setDepositAmount(depositValue);
-        detailInfo.setDepositHeight(currentHeight);
-        detailInfo.setMiningAddress(miningAddress);
-        detailInfo.setDepositNumber(depositNumber);
-        info.setDepositorAddress(depositAddress);
-        info.getDepositDetailInfos().put(depositNumber, detailInfo);
-        info.setDepositTotalAmount(info.getDepositTotalAmount().add(depositValue));
-        info.setDepositCount(info.getDepositCount() + 1);
-        depositUsers.put(depositAddress, info);
-        totalDeposit = totalDeposit.add(depositValue);
-        return info;
     }
 
-    public void removeDeposit(String userAddress) {
-        totalDepositAddressCount -= 1;
-        depositUsers.remove(userAddress);
+    private void checkDepositAddressCount(String depositAddress) {
+        if (maximumDepositAddressCount > 0 && !hasDeposit(depositAddress)) {
+            require(totalDepositAddressCount + 1 <= maximumDepositAddressCount, "超过最大抵押地址数量");
+        }
+    }
 
+    private void addDepositDetailInfo(String depositAddress, String miningAddress, long depositValue, long currentHeight, long depositNumber) {
+        int slot = depositStore.add(depositNumber, depositAddress, miningAddress, depositValue, currentHeight);
+        if (depositStore.getDepositCount(depositStore.getDepositor(slot)) == 1) {
+            totalDepositAddressCount += 1;
+        }
+        totalDeposit = addNa(totalDeposit, depositValue);
     }
 
     /**
-     * Check if all mortgages of the user are locked
+     * Remove a mortgage from the store; the user leaves the mortgage address count with the last one.
+     * The total mortgage amount is updated by the caller.
      *
-     * @param depositInfo Mortgage information
-     * @return -1:locking
+     * @param slot Mortgage slot
      */
-    public long checkAllDepositLocked(DepositInfo depositInfo) {
-        long result;
-        Map<Long, DepositDetailInfo> infos = depositInfo.getDepositDetailInfos();
-        for (Long key : infos.keySet()) {
-            result = checkDepositLocked(infos.get(key));
-            if (result != -1) {
-                return result;
-            }
+    public void removeDeposit(int slot) {
+        int depositor = depositStore.getDepositor(slot);
+        boolean last = depositStore.getDepositCount(depositor) == 1;
+        depositStore.remove(slot);
+        if (last) {
+            totalDepositAddressCount -= 1;
         }
-        return -1;
     }
 
     /**
-     * Check if the mortgage is locked
+     * Get the slots of the unlocked mortgages of a user, from the earliest one
      *
-     * @param detailInfo Mortgage detail information
-     * @return -1:locking
+     * @param userAddress   Mortgage address
+     * @param currentHeight current height
+     * @return empty if no mortgage of the user is unlocked
      */
-    public long checkDepositLocked(DepositDetailInfo detailInfo) {
-        long currentHeight = Block.number();
-        long unLockedHeight = detailInfo.getDepositHeight() + minimumLocked + 1;
+    public int[] getUnlockedDepositSlots(String userAddress, long currentHeight) {
+        int depositor = depositStore.addressIdOf(userAddress);
+        if (depositor < 0) {
+            return new int[0];
+        }
+        //The mortgages are linked by height, so the unlocked ones are at the end of the list
+        long lockedAfterHeight = currentHeight - minimumLocked - 1;
+        int count = 0;
+        int slot = depositStore.lastOfDepositor(depositor);
+        while (slot >= 0 && depositStore.getDepositHeight(slot) <= lockedAfterHeight) {
+            count++;
+            slot = depositStore.previousOfDepositor(slot);
+        }
+        int[] slots = new int[count];
+        slot = depositStore.lastOfDepositor(depositor);
+        for (int i = 0; i < count; i++) {
+            slots[i] = slot;
+            slot = depositStore.previousOfDepositor(slot);
+        }
+        return slots;
+    }
+
+    /**
+     * Check if all mortgages of the user are unlocked, based on the latest mortgage
+     *
+     * @param userAddress   Mortgage address with at least one mortgage
+     * @param currentHeight current height
+     * @return -1:unlocked, otherwise the height at which all the mortgages are unlocked
+     */
+    public long checkAllDepositLocked(String userAddress, long currentHeight) {
+        long unLockedHeight = depositStore.getLatestDepositHeight(depositStore.addressIdOf(userAddress)) + minimumLocked + 1;
         if (unLockedHeight > currentHeight) {
             // locking
             return unLockedHeight;
@@ -138,14 +275,20 @@ public class DepositService {
     }
 
     /**
-     * clear detailed mortgage information from mortgage information
+     * Check if the mortgage is locked
      *
-     * @param info Mortgage information
+     * @param slot          Mortgage slot
+     * @param currentHeight current height
+     * @return -1:locking
      */
-    public void clearDepositDetailInfos(DepositInfo info) {
-        info.getDepositDetailInfos().clear();
-        info.setDepositCount(0);
-        info.setDepositTotalAmount(BigInteger.ZERO);
+    public long checkDepositLocked(int slot, long currentHeight) {
+        long unLockedHeight = depositStore.getDepositHeight(slot) + minimumLocked + 1;
+        if (unLockedHeight > currentHeight) {
+            // locking
+            return unLockedHeight;
+        }
+        //unlocked
+        return -1;
     }
 
 
@@ -154,7 +297,7 @@ public class DepositService {
     }
 
 
-    public BigInteger getMinimumDeposit() {
+    public long getMinimumDeposit() {
         return minimumDeposit;
     }
 
@@ -162,11 +305,11 @@ public class DepositService {
         return maximumDepositAddressCount;
     }
 
-    public BigInteger getTotalDeposit() {
+    public long getTotalDeposit() {
         return totalDeposit;
     }
 
-    public void setTotalDeposit(BigInteger totalDeposit) {
+    public void setTotalDeposit(long totalDeposit) {
         this.totalDeposit = totalDeposit;
     }
 
@@ -0,0 +1,105 @@
+package io.nuls.pocm.contract.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Reward halving price calculation
+ * <p>
+ * The price of a halving round is the initial price halved as many times as the round, each time rounded down to the
+ * precision, which is the initial price divided by 2 to the power of the round, rounded down to the precision.
+ * Halving a price rounded down again and again gives the same result, so the price of any round is obtained
+ * with one shift of the initial price in the smallest unit. The price of the round of the latest reward cycle record
+ * is kept, it is the one most claims read.
+ *
+ * @author: Long
+ * @date: 2019-05-20
+ */
+public class HalvingService {
+
+    /**
+     * precision
+     */
+    private int decimals;
+
+    /**
+     * The initial price
+     */
+    private BigDecimal initialPrice;
+
+    /**
+     * The initial price in the smallest unit of the precision
+     */
+    private BigInteger initialPriceValue;
+
+    /**
+     * The halving round of the cached price
+     */
+    private int cachedHalvingRound;
+
+    /**
+     * The price of the cached halving round
+     */
+    private BigDecimal cachedHalvingPrice;
+
+    /**
+     * The price of the cached halving round in the smallest unit of the precision
+     */
+    private BigInteger cachedHalvingPriceValue;
+
+    public HalvingService(int decimals, BigDecimal initialPrice) {
+        this.decimals = decimals;
+        this.initialPrice = initialPrice;
+        this.initialPriceValue = initialPrice.movePointRight(decimals).toBigInteger();
+        this.cachedHalvingRound = 0;
+        this.cachedHalvingPrice = initialPrice;
+        this.cachedHalvingPriceValue = initialPriceValue;
+    }
+
+    /**
+     * Get the price of the halving round; the price of the cached round is not calculated again
+     *
+     * @param halvingRound halving round
+     * @return
+     */
+    public BigDecimal getHalvingPrice(int halvingRound) {
+        if (halvingRound == 0) {
+            return initialPrice;
+        }
+        if (halvingRound == cachedHalvingRound) {
+            return cachedHalvingPrice;
+        }
+        return new BigDecimal(initialPriceValue.shiftRight(halvingRound), decimals);
+    }
+
+    /**
+     * Get the price of the halving round in the smallest unit of the precision
+     *
+     * @param halvingRound halving round
+     * @return
+     */
+    public BigInteger getHalvingPriceValue(int halvingRound) {
+        if (halvingRound == 0) {
+            return initialPriceValue;
+        }
+        if (halvingRound == cachedHalvingRound) {
+            return cachedHalvingPriceValue;
+        }
+        return initialPriceValue.shiftRight(halvingRound);
+    }
+
+    /**
+     * Cache the price of a halving round. Only the calls that change the reward cycle queue cache a round,
+     * so reading prices never changes the state of the contract.
+     *
+     * @param halvingRound halving round
+     */
+    public void cacheHalvingPrice(int halvingRound) {
+        if (halvingRound != cachedHalvingRound) {
+            cachedHalvingPriceValue = initialPriceValue.shiftRight(halvingRound);
+            cachedHalvingPrice = new BigDecimal(cachedHalvingPriceValue, decimals);
+            cachedHalvingRound = halvingRound;
+        }
+    }
+
+}
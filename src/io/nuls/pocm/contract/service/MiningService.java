@@ -1,15 +1,16 @@
 package io.nuls.pocm.contract.service;
 
-import io.nuls.contract.sdk.Block;
 import io.nuls.pocm.contract.model.*;
-import io.nuls.pocm.contract.util.PocmUtil;
+import io.nuls.pocm.contract.util.ModelWriter;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
 
 import static io.nuls.contract.sdk.Utils.require;
-import static io.nuls.pocm.contract.util.PocmUtil.toNuls;
+import static io.nuls.pocm.contract.util.PocmUtil.ONE_NULS;
+import static io.nuls.pocm.contract.util.PocmUtil.addNa;
+import static io.nuls.pocm.contract.util.PocmUtil.subtractNa;
 
 /**
  * @author: Long
@@ -43,19 +44,19 @@ public class MiningService {
     private int decimals;
 
     /**
-     * User mining information (key is the Token address for receiving mining)
+     * Mortgages and their mining details, shared with the mortgage service
      */
-    private Map<String, MiningInfo> mingUsers = new HashMap<String, MiningInfo>();
+    private DepositStore depositStore;
 
     /**
-     * Index of mortgage amount for each incentive cycle. Key: Reward Cycle, V: Corresponding Number in Reward Cycle Information Queue
+     * Reward cycle information, kept in the order the records were added
      */
-    private Map<Integer, Integer> totalDepositIndex = new LinkedHashMap<Integer, Integer>();
+    private RewardCycleStore rewardCycleStore = new RewardCycleStore();
 
     /**
-     * Reward cycle information list, and the combined use of index table
+     * Reward halving price calculation
      */
-    private List<RewardCycleInfo> totalDepositList = new LinkedList<RewardCycleInfo>();
+    private HalvingService halvingService;
 
     /**
      * The next half the height of reward
@@ -63,23 +64,33 @@ public class MiningService {
     private long nextRewardHalvingHeight;
 
     /**
-     * The last calculation of the reward cycle
+     * The number of times the price of new reward cycle records has been halved
      */
-    private int lastCalcCycle = 0;
+    private int currentHalvingRound;
 
     /**
-     * The current price, the current NULS award cycle all mortgage number XX token share
+     * The current price last calculated, null before the first one
      */
-    private BigDecimal currentPrice;
+    private BigDecimal cachedCurrentPrice;
 
-    public MiningService(long createHeight, int awardingCycle, int rewardHalvingCycle, int decimals, BigDecimal initialPrice) {
+    /**
+     * The halving round and the mortgage amount of the latest record the cached price was calculated from
+     */
+    private int cachedPriceHalvingRound;
+
+    private long cachedPriceDepositAmount;
+
+    public MiningService(long createHeight, int awardingCycle, int rewardHalvingCycle, int decimals, BigDecimal initialPrice,
+                         DepositStore depositStore) {
         this.createHeight = createHeight;
         this.awardingCycle = awardingCycle;
         this.rewardHalvingCycle = rewardHalvingCycle;
         this.decimals = decimals;
         this.initialPrice = initialPrice;
-        this.nextRewardHalvingHeight = this.createHeight + this.rewardHalvingCycle;
-        this.currentPrice = initialPrice;
+        this.halvingService = new HalvingService(decimals, initialPrice);
+        this.depositStore = depositStore;
+        this.nextRewardHalvingHeight = createHeight + rewardHalvingCycle;
+        this.currentHalvingRound = 0;
     }
 
     public BigDecimal getInitialPrice() {
@@ -91,41 +102,89 @@ public class MiningService {
     }
 
     /**
-     * Get the current price
+     * Get the current price, the price of one NULS of the latest reward cycle record, without changing any state
+     * <p>
+     * The records bringing the queue up to the current reward cycle are only calculated, and the price is the one of
+     * the last of them, or of the latest record if none is needed. When that record has no mortgage the price is the
+     * initial price. The price only changes with the halving round and the mortgage amount of that record, so the
+     * price last calculated when the queue changed is returned as long as both are the same.
      *
      * @param currentHeight current height
      * @return
      */
     public BigDecimal getCurrentPrice(long currentHeight) {
-        BigDecimal price = this.initialPrice;
-
-        //Is there a record in the reward cycle queue?
-        if (!this.totalDepositList.isEmpty()) {
-            int currentCycle = this.calcRewardCycle(currentHeight);
-            //Check whether the current reward cycle is in the index
-            if (!this.totalDepositIndex.containsKey(currentCycle)) {
-                //If not, a reward record for the current reward cycle is generated
-                moveLastDepositToCurrentCycle(currentHeight);
-            }
-            //Get the latest reward cycle record
-            RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(this.totalDepositList.size() - 1);
-            BigInteger intAmount = cycleInfoTmp.getDepositAmount();
-            if (intAmount.compareTo(BigInteger.ZERO) != 0) {
-                String amount = toNuls(intAmount).toString();
-                BigDecimal bigAmount = new BigDecimal(amount);
-                price = cycleInfoTmp.getCurrentPrice().divide(bigAmount, decimals, BigDecimal.ROUND_DOWN);
-            }
-        } else {
-            //If there is no record of the reward cycle, the half-cycle price is calculated.
+        //Without any record the price is halved once per halving period passed before the current height
+        if (this.rewardCycleStore.isEmpty()) {
             if (this.rewardHalvingCycle > 0 && this.nextRewardHalvingHeight <= currentHeight) {
-                price = calcHalvingPrice(currentHeight);
+                return this.halvingService.getHalvingPrice((int) ((currentHeight - this.createHeight - 1) / this.rewardHalvingCycle));
             }
+            return initialPrice;
+        }
+        int currentCycle = this.calcRewardCycle(currentHeight);
+        List<RewardCycleInfo> cycleInfos = this.createCurrentCycleInfos(currentHeight, currentCycle);
+        RewardCycleInfo lastCycleInfo = cycleInfos.isEmpty() ? this.rewardCycleStore.getLast() : cycleInfos.get(cycleInfos.size() - 1);
+        long intAmount = lastCycleInfo.getDepositAmount();
+        if (intAmount == 0) {
+            return initialPrice;
+        }
+        int halvingRound = lastCycleInfo.getHalvingRound();
+        if (cachedCurrentPrice != null && cachedPriceHalvingRound == halvingRound && cachedPriceDepositAmount == intAmount) {
+            return cachedCurrentPrice;
+        }
+        return this.calcCurrentPrice(halvingRound, intAmount);
+    }
+
+    /**
+     * Bring the cached current price up to date with the latest reward cycle record, after the queue changed
+     */
+    private void refreshCurrentPrice() {
+        RewardCycleInfo lastCycleInfo = this.rewardCycleStore.getLast();
+        if (lastCycleInfo == null || lastCycleInfo.getDepositAmount() == 0) {
+            return;
+        }
+        long intAmount = lastCycleInfo.getDepositAmount();
+        int halvingRound = lastCycleInfo.getHalvingRound();
+        if (cachedCurrentPrice != null && cachedPriceHalvingRound == halvingRound && cachedPriceDepositAmount == intAmount) {
+            return;
         }
-        return price;
+        cachedCurrentPrice = this.calcCurrentPrice(halvingRound, intAmount);
+        cachedPriceHalvingRound = halvingRound;
+        cachedPriceDepositAmount = intAmount;
+    }
+
+    private BigDecimal calcCurrentPrice(int halvingRound, long intAmount) {
+        BigInteger priceValue = this.halvingService.getHalvingPriceValue(halvingRound);
+        return new BigDecimal(priceValue.multiply(ONE_NULS).divide(BigInteger.valueOf(intAmount)), decimals);
     }
 
-    public List<RewardCycleInfo> getTotalDepositList() {
-        return this.totalDepositList;
+    public RewardCycleStore getRewardCycleStore() {
+        return this.rewardCycleStore;
+    }
+
+    /**
+     * Convert the reward cycle records between two reward cycles to a string, at most one page of them; a reward cycle
+     * added again is listed with its latest record, in ascending order of reward cycle
+     *
+     * @param fromCycle the first reward cycle, inclusive
+     * @param toCycle   the last reward cycle, inclusive
+     * @param limit     the maximum number of records
+     * @return the records, whether more records of the range follow and the reward cycle of the next one, -1 if none
+     */
+    public String rewardCycleListToString(int fromCycle, int toCycle, int limit) {
+        int rank = rewardCycleStore.ceilingCycleRank(fromCycle);
+        int end = toCycle == Integer.MAX_VALUE ? rewardCycleStore.getCycleCount() : rewardCycleStore.ceilingCycleRank(toCycle + 1);
+        int pageEnd = end - rank > limit ? rank + limit : end;
+        ModelWriter writer = new ModelWriter();
+        writer.beginObject().name("rewardCycleInfos").beginList();
+        for (int i = rank; i < pageEnd; i++) {
+            rewardCycleStore.getByCycleRank(i).writeTo(writer);
+        }
+        boolean hasMore = pageEnd < end;
+        writer.endList()
+                .field("hasMore", hasMore)
+                .field("nextCycle", hasMore ? rewardCycleStore.getByCycleRank(pageEnd).getRewardingCylce() : -1)
+                .endObject();
+        return writer.toString();
     }
 
     public int getAwardingCycle() {
@@ -136,346 +195,793 @@ public class MiningService {
         return rewardHalvingCycle;
     }
 
-    public Map<String, MiningInfo> getMingUsers() {
-        return mingUsers;
-    }
-
     /**
-     * Initialization of mining information
+     * Initialization of mining information of a mortgage added to the mortgage store
      *
-     * @param currentHeight    current height
-     * @param miningAddress    mining address
-     * @param depositorAddress depositor address
-     * @param depositNumber    deposit number
+     * @param currentHeight current height
+     * @param depositNumber deposit number
      */
-    public void initMingInfo(long currentHeight, String miningAddress, String depositorAddress, long depositNumber) {
-        MiningDetailInfo mingDetailInfo = new MiningDetailInfo(miningAddress, depositorAddress, depositNumber);
+    public void initMingInfo(long currentHeight, long depositNumber) {
+        int slot = depositStore.slotOf(depositNumber);
         int currentRewardCycle = this.calcRewardCycle(currentHeight);
-        mingDetailInfo.setNextStartMiningCycle(currentRewardCycle + 2);
-        MiningInfo mingInfo = mingUsers.get(miningAddress);
-        //The address for the first time in mining
-        if (mingInfo == null) {
-            mingInfo = new MiningInfo();
-            mingInfo.getMiningDetailInfos().put(depositNumber, mingDetailInfo);
-            mingUsers.put(miningAddress, mingInfo);
-        } else {
-            mingInfo.getMiningDetailInfos().put(depositNumber, mingDetailInfo);
-        }
+        depositStore.setNextStartMiningCycle(slot, currentRewardCycle + 2);
+        this.addCycleReference(slot);
     }
 
+    /**
+     * Build the mining information of a mining address from the mortgage store
+     *
+     * @param userAddress mining address
+     * @return null if the address receives the Token of no mortgage
+     */
     public MiningInfo getMiningInfo(String userAddress) {
-        return mingUsers.get(userAddress);
+        int miner = depositStore.addressIdOf(userAddress);
+        if (miner < 0 || depositStore.getMiningDepositCount(miner) == 0) {
+            return null;
+        }
+        MiningInfo info = new MiningInfo();
+        info.setTotalMining(depositStore.getTotalMining(miner));
+        info.setReceivedMining(depositStore.getReceivedMining(miner));
+        //The slots of a mining address are linked from the latest mortgage
+        int[] slots = new int[depositStore.getMiningDepositCount(miner)];
+        int count = 0;
+        for (int slot = depositStore.firstOfMiner(miner); slot >= 0; slot = depositStore.nextOfMiner(slot)) {
+            slots[count++] = slot;
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            info.getMiningDetailInfos().put(depositStore.getDepositNumber(slots[i]), depositStore.toMiningDetailInfo(slots[i]));
+        }
+        return info;
     }
 
     /**
-     * Delete single mortgage mining information
+     * Check whether an address receives the Token of a mortgage
      *
-     * @param userAddress   user address
-     * @param depositNumber deposit number
+     * @param userAddress mining address
+     * @return
      */
-    public void removeMiningInfo(String userAddress, long depositNumber) {
-        MiningInfo miningInfo = mingUsers.get(userAddress);
-        miningInfo.removeMiningDetailInfoByNumber(depositNumber);
-        if (miningInfo.getMiningDetailInfos().size() == 0) {
-            mingUsers.remove(userAddress);
-        }
+    public boolean hasMiningInfo(String userAddress) {
+        int miner = depositStore.addressIdOf(userAddress);
+        return miner >= 0 && depositStore.getMiningDepositCount(miner) > 0;
     }
 
     /**
-     * Delete all mining information from users
+     * Get the mortgage addresses whose mortgages give Token to a mining address, each once
      *
-     * @param depositInfo Mortgage information
+     * @param userAddress mining address
+     * @return empty if the address receives the Token of no mortgage
      */
-    public void removeAllMiningInfo(DepositInfo depositInfo) {
-        Map<Long, DepositDetailInfo> depositDetailInfos = depositInfo.getDepositDetailInfos();
-        for (Long key : depositDetailInfos.keySet()) {
-            DepositDetailInfo detailInfo = depositDetailInfos.get(key);
-            MiningInfo miningInfo = mingUsers.get(detailInfo.getMiningAddress());
-            miningInfo.removeMiningDetailInfoByNumber(detailInfo.getDepositNumber());
-            if (miningInfo.getMiningDetailInfos().size() == 0) {
-                mingUsers.remove(detailInfo.getMiningAddress());
+    public List<String> getDepositorAddresses(String userAddress) {
+        List<String> depositorAddresses = new ArrayList<String>();
+        int miner = depositStore.addressIdOf(userAddress);
+        if (miner < 0) {
+            return depositorAddresses;
+        }
+        Set<Integer> depositors = new HashSet<Integer>();
+        for (int slot = depositStore.firstOfMiner(miner); slot >= 0; slot = depositStore.nextOfMiner(slot)) {
+            int depositor = depositStore.getDepositor(slot);
+            if (depositors.add(depositor)) {
+                depositorAddresses.add(depositStore.getAddress(depositor));
             }
         }
+        return depositorAddresses;
     }
 
     /**
      * Add the amount of the mortgage to the queue when joining the mortgage
      *
-     * @param depositValue  the amount of mortgage
+     * @param depositValue  the amount of mortgage (Na)
      * @param currentHeight current height
      */
-    public void putDeposit(BigInteger depositValue, long currentHeight) {
+    public void putDeposit(long depositValue, long currentHeight) {
         int currentCycle = this.calcRewardCycle(currentHeight);
         //Check whether the total number of mortgages in the next incentive cycle is in the queue
-        if (!totalDepositIndex.containsKey(currentCycle + 1)) {
-            moveLastDepositToCurrentCycle(currentHeight + this.awardingCycle);
+        if (!rewardCycleStore.containsCycle(currentCycle + 1)) {
+            moveLastDepositToCurrentCycle(currentHeight + this.awardingCycle, currentCycle);
         }
         int putCycle = currentCycle + 2;
 
-        boolean isContainsKey = totalDepositIndex.containsKey(putCycle);
-        RewardCycleInfo cycleInfo = new RewardCycleInfo();
-        if (!isContainsKey) {
-            //Calculate the price of halving the reward
-            long rewardingHeight = putCycle * this.awardingCycle + this.createHeight;
+        int putIndex = rewardCycleStore.indexOfCycle(putCycle);
+        if (putIndex < 0) {
+            //Calculate the price of halving the reward, once whatever the number of halving heights passed
+            long rewardingHeight = (long) putCycle * this.awardingCycle + this.createHeight;
             if (this.rewardHalvingCycle > 0 && this.nextRewardHalvingHeight <= rewardingHeight) {
-                this.currentPrice = this.currentPrice.divide(PocmUtil.HLAVING, decimals, BigDecimal.ROUND_DOWN);
-                this.nextRewardHalvingHeight += this.rewardHalvingCycle;
+                this.halve(1);
             }
 
-            //First addition of reward cycle records
-            if (this.lastCalcCycle == 0) {
-                cycleInfo.setDepositAmount(depositValue);
-                cycleInfo.setRewardingCylce(putCycle);
-                cycleInfo.setDifferCycleValue(1);
-                cycleInfo.setCurrentPrice(this.currentPrice);
-                this.totalDepositList.add(cycleInfo);
+            RewardCycleInfo lastCycleInfo = this.rewardCycleStore.getLast();
+            RewardCycleInfo cycleInfo;
+            if (lastCycleInfo == null || lastCycleInfo.getRewardingCylce() == 0) {
+                //First addition of reward cycle records
+                cycleInfo = this.createRewardCycleInfo(putCycle, depositValue, 1, this.currentHalvingRound);
             } else {
-                RewardCycleInfo lastCycleInfo = this.totalDepositList.get(this.totalDepositIndex.get(this.lastCalcCycle));
-                cycleInfo.setDepositAmount(depositValue.add(lastCycleInfo.getDepositAmount()));
-                cycleInfo.setRewardingCylce(putCycle);
-                cycleInfo.setDifferCycleValue(putCycle - lastCycleInfo.getRewardingCylce());
-                cycleInfo.setCurrentPrice(this.currentPrice);
-                this.totalDepositList.add(cycleInfo);
+                cycleInfo = this.createRewardCycleInfo(putCycle, addNa(lastCycleInfo.getDepositAmount(), depositValue),
+                        putCycle - lastCycleInfo.getRewardingCylce(), this.currentHalvingRound);
             }
-            this.totalDepositIndex.put(putCycle, this.totalDepositList.size() - 1);
-            this.lastCalcCycle = putCycle;
+            this.addRewardCycleInfo(cycleInfo);
         } else {
-            int alreadyTotalDepositIndex = this.totalDepositIndex.get(putCycle);
-            RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(alreadyTotalDepositIndex);
-            cycleInfoTmp.setDepositAmount(depositValue.add(cycleInfoTmp.getDepositAmount()));
+            this.addRewardCycleDeposit(putIndex, depositValue);
         }
+        this.refreshCurrentPrice();
     }
 
     /**
-     * Exit the reward cycle queue
+     * Exit the reward cycle queue; the mortgage is removed from the mortgage store afterwards
      *
-     * @param detailInfo    Mortgage detailed information
+     * @param slot          Mortgage slot
      * @param currentHeight current height
      */
-    public void quitDeposit(DepositDetailInfo detailInfo, long currentHeight) {
+    public void quitDeposit(int slot, long currentHeight) {
+        this.removeCycleReference(slot);
         //Amount of Mortgage Withdrawal
-        BigInteger depositValue = detailInfo.getDepositAmount();
+        long depositValue = depositStore.getDepositAmount(slot);
         int currentCycle = calcRewardCycle(currentHeight);
-        int depositCycle = calcRewardCycle(detailInfo.getDepositHeight());
+        int depositCycle = calcRewardCycle(depositStore.getDepositHeight(slot));
 
         if (currentCycle == depositCycle) {
-            //When the mortgage and mortgage exit in the same reward cycle, update the total mortgage a reward cycle number
-            RewardCycleInfo cycleInfoTmp = totalDepositList.get(this.totalDepositIndex.get(currentCycle + 2));
-            cycleInfoTmp.setDepositAmount(cycleInfoTmp.getDepositAmount().subtract(depositValue));
+            this.quitCurrentCycleDeposit(currentCycle, depositValue);
         } else {
-            //Update the total number of mortgages in the current incentive cycle when joining and withdrawing mortgages are not in the same cycle
-            int operCycle = currentCycle + 1;
-            boolean isContainsKey = this.totalDepositIndex.containsKey(operCycle);
-
-            if (isContainsKey) {
-                //The reward cycle index already contains the reward cycle to be operated on.
-                RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(this.totalDepositIndex.get(operCycle));
-                cycleInfoTmp.setDepositAmount(cycleInfoTmp.getDepositAmount().subtract(depositValue));
+            this.quitEarlierCycleDeposit(currentHeight, depositValue);
+        }
+        this.compactRewardCycles(currentCycle);
+        this.refreshCurrentPrice();
+    }
+
+    /**
+     * Exit several mortgages from the reward cycle queue. The mortgages are added up into the ones made in the current
+     * reward cycle and the earlier ones, so the queue is updated at most twice whatever the number of mortgages.
+     * Withdrawing them one by one updates the same records by the same amounts: the mortgages of the current reward
+     * cycle all update the record of the reward cycle after next, and the earlier ones the record of the next reward
+     * cycle, which the first of them adds if it is not in the queue.
+     *
+     * The mortgages are removed from the mortgage store afterwards.
+     *
+     * @param slots         Mortgage slots
+     * @param currentHeight current height
+     */
+    public void quitDeposits(int[] slots, long currentHeight) {
+        int currentCycle = calcRewardCycle(currentHeight);
+        long currentCycleValue = 0;
+        long earlierCycleValue = 0;
+        for (int i = 0; i < slots.length; i++) {
+            this.removeCycleReference(slots[i]);
+            if (calcRewardCycle(depositStore.getDepositHeight(slots[i])) == currentCycle) {
+                currentCycleValue += depositStore.getDepositAmount(slots[i]);
             } else {
-                //The current height has reached the reward halving height, and all reward heights corresponding to the halving cycle height are added to the queue.
-                long nextHeight = currentHeight + awardingCycle;
-                if (rewardHalvingCycle > 0 && nextRewardHalvingHeight <= nextHeight) {
-                    this.moveLastDepositToHalvingCycle(nextRewardHalvingHeight, nextHeight);
-                }
+                earlierCycleValue += depositStore.getDepositAmount(slots[i]);
+            }
+        }
+        if (currentCycleValue > 0) {
+            this.quitCurrentCycleDeposit(currentCycle, currentCycleValue);
+        }
+        if (earlierCycleValue > 0) {
+            this.quitEarlierCycleDeposit(currentHeight, earlierCycleValue);
+        }
+        this.compactRewardCycles(currentCycle);
+        this.refreshCurrentPrice();
+    }
 
-                RewardCycleInfo cycleInfo = new RewardCycleInfo();
+    /**
+     * When the mortgage and mortgage exit in the same reward cycle, update the total mortgage a reward cycle number
+     *
+     * @param currentCycle the current reward cycle
+     * @param depositValue Amount of Mortgage Withdrawal
+     */
+    private void quitCurrentCycleDeposit(int currentCycle, long depositValue) {
+        this.addRewardCycleDeposit(rewardCycleStore.indexOfCycle(currentCycle + 2), -depositValue);
+    }
 
-                //Get the latest information about the reward cycle from the reward cycle queue
-                RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(this.totalDepositList.size() - 1);
-                cycleInfo.setDepositAmount(cycleInfoTmp.getDepositAmount().subtract(depositValue));
-                cycleInfo.setDifferCycleValue(operCycle - cycleInfoTmp.getRewardingCylce());
-                cycleInfo.setCurrentPrice(currentPrice);
-                cycleInfo.setRewardingCylce(operCycle);
+    /**
+     * Update the total number of mortgages in the current incentive cycle when joining and withdrawing mortgages are not in the same cycle
+     *
+     * @param currentHeight current height
+     * @param depositValue  Amount of Mortgage Withdrawal
+     */
+    private void quitEarlierCycleDeposit(long currentHeight, long depositValue) {
+        int currentCycle = this.calcRewardCycle(currentHeight);
+        int operCycle = currentCycle + 1;
+        int operIndex = this.rewardCycleStore.indexOfCycle(operCycle);
 
-                //Add reward cycle information to the queue and update the index
-                this.totalDepositList.add(cycleInfo);
-                totalDepositIndex.put(operCycle, this.totalDepositList.size() - 1);
-                this.lastCalcCycle = operCycle;
+        if (operIndex >= 0) {
+            //The reward cycle index already contains the reward cycle to be operated on.
+            this.addRewardCycleDeposit(operIndex, -depositValue);
+        } else {
+            //The reward halving heights reached by the next reward cycle are added to the queue.
+            long nextHeight = currentHeight + this.awardingCycle;
+            List<RewardCycleInfo> cycleInfos = new ArrayList<RewardCycleInfo>();
+            int halvingCount = this.calcHalvingCount(nextHeight);
+            RewardCycleInfo lastCycleInfo = this.createHalvingCycleInfos(cycleInfos, this.rewardCycleStore.getLast(), nextHeight, currentCycle);
+            for (int i = 0; i < cycleInfos.size(); i++) {
+                this.addRewardCycleInfo(cycleInfos.get(i));
             }
+            this.halve(halvingCount);
+
+            //The mortgage amount is the one of the latest record in the queue
+            RewardCycleInfo cycleInfo = this.createRewardCycleInfo(operCycle, subtractNa(lastCycleInfo.getDepositAmount(), depositValue),
+                    operCycle - lastCycleInfo.getRewardingCylce(), this.currentHalvingRound);
+
+            //Add reward cycle information to the queue and update the index
+            this.addRewardCycleInfo(cycleInfo);
+        }
+    }
+
+    /**
+     * Count the reward halving heights reached at a height, from the next one
+     *
+     * @param height height
+     * @return 0 if the reward is not halved
+     */
+    private int calcHalvingCount(long height) {
+        if (this.rewardHalvingCycle <= 0 || this.nextRewardHalvingHeight > height) {
+            return 0;
+        }
+        return (int) ((height - this.nextRewardHalvingHeight) / this.rewardHalvingCycle + 1);
+    }
+
+    /**
+     * Halve the price of new records once for each reward halving height reached
+     *
+     * @param halvingCount the number of reward halving heights reached
+     */
+    private void halve(int halvingCount) {
+        this.currentHalvingRound += halvingCount;
+        this.nextRewardHalvingHeight += (long) halvingCount * this.rewardHalvingCycle;
+    }
+
+    /**
+     * Get the first reward halving height from a height on
+     *
+     * @param height height
+     * @return
+     */
+    private long calcHalvingHeightFrom(long height) {
+        if (height <= this.nextRewardHalvingHeight) {
+            return this.nextRewardHalvingHeight;
         }
+        long count = (height - this.nextRewardHalvingHeight + this.rewardHalvingCycle - 1) / this.rewardHalvingCycle;
+        return this.nextRewardHalvingHeight + count * this.rewardHalvingCycle;
     }
 
+    /**
+     * Get the reward cycle of the last reward halving height before the start of a reward cycle
+     *
+     * @param rewardingCycle reward cycle, its start height is after the next reward halving height
+     * @return
+     */
+    private int calcHalvingCycleBefore(int rewardingCycle) {
+        long startHeight = (long) rewardingCycle * this.awardingCycle + this.createHeight;
+        long count = (startHeight - 1 - this.nextRewardHalvingHeight) / this.rewardHalvingCycle;
+        return this.calcRewardCycle(this.nextRewardHalvingHeight + count * this.rewardHalvingCycle);
+    }
 
     /**
-     * When the amount of mortgage remains unchanged, the information of the incentive cycle at the height of the half-cycle of the incentive is added to the queue.
+     * Create the records the reward halving heights reached at a height add to the queue, without adding them
+     * <p>
+     * The price is halved at each reward halving height, and a record of the reward cycle of the height is added with
+     * the halved price and the mortgage amount of the latest record, unless the reward cycle is in the queue. Each
+     * reward cycle is handled once: its first halving height adds the record and the others find it. (The contract of
+     * commit 1471a21 kept halving the price without moving to the next height once the reward cycle was in the queue,
+     * so the call never ended.)
+     * <p>
+     * Once the price is 0 a record adds nothing to the rewards. Such records before the current reward cycle are
+     * never read again, the records of a mortgage are only looked up from the current reward cycle on, so only the
+     * last of them is created, with the number of reward cycles since the one before it as if they were all there.
+     * The number of records created is thus bounded by the precision of the price, not by the number of halvings.
      *
-     * @param startRewardHalvingHeight Half the Starting Height
-     * @param currentHeight            current height
+     * @param cycleInfos    the records created are added to it
+     * @param lastCycleInfo the latest record, null if the queue is empty
+     * @param height        height of the reward halving heights reached
+     * @param currentCycle  the current reward cycle
+     * @return the last record created, or the latest record if none is created
      */
-    private void moveLastDepositToHalvingCycle(long startRewardHalvingHeight, long currentHeight) {
-        int rewardingCycle = this.lastCalcCycle;
-        long height = startRewardHalvingHeight;
-        while (height <= currentHeight) {
-            RewardCycleInfo cycleInfo = new RewardCycleInfo();
-            this.currentPrice = currentPrice.divide(PocmUtil.HLAVING, decimals, BigDecimal.ROUND_DOWN);
-            rewardingCycle = calcRewardCycle(height);
-            calcRewardCycle(height);
-            boolean isContainsKey = this.totalDepositIndex.containsKey(rewardingCycle);
-            if (isContainsKey) {
+    private RewardCycleInfo createHalvingCycleInfos(List<RewardCycleInfo> cycleInfos, RewardCycleInfo lastCycleInfo,
+                                                    long height, int currentCycle) {
+        int halvingCount = this.calcHalvingCount(height);
+        if (halvingCount == 0) {
+            return lastCycleInfo;
+        }
+        long lastHalvingHeight = this.nextRewardHalvingHeight + (long) (halvingCount - 1) * this.rewardHalvingCycle;
+        long currentCycleHeight = (long) currentCycle * this.awardingCycle + this.createHeight;
+        //The last record of price 0 before the current reward cycle, created only if no record follows it
+        RewardCycleInfo zeroPriceCycleInfo = null;
+        long halvingHeight = this.nextRewardHalvingHeight;
+        while (halvingHeight <= lastHalvingHeight) {
+            int cycle = this.calcRewardCycle(halvingHeight);
+            int halvingRound = this.currentHalvingRound + (int) ((halvingHeight - this.nextRewardHalvingHeight) / this.rewardHalvingCycle) + 1;
+            boolean isContainsKey = this.rewardCycleStore.containsCycle(cycle)
+                    || (lastCycleInfo != null && lastCycleInfo.getRewardingCylce() == cycle);
+            if (!isContainsKey && halvingHeight < currentCycleHeight && this.halvingService.getHalvingPriceValue(halvingRound).signum() == 0) {
+                lastCycleInfo = this.createZeroPriceCycleInfo(lastCycleInfo, cycle, Math.min(lastHalvingHeight, currentCycleHeight - 1));
+                zeroPriceCycleInfo = lastCycleInfo;
+                halvingHeight = this.calcHalvingHeightFrom(currentCycleHeight);
                 continue;
             }
-            if (this.lastCalcCycle != 0) {
-                RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(this.totalDepositIndex.get(this.lastCalcCycle));
-                cycleInfo.setDepositAmount(cycleInfoTmp.getDepositAmount());
-                cycleInfo.setDifferCycleValue(rewardingCycle - cycleInfoTmp.getRewardingCylce());
-            } else {
-                //First mortgage operation
-                cycleInfo.setDepositAmount(BigInteger.ZERO);
-                cycleInfo.setDifferCycleValue(1);
+            if (!isContainsKey) {
+                RewardCycleInfo cycleInfo;
+                if (lastCycleInfo == null || lastCycleInfo.getRewardingCylce() == 0) {
+                    //First mortgage operation
+                    cycleInfo = this.createRewardCycleInfo(cycle, 0, 1, halvingRound);
+                } else {
+                    cycleInfo = this.createRewardCycleInfo(cycle, lastCycleInfo.getDepositAmount(),
+                            cycle - lastCycleInfo.getRewardingCylce(), halvingRound);
+                }
+                this.accumulatePrice(cycleInfo, lastCycleInfo);
+                cycleInfos.add(cycleInfo);
+                lastCycleInfo = cycleInfo;
+                zeroPriceCycleInfo = null;
             }
-            cycleInfo.setRewardingCylce(rewardingCycle);
-            cycleInfo.setCurrentPrice(this.currentPrice);
-            this.totalDepositList.add(cycleInfo);
-            this.totalDepositIndex.put(rewardingCycle, this.totalDepositList.size() - 1);
-            height += this.rewardHalvingCycle;
-            this.lastCalcCycle = rewardingCycle;
+            halvingHeight = this.calcHalvingHeightFrom((long) (cycle + 1) * this.awardingCycle + this.createHeight);
+        }
+        if (zeroPriceCycleInfo != null) {
+            cycleInfos.add(zeroPriceCycleInfo);
         }
-        this.nextRewardHalvingHeight = height;
+        return lastCycleInfo;
+    }
+
+    /**
+     * Create the last record of price 0 that the reward halving heights from one of them up to a height would add,
+     * as it would be after the ones before it
+     *
+     * @param lastCycleInfo the latest record before them, null if the queue is empty
+     * @param firstCycle    the reward cycle of the first of those reward halving heights, not in the queue
+     * @param height        the height up to which the reward halving heights are reached, before the current reward cycle
+     * @return
+     */
+    private RewardCycleInfo createZeroPriceCycleInfo(RewardCycleInfo lastCycleInfo, int firstCycle, long height) {
+        //The reward cycles of the halving heights in the queue add no record
+        long lastHalvingHeight = this.nextRewardHalvingHeight
+                + (height - this.nextRewardHalvingHeight) / this.rewardHalvingCycle * this.rewardHalvingCycle;
+        int cycle = this.calcRewardCycle(lastHalvingHeight);
+        while (cycle > firstCycle && this.rewardCycleStore.containsCycle(cycle)) {
+            cycle = this.calcHalvingCycleBefore(cycle);
+        }
+        int previousCycle = -1;
+        if (cycle > firstCycle) {
+            previousCycle = this.calcHalvingCycleBefore(cycle);
+            while (previousCycle > firstCycle && this.rewardCycleStore.containsCycle(previousCycle)) {
+                previousCycle = this.calcHalvingCycleBefore(previousCycle);
+            }
+        }
+        //The records of the reward cycles between have the mortgage amount the first of them took
+        long depositAmount = lastCycleInfo == null || lastCycleInfo.getRewardingCylce() == 0 ? 0 : lastCycleInfo.getDepositAmount();
+        if (previousCycle < 0) {
+            previousCycle = lastCycleInfo == null ? 0 : lastCycleInfo.getRewardingCylce();
+            depositAmount = lastCycleInfo == null ? 0 : lastCycleInfo.getDepositAmount();
+        }
+        long halvingHeight = this.calcHalvingHeightFrom((long) cycle * this.awardingCycle + this.createHeight);
+        int halvingRound = this.currentHalvingRound + (int) ((halvingHeight - this.nextRewardHalvingHeight) / this.rewardHalvingCycle) + 1;
+        RewardCycleInfo cycleInfo;
+        if (previousCycle == 0) {
+            cycleInfo = this.createRewardCycleInfo(cycle, 0, 1, halvingRound);
+        } else {
+            cycleInfo = this.createRewardCycleInfo(cycle, depositAmount, cycle - previousCycle, halvingRound);
+        }
+        this.accumulatePrice(cycleInfo, lastCycleInfo);
+        return cycleInfo;
     }
 
 
     /**
      * Calculate the amount of reward
      *
-     * @param depositInfo Mortgage information
-     * @param mingResult  Mining results
-     * @return
+     * @param depositorAddress Mortgage address
+     * @param mingResult       Mining results
+     * @param currentHeight    current height
+     * @return the total reward of the mining results
      */
-    public BigInteger calcMining(DepositInfo depositInfo, Map<String, BigInteger> mingResult) {
-        BigInteger mining = BigInteger.ZERO;
-        long currentHeight = Block.number();
+    public BigInteger calcMining(String depositorAddress, MiningResult mingResult, long currentHeight) {
         int currentRewardCycle = this.calcRewardCycle(currentHeight);
         //Update the mortgage information of the previous incentive cycle to the mortgage information of the current incentive cycle
-        this.moveLastDepositToCurrentCycle(currentHeight);
+        this.moveLastDepositToCurrentCycle(currentHeight, currentRewardCycle);
+        RewardCycleInfo lastCycleInfo = this.rewardCycleStore.getLast();
+        this.calcMining(depositStore.addressIdOf(depositorAddress), mingResult, currentRewardCycle, lastCycleInfo, true);
+        this.compactRewardCycles(currentRewardCycle);
+        this.refreshCurrentPrice();
+        return mingResult.getTotalAmount();
+    }
 
-        Map<Long, DepositDetailInfo> detailInfos = depositInfo.getDepositDetailInfos();
-        for (Long key : detailInfos.keySet()) {
-            DepositDetailInfo detailInfo = detailInfos.get(key);
-            BigInteger miningTmp = BigInteger.ZERO;
+    /**
+     * Calculate the amount of reward of several mortgage users; the queue is brought up to the current reward cycle
+     * and its latest record is read once for all of them
+     *
+     * @param depositorAddresses Mortgage addresses
+     * @param mingResult         Mining results, the rewards of a receiving address are added up
+     * @param currentHeight      current height
+     * @return the total reward of the mining results
+     */
+    public BigInteger calcMining(List<String> depositorAddresses, MiningResult mingResult, long currentHeight) {
+        int currentRewardCycle = this.calcRewardCycle(currentHeight);
+        //Update the mortgage information of the previous incentive cycle to the mortgage information of the current incentive cycle
+        this.moveLastDepositToCurrentCycle(currentHeight, currentRewardCycle);
+        RewardCycleInfo lastCycleInfo = this.rewardCycleStore.getLast();
+
+        for (int i = 0; i < depositorAddresses.size(); i++) {
+            int depositor = depositStore.addressIdOf(depositorAddresses.get(i));
+            this.calcMining(depositor, mingResult, currentRewardCycle, lastCycleInfo, true);
+        }
+        this.compactRewardCycles(currentRewardCycle);
+        this.refreshCurrentPrice();
+        return mingResult.getTotalAmount();
+    }
 
-            MiningInfo miningInfo = mingUsers.get(detailInfo.getMiningAddress());
-            MiningDetailInfo mingDetailInfo = miningInfo.getMiningDetailInfoByNumber(detailInfo.getDepositNumber());
-            int nextStartMiningCycle = mingDetailInfo.getNextStartMiningCycle();
+    /**
+     * Calculate the rewards that claiming now would settle for several mortgage users, without changing anything.
+     * The records a claim adds to the queue first are only calculated, so the cost is the one of the claim, and it
+     * fails where the claim would fail.
+     *
+     * @param depositorAddresses Mortgage addresses
+     * @param mingResult         Mining results, the rewards of a receiving address are added up
+     * @param currentHeight      current height
+     * @return the total reward of the mining results
+     */
+    public BigInteger calcPendingMining(List<String> depositorAddresses, MiningResult mingResult, long currentHeight) {
+        //Without records there is no mortgage
+        if (this.rewardCycleStore.isEmpty()) {
+            return mingResult.getTotalAmount();
+        }
+        int currentRewardCycle = this.calcRewardCycle(currentHeight);
+        List<RewardCycleInfo> cycleInfos = this.createCurrentCycleInfos(currentHeight, currentRewardCycle);
+        RewardCycleInfo lastCycleInfo = cycleInfos.isEmpty() ? this.rewardCycleStore.getLast() : cycleInfos.get(cycleInfos.size() - 1);
+        for (int i = 0; i < depositorAddresses.size(); i++) {
+            int depositor = depositStore.addressIdOf(depositorAddresses.get(i));
+            this.calcMining(depositor, mingResult, currentRewardCycle, lastCycleInfo, false);
+        }
+        return mingResult.getTotalAmount();
+    }
+
+    /**
+     * Add the rewards of the mortgages of a mortgage address to the mining results. The totals of a receiving address
+     * are updated once for the consecutive mortgages that reward it, not once per mortgage.
+     *
+     * @param lastCycleInfo the latest record, the rewards run up to it
+     * @param settle        whether the mining details are updated, otherwise the rewards are only calculated
+     */
+    private void calcMining(int depositor, MiningResult mingResult, int currentRewardCycle,
+                            RewardCycleInfo lastCycleInfo, boolean settle) {
+        if (depositor < 0) {
+            return;
+        }
+        boolean settled = false;
+        //The mortgages settled and their rewards, for the total supply
+        int[] settledSlots = null;
+        BigInteger[] settledMinings = null;
+        int settledCount = 0;
+        //The receiving address of the last mortgages settled and the sum of their rewards
+        int lastMiner = -1;
+        BigInteger lastMinerMining = null;
+        for (int slot = depositStore.firstOfDepositor(depositor); slot >= 0; slot = depositStore.nextOfDepositor(slot)) {
+            int nextStartMiningCycle = depositStore.getNextStartMiningCycle(slot);
             //Not reaching the height of reward
             if (nextStartMiningCycle > currentRewardCycle) {
                 continue;
             }
-            BigDecimal sumPrice = this.calcPriceBetweenCycle(nextStartMiningCycle);
-            BigDecimal depositAmountNULS = toNuls(detailInfo.getDepositAmount());
-            miningTmp = miningTmp.add(depositAmountNULS.multiply(sumPrice).scaleByPowerOfTen(decimals).toBigInteger());
-
-            mingDetailInfo.setMiningAmount(mingDetailInfo.getMiningAmount().add(miningTmp));
-            mingDetailInfo.setMiningCount(mingDetailInfo.getMiningCount() + currentRewardCycle - nextStartMiningCycle + 1);
-            mingDetailInfo.setNextStartMiningCycle(currentRewardCycle + 1);
-            miningInfo.setTotalMining(miningInfo.getTotalMining().add(miningTmp));
-            miningInfo.setReceivedMining(miningInfo.getReceivedMining().add(miningTmp));
-
-            if (mingResult.containsKey(mingDetailInfo.getReceiverMiningAddress())) {
-                miningTmp = mingResult.get(mingDetailInfo.getReceiverMiningAddress()).add(miningTmp);
+            //Rounded down once: mortgage (Na) * sum of prices (smallest token unit per NULS) / Na per NULS
+            BigInteger sumPrice = this.calcPriceBetweenCycle(nextStartMiningCycle, lastCycleInfo);
+            BigInteger miningTmp = BigInteger.valueOf(depositStore.getDepositAmount(slot)).multiply(sumPrice).divide(ONE_NULS);
+            int miner = depositStore.getMiner(slot);
+            mingResult.add(miner, depositStore.getAddress(miner), miningTmp, nextStartMiningCycle, currentRewardCycle);
+            settled = true;
+            if (!settle) {
+                continue;
+            }
+            if (settledSlots == null) {
+                settledSlots = new int[depositStore.getDepositCount(depositor)];
+                settledMinings = new BigInteger[settledSlots.length];
             }
-            mingResult.put(mingDetailInfo.getReceiverMiningAddress(), miningTmp);
-            mining = mining.add(miningTmp);
+            settledSlots[settledCount] = slot;
+            settledMinings[settledCount] = miningTmp;
+            settledCount++;
+
+            depositStore.setMiningAmount(slot, depositStore.getMiningAmount(slot).add(miningTmp));
+            depositStore.setMiningCount(slot, depositStore.getMiningCount(slot) + currentRewardCycle - nextStartMiningCycle + 1);
+            this.removeCycleReference(slot);
+            depositStore.setNextStartMiningCycle(slot, currentRewardCycle + 1);
+            this.addCycleReference(slot);
+            if (miner == lastMiner) {
+                lastMinerMining = lastMinerMining.add(miningTmp);
+            } else {
+                this.addMinerMining(lastMiner, lastMinerMining);
+                lastMiner = miner;
+                lastMinerMining = miningTmp;
+            }
+        }
+        this.addMinerMining(lastMiner, lastMinerMining);
+        if (settled) {
+            mingResult.addDepositor(depositStore.getAddress(depositor));
+        }
+        if (settledCount > 0) {
+            mingResult.addSupplyAmount(this.calcSupplyAmount(settledSlots, settledMinings, settledCount));
         }
-        return mining;
     }
 
     /**
-     * Add the current high reward cycle to the queue
+     * Calculate the total supply added for the rewards of one mortgage address, as the contract of commit 1471a21 did
+     * <p>
+     * That contract went through the mortgages in the order of the HashMap holding them, see
+     * {@link DepositStore#getDetailBucket(int)}, and after each mortgage settled it added to the total supply the sum
+     * of the rewards settled so far for the receiving address of that mortgage. The rewards of a receiving address
+     * are then counted once for each mortgage settled for it from their own on, which is kept as it was. The sum of
+     * the rewards of each receiving address was added to its balance, which reverts the claim if it is negative.
      *
-     * @param currentHeight current height
+     * @param slots   mortgage slots settled, from the latest mortgage
+     * @param minings their rewards
+     * @param count   number of mortgages settled
+     * @return
      */
-    private void moveLastDepositToCurrentCycle(long currentHeight) {
-        int currentCycle = this.calcRewardCycle(currentHeight);
-        //If the current high reward cycle is in the queue, exit the method directly.
-        if (this.totalDepositIndex.containsKey(currentCycle)) {
+    private BigInteger calcSupplyAmount(int[] slots, BigInteger[] minings, int count) {
+        //In ascending order of bucket, then of mortgage number, the order the mortgages were added in
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) depositStore.getDetailBucket(slots[i]) << 32) | (count - 1 - i);
+        }
+        if (count > 1) {
+            Arrays.sort(order);
+        }
+        Map<Integer, BigInteger> receiverMinings = new HashMap<Integer, BigInteger>();
+        BigInteger supplyAmount = BigInteger.ZERO;
+        for (int k = 0; k < count; k++) {
+            int i = count - 1 - (int) (order[k] & 0xFFFFFFFFL);
+            Integer miner = Integer.valueOf(depositStore.getMiner(slots[i]));
+            BigInteger receiverMining = receiverMinings.get(miner);
+            receiverMining = receiverMining == null ? minings[i] : receiverMining.add(minings[i]);
+            receiverMinings.put(miner, receiverMining);
+            supplyAmount = supplyAmount.add(receiverMining);
+        }
+        for (BigInteger receiverMining : receiverMinings.values()) {
+            require(receiverMining.signum() >= 0, "The value must be greater than or equal to 0.");
+        }
+        return supplyAmount;
+    }
+
+    /**
+     * Add settled rewards to the totals of a receiving address
+     *
+     * @param miner  address id of the receiving address, nothing is added if negative
+     * @param mining rewards settled
+     */
+    private void addMinerMining(int miner, BigInteger mining) {
+        if (miner < 0) {
             return;
-        } else {
-            //The current height has reached the reward halving height, and all reward information corresponding to the halving period height is added to the queue.
-            if (this.rewardHalvingCycle > 0 && this.nextRewardHalvingHeight <= currentHeight) {
-                this.moveLastDepositToHalvingCycle(nextRewardHalvingHeight, currentHeight);
-            }
         }
+        depositStore.setTotalMining(miner, depositStore.getTotalMining(miner).add(mining));
+        depositStore.setReceivedMining(miner, depositStore.getReceivedMining(miner).add(mining));
+    }
 
-        //At this point, check if the current high reward cycle is in the queue.
-        if (!this.totalDepositIndex.containsKey(currentCycle)) {
-            RewardCycleInfo cycleInfo = new RewardCycleInfo();
-            RewardCycleInfo cycleInfoTmp;
-            if (!this.totalDepositList.isEmpty()) {
-                //Get information about the last reward cycle in the queue
-                cycleInfoTmp = this.totalDepositList.get(this.totalDepositList.size() - 1);
-                cycleInfo.setDepositAmount(cycleInfoTmp.getDepositAmount());
-                cycleInfo.setDifferCycleValue(currentCycle - cycleInfoTmp.getRewardingCylce());
-                cycleInfo.setCurrentPrice(this.currentPrice);
-                cycleInfo.setRewardingCylce(currentCycle);
-            } else {
-                cycleInfo.setDepositAmount(BigInteger.ZERO);
-                cycleInfo.setDifferCycleValue(1);
-                cycleInfo.setCurrentPrice(this.currentPrice);
-                cycleInfo.setRewardingCylce(currentCycle);
-            }
-            lastCalcCycle = currentCycle;
-            this.totalDepositList.add(cycleInfo);
-            this.totalDepositIndex.put(currentCycle, this.totalDepositList.size() - 1);
+    /**
+     * Add the reward cycle of a height to the queue
+     *
+     * @param height       the height, the current height or the one of the next reward cycle
+     * @param currentCycle the current reward cycle
+     */
+    private void moveLastDepositToCurrentCycle(long height, int currentCycle) {
+        int halvingCount = this.calcHalvingCount(height);
+        List<RewardCycleInfo> cycleInfos = this.createCurrentCycleInfos(height, currentCycle);
+        if (cycleInfos.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < cycleInfos.size(); i++) {
+            this.addRewardCycleInfo(cycleInfos.get(i));
         }
+        this.halve(halvingCount);
     }
 
     /**
-     * Calculate the sum of incentive prices from the specified incentive cycle
+     * Create the records moveLastDepositToCurrentCycle adds to the queue, with their cumulative prices, without
+     * adding them: the ones of the reward halving heights reached and the one of the reward cycle itself
      *
-     * @param startCycle the start the reward cycle
-     * @return
+     * @param height       the height, the current height or the one of the next reward cycle
+     * @param currentCycle the current reward cycle
+     * @return empty if the reward cycle of the height is in the queue
      */
-    private BigDecimal calcPriceBetweenCycle(int startCycle) {
-        BigDecimal sumPrice = BigDecimal.ZERO;
-        BigDecimal sumPriceForRegin = BigDecimal.ZERO;
-        int startIndex = this.totalDepositIndex.get(startCycle - 1) + 1;
-        for (int i = startIndex; i < this.totalDepositList.size(); i++) {
-            RewardCycleInfo cycleInfoTmp = this.totalDepositList.get(i);
-            String amount = toNuls(cycleInfoTmp.getDepositAmount()).toString();
-            if (!"0".equals(amount)) {
-                BigDecimal bigAmount = new BigDecimal(amount);
-                sumPrice = cycleInfoTmp.getCurrentPrice().divide(bigAmount, this.decimals, BigDecimal.ROUND_DOWN).multiply(BigDecimal.valueOf(cycleInfoTmp.getDifferCycleValue()));
-            }
-            sumPriceForRegin = sumPriceForRegin.add(sumPrice);
+    private List<RewardCycleInfo> createCurrentCycleInfos(long height, int currentCycle) {
+        List<RewardCycleInfo> cycleInfos = new ArrayList<RewardCycleInfo>();
+        int rewardingCycle = this.calcRewardCycle(height);
+        //If the reward cycle is in the queue, nothing is added.
+        if (this.rewardCycleStore.containsCycle(rewardingCycle)) {
+            return cycleInfos;
+        }
+        //The reward halving heights reached are added to the queue first.
+        RewardCycleInfo lastCycleInfo = this.createHalvingCycleInfos(cycleInfos, this.rewardCycleStore.getLast(), height, currentCycle);
+        if (lastCycleInfo != null && lastCycleInfo.getRewardingCylce() == rewardingCycle && !cycleInfos.isEmpty()) {
+            //A reward halving height of the reward cycle added its record
+            return cycleInfos;
+        }
+
+        int halvingRound = this.currentHalvingRound + this.calcHalvingCount(height);
+        RewardCycleInfo cycleInfo;
+        if (lastCycleInfo != null) {
+            //The mortgage amount is the one of the latest record in the queue
+            cycleInfo = this.createRewardCycleInfo(rewardingCycle, lastCycleInfo.getDepositAmount(),
+                    rewardingCycle - lastCycleInfo.getRewardingCylce(), halvingRound);
+        } else {
+            cycleInfo = this.createRewardCycleInfo(rewardingCycle, 0, 1, halvingRound);
         }
-        return sumPriceForRegin;
+        this.accumulatePrice(cycleInfo, lastCycleInfo);
+        cycleInfos.add(cycleInfo);
+        return cycleInfos;
     }
 
     /**
-     * Calculate the reward period for the current height
+     * Calculate the sum of incentive prices from the specified incentive cycle to the latest record
+     * <p>
+     * The sum runs over the records added after the latest record of the reward cycle before the start reward cycle,
+     * up to the latest record in the queue, whatever their reward cycles. The difference of two cumulative prices
+     * equals the sum of the prices of the records between them, so the cost no longer depends on their number.
+     * <p>
+     * The contract of commit 1471a21 divided the price of each of these records by its mortgage amount in NULS, and
+     * the amount 0 ("0E-8") made the division fail, so the claim reverts if any of them has no mortgage.
      *
-     * @param currentHeight current height
+     * @param startCycle    the start the reward cycle
+     * @param lastCycleInfo the latest record
      * @return
      */
-    public int calcRewardCycle(long currentHeight) {
-        return Integer.parseInt(String.valueOf(currentHeight - this.createHeight)) / this.awardingCycle;
+    private BigInteger calcPriceBetweenCycle(int startCycle, RewardCycleInfo lastCycleInfo) {
+        RewardCycleInfo startCycleInfo = this.rewardCycleStore.getByCycle(startCycle - 1);
+        require(startCycleInfo != null, "The reward cycle " + (startCycle - 1) + " is not in the queue");
+        require(lastCycleInfo.getCumulativeZeroAmountCount() == startCycleInfo.getCumulativeZeroAmountCount(),
+                "Division by zero: a reward cycle record after the reward cycle " + (startCycle - 1) + " has no mortgage");
+        return lastCycleInfo.getCumulativePrice().subtract(startCycleInfo.getCumulativePrice());
     }
 
     /**
-     * Calculate the unit price of the half-cycle, the maximum allowable 90 times of the half-cycle
+     * Create the information of a reward cycle
      *
-     * @param currentHeight
+     * @param rewardingCycle   reward cycle
+     * @param depositAmount    the amount of mortgage (Na)
+     * @param differCycleValue the number of reward cycles since the latest record
+     * @param halvingRound     the number of times the price is halved
      * @return
      */
-    private BigDecimal calcHalvingPrice(long currentHeight) {
-        int rewardHalvingRound = Integer.parseInt(String.valueOf(currentHeight - this.createHeight - 1)) / this.rewardHalvingCycle;
-        BigDecimal round = BigDecimal.ZERO;
-        int count = rewardHalvingRound / 30;
-        BigDecimal base = new BigDecimal(2 << 29);
-        if (count == 0 || rewardHalvingRound == 30) {
-            round = new BigDecimal(2 << rewardHalvingRound - 1);
-        } else if (count == 1 || rewardHalvingRound == 60) {
-            round = new BigDecimal(2 << rewardHalvingRound - 31);
-            round = base.multiply(round);
-        } else if (count == 2 || rewardHalvingRound == 90) {
-            round = new BigDecimal(2 << rewardHalvingRound - 61);
-            round = base.multiply(base).multiply(round);
-        } else {
-            require(false, "The maximum allowable number of halving cycles is 90 times, which has reached " + rewardHalvingRound + " times.");
-            return BigDecimal.ZERO;
+    private RewardCycleInfo createRewardCycleInfo(int rewardingCycle, long depositAmount, int differCycleValue, int halvingRound) {
+        RewardCycleInfo cycleInfo = new RewardCycleInfo();
+        cycleInfo.setDepositAmount(depositAmount);
+        cycleInfo.setDifferCycleValue(differCycleValue);
+        cycleInfo.setRewardingCylce(rewardingCycle);
+        cycleInfo.setHalvingRound(halvingRound);
+        cycleInfo.setCurrentPrice(this.halvingService.getHalvingPrice(halvingRound));
+        return cycleInfo;
+    }
+
+    /**
+     * Calculate the price of one NULS over the reward cycles covered by the record,
+     * in the smallest unit of the token precision
+     * <p>
+     * Fixed-point form of {@code price.divide(toNuls(amount), decimals, ROUND_DOWN) * differCycleValue}:
+     * with the price p = price * 10^decimals and the amount a in Na, the quotient in units of 10^-decimals is
+     * p * 10^8 / a, and BigInteger division truncates toward zero like ROUND_DOWN, so both give the same value.
+     * The reward of a mortgage m (Na) is then m * sum / 10^8, which equals
+     * {@code toNuls(m).multiply(sum).scaleByPowerOfTen(decimals).toBigInteger()} for the same reason.
+     *
+     * @param cycleInfo reward cycle information
+     * @return
+     */
+    private BigInteger calcCyclePrice(RewardCycleInfo cycleInfo) {
+        return this.calcCyclePrice(cycleInfo.getDepositAmount(), cycleInfo.getHalvingRound(), cycleInfo.getDifferCycleValue());
+    }
+
+    /**
+     * @param intAmount        the amount of mortgage of the record (Na)
+     * @param halvingRound     the halving round of the price of the record
+     * @param differCycleValue the number of reward cycles covered by the record
+     * @return
+     */
+    private BigInteger calcCyclePrice(long intAmount, int halvingRound, int differCycleValue) {
+        if (intAmount == 0) {
+            return BigInteger.ZERO;
+        }
+        BigInteger priceValue = this.halvingService.getHalvingPriceValue(halvingRound);
+        return priceValue.multiply(ONE_NULS).divide(BigInteger.valueOf(intAmount)).multiply(BigInteger.valueOf(differCycleValue));
+    }
+
+    /**
+     * Add reward cycle information after the latest record in the queue and accumulate its price
+     *
+     * @param cycleInfo reward cycle information
+     */
+    private void addRewardCycleInfo(RewardCycleInfo cycleInfo) {
+        this.halvingService.cacheHalvingPrice(cycleInfo.getHalvingRound());
+        this.accumulatePrice(cycleInfo, this.rewardCycleStore.getLast());
+        this.rewardCycleStore.add(cycleInfo);
+    }
+
+    /**
+     * Add an amount to the mortgage of a record in the queue, the later records keep their own mortgage amounts
+     *
+     * @param index        the number in the reward cycle information queue
+     * @param depositValue the amount of mortgage (Na), negative when withdrawing
+     */
+    private void addRewardCycleDeposit(int index, long depositValue) {
+        RewardCycleInfo cycleInfo = this.rewardCycleStore.get(index);
+        cycleInfo.setDepositAmount(addNa(cycleInfo.getDepositAmount(), depositValue));
+        this.accumulatePrice(index);
+    }
+
+    /**
+     * Set the cumulative price and zero amount count of a record following another one
+     *
+     * @param cycleInfo         reward cycle information
+     * @param previousCycleInfo the record before it, null if it is the first record
+     */
+    private void accumulatePrice(RewardCycleInfo cycleInfo, RewardCycleInfo previousCycleInfo) {
+        BigInteger cumulativePrice = previousCycleInfo != null ? previousCycleInfo.getCumulativePrice()
+                : this.rewardCycleStore.getBaseCumulativePrice();
+        cycleInfo.setCumulativePrice(cumulativePrice.add(this.calcCyclePrice(cycleInfo)));
+        int zeroAmountCount = previousCycleInfo != null ? previousCycleInfo.getCumulativeZeroAmountCount()
+                : this.rewardCycleStore.getBaseZeroAmountCount();
+        cycleInfo.setCumulativeZeroAmountCount(cycleInfo.getDepositAmount() == 0 ? zeroAmountCount + 1 : zeroAmountCount);
+    }
+
+    /**
+     * Re-accumulate the prices and zero amount counts from the specified record to the end of the queue
+     *
+     * @param index the number in the reward cycle information queue
+     */
+    private void accumulatePrice(int index) {
+        RewardCycleInfo previousCycleInfo = index > 0 ? this.rewardCycleStore.get(index - 1) : null;
+        for (int i = index; i < this.rewardCycleStore.size(); i++) {
+            RewardCycleInfo cycleInfo = this.rewardCycleStore.get(i);
+            this.accumulatePrice(cycleInfo, previousCycleInfo);
+            previousCycleInfo = cycleInfo;
+        }
+    }
+
+    /**
+     * Count the mining detail as a reference of the record of the reward cycle before its next mining cycle,
+     * the record its next rewards are calculated from
+     *
+     * @param slot mortgage slot of the mining detail
+     */
+    private void addCycleReference(int slot) {
+        int cycle = depositStore.getNextStartMiningCycle(slot) - 1;
+        if (this.rewardCycleStore.containsCycle(cycle)) {
+            this.rewardCycleStore.addReference(cycle);
         }
-        return this.initialPrice.divide(round, decimals, BigDecimal.ROUND_DOWN);
+    }
+
+    /**
+     * Stop counting the mining detail as a reference of the record its next rewards are calculated from
+     *
+     * @param slot mortgage slot of the mining detail
+     */
+    private void removeCycleReference(int slot) {
+        int cycle = depositStore.getNextStartMiningCycle(slot) - 1;
+        if (this.rewardCycleStore.containsCycle(cycle)) {
+            this.rewardCycleStore.removeReference(cycle);
+        }
+    }
 
+    /**
+     * Remove the records that no mining detail can read any more. The rewards of a mining detail run from the latest
+     * record of the reward cycle before its next mining cycle to the end of the queue, and later records are only
+     * added or updated for the current reward cycle and the following ones, found by their reward cycles. So the
+     * leading records are removed while they are not the record of a referenced reward cycle and their reward cycle
+     * is before the current one; the latest record is always kept, the next ones are added after it.
+     *
+     * @param currentCycle the current reward cycle
+     */
+    private void compactRewardCycles(int currentCycle) {
+        //The reward cycles of the reward halving heights not reached yet are looked up too
+        int limitCycle = currentCycle;
+        if (this.rewardHalvingCycle > 0) {
+            limitCycle = Math.min(limitCycle, this.calcRewardCycle(this.nextRewardHalvingHeight));
+        }
+        int limit = this.rewardCycleStore.size() - 1;
+        int count = 0;
+        while (count < limit && this.rewardCycleStore.get(count).getRewardingCylce() < limitCycle
+                && !this.rewardCycleStore.isReferenced(count)) {
+            count++;
+        }
+        this.rewardCycleStore.removeFirst(count);
+    }
+
+    /**
+     * Calculate the reward period for the current height
+     *
+     * @param currentHeight current height
+     * @return
+     */
+    public int calcRewardCycle(long currentHeight) {
+        return (int) ((currentHeight - this.createHeight) / this.awardingCycle);
     }
 
 }
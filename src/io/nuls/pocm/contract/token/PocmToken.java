@@ -1,5 +1,6 @@
 package io.nuls.pocm.contract.token;
 
+import io.nuls.pocm.contract.model.AddressRegistry;
 import io.nuls.pocm.contract.ownership.Ownable;
 import io.nuls.contract.sdk.Address;
 import io.nuls.contract.sdk.Msg;
@@ -15,6 +16,9 @@ import static io.nuls.contract.sdk.Utils.require;
 import static io.nuls.pocm.contract.util.PocmUtil.*;
 
 /**
+ * The balances and allowances are keyed by the ids of an {@link AddressRegistry}; an address keeps its id while it
+ * has a non-zero balance or allowance, and the addresses are converted to ids only at the interface.
+ *
  * @author: Long
  * @date: 2019-03-15
  */
@@ -25,8 +29,17 @@ public class PocmToken extends Ownable implements Token {
     private final int decimals;
     private BigInteger totalSupply;
 
-    private Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
-    private Map<Address, Map<Address, BigInteger>> allowed = new HashMap<Address, Map<Address, BigInteger>>();
+    private final AddressRegistry addressRegistry = new AddressRegistry();
+
+    /**
+     * Balance of each address id, null for a zero balance
+     */
+    private BigInteger[] balances = new BigInteger[16];
+
+    /**
+     * Non-zero allowances by owner id and spender id, see {@link #allowanceKey}
+     */
+    private Map<Long, BigInteger> allowed = new HashMap<Long, BigInteger>();
 
     @Override
     @View
@@ -74,22 +87,15 @@ public class PocmToken extends Ownable implements Token {
     @Override
     @View
     public BigInteger allowance(@Required Address owner, @Required Address spender) {
-        Map<Address, BigInteger> ownerAllowed = allowed.get(owner);
-        if (ownerAllowed == null) {
-            return BigInteger.ZERO;
-        }
-        BigInteger value = ownerAllowed.get(spender);
-        if (value == null) {
-            value = BigInteger.ZERO;
-        }
-        return value;
+        return allowance(addressRegistry.idOf(owner.toString()), addressRegistry.idOf(spender.toString()));
     }
 
     @Override
     public boolean transferFrom(@Required Address from, @Required Address to, @Required BigInteger value) {
-        subtractAllowed(from, Msg.sender(), value);
-        subtractBalance(from, value);
-        addBalance(to, value);
+        String fromAddress = from.toString();
+        subtractAllowed(fromAddress, Msg.sender().toString(), value);
+        subtractBalance(fromAddress, value);
+        addBalance(to.toString(), value);
         emit(new TransferEvent(from, to, value));
         return true;
     }
@@ -98,80 +104,184 @@ public class PocmToken extends Ownable implements Token {
     @View
     public BigInteger balanceOf(@Required Address owner) {
         require(owner != null);
-        BigInteger balance = balances.get(owner);
-        if (balance == null) {
-            balance = BigInteger.ZERO;
-        }
-        return balance;
+        return balanceOf(addressRegistry.idOf(owner.toString()));
     }
 
     @Override
     public boolean transfer(@Required Address to, @Required BigInteger value) {
-        subtractBalance(Msg.sender(), value);
-        addBalance(to, value);
+        subtractBalance(Msg.sender().toString(), value);
+        addBalance(to.toString(), value);
         emit(new TransferEvent(Msg.sender(), to, value));
         return true;
     }
 
     @Override
     public boolean approve(@Required Address spender, @Required BigInteger value) {
-        setAllowed(Msg.sender(), spender, value);
+        String owner = Msg.sender().toString();
+        String spenderAddress = spender.toString();
+        setAllowed(addressRegistry.idOf(owner), owner, addressRegistry.idOf(spenderAddress), spenderAddress, value);
         emit(new ApprovalEvent(Msg.sender(), spender, value));
         return true;
     }
 
     public boolean increaseApproval(@Required Address spender, @Required BigInteger addedValue) {
-        addAllowed(Msg.sender(), spender, addedValue);
-        emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
+        String owner = Msg.sender().toString();
+        String spenderAddress = spender.toString();
+        int ownerId = addressRegistry.idOf(owner);
+        int spenderId = addressRegistry.idOf(spenderAddress);
+        BigInteger allowance = allowance(ownerId, spenderId);
+        check(allowance);
+        check(addedValue);
+        allowance = allowance.add(addedValue);
+        setAllowed(ownerId, owner, spenderId, spenderAddress, allowance);
+        emit(new ApprovalEvent(Msg.sender(), spender, allowance));
         return true;
     }
 
     public boolean decreaseApproval(@Required Address spender, @Required BigInteger subtractedValue) {
         check(subtractedValue);
-        BigInteger oldValue = allowance(Msg.sender(), spender);
-        if (subtractedValue.compareTo(oldValue) > 0) {
-            setAllowed(Msg.sender(), spender, BigInteger.ZERO);
+        String owner = Msg.sender().toString();
+        String spenderAddress = spender.toString();
+        int ownerId = addressRegistry.idOf(owner);
+        int spenderId = addressRegistry.idOf(spenderAddress);
+        BigInteger allowance = allowance(ownerId, spenderId);
+        if (subtractedValue.compareTo(allowance) > 0) {
+            allowance = BigInteger.ZERO;
         } else {
-            subtractAllowed(Msg.sender(), spender, subtractedValue);
+            allowance = allowance.subtract(subtractedValue);
         }
-        emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
+        setAllowed(ownerId, owner, spenderId, spenderAddress, allowance);
+        emit(new ApprovalEvent(Msg.sender(), spender, allowance));
         return true;
     }
 
-    private void addAllowed(Address address1, Address address2, BigInteger value) {
-        BigInteger allowance = allowance(address1, address2);
-        check(allowance);
-        check(value);
-        setAllowed(address1, address2, allowance.add(value));
+    private BigInteger allowance(int ownerId, int spenderId) {
+        if (ownerId == AddressRegistry.NONE || spenderId == AddressRegistry.NONE) {
+            return BigInteger.ZERO;
+        }
+        BigInteger value = allowed.get(allowanceKey(ownerId, spenderId));
+        if (value == null) {
+            value = BigInteger.ZERO;
+        }
+        return value;
     }
 
-    private void subtractAllowed(Address address1, Address address2, BigInteger value) {
-        BigInteger allowance = allowance(address1, address2);
+    private void subtractAllowed(String owner, String spender, BigInteger value) {
+        int ownerId = addressRegistry.idOf(owner);
+        int spenderId = addressRegistry.idOf(spender);
+        BigInteger allowance = allowance(ownerId, spenderId);
         check(allowance, value, "Insufficient approved token");
-        setAllowed(address1, address2, allowance.subtract(value));
+        setAllowed(ownerId, owner, spenderId, spender, allowance.subtract(value));
     }
 
-    private void setAllowed(Address address1, Address address2, BigInteger value) {
+    /**
+     * Set an allowance, retaining the ids of the two addresses with a non-zero allowance and releasing them with a zero one
+     *
+     * @param ownerId   id of the owner, -1 if it has none
+     * @param owner     the owner
+     * @param spenderId id of the spender, -1 if it has none
+     * @param spender   the spender
+     * @param value     new allowance
+     */
+    private void setAllowed(int ownerId, String owner, int spenderId, String spender, BigInteger value) {
         check(value);
-        Map<Address, BigInteger> address1Allowed = allowed.get(address1);
-        if (address1Allowed == null) {
-            address1Allowed = new HashMap<Address, BigInteger>();
-            allowed.put(address1, address1Allowed);
+        BigInteger oldValue = null;
+        if (ownerId != AddressRegistry.NONE && spenderId != AddressRegistry.NONE) {
+            oldValue = allowed.get(allowanceKey(ownerId, spenderId));
+        }
+        if (value.signum() == 0) {
+            if (oldValue != null) {
+                allowed.remove(allowanceKey(ownerId, spenderId));
+                addressRegistry.release(ownerId);
+                addressRegistry.release(spenderId);
+            }
+            return;
+        }
+        if (oldValue == null) {
+            ownerId = retain(ownerId, owner);
+            spenderId = retain(spenderId, spender);
         }
-        address1Allowed.put(address2, value);
+        allowed.put(allowanceKey(ownerId, spenderId), value);
+    }
+
+    private static Long allowanceKey(int ownerId, int spenderId) {
+        return Long.valueOf(((long) ownerId << 32) | spenderId);
     }
 
     protected void addBalance(Address address, BigInteger value) {
-        BigInteger balance = balanceOf(address);
+        addBalance(address.toString(), value);
+    }
+
+    protected void addBalance(String address, BigInteger value) {
+        check(value, "The value must be greater than or equal to 0.");
+        int addressId = addressRegistry.idOf(address);
+        setBalance(addressId, address, balanceOf(addressId).add(value));
+    }
+
+    /**
+     * Add to the balance of an address by its id, for the ledgers sharing the address registry
+     *
+     * @param addressId id of the address, in use in the address registry
+     * @param value     amount added
+     */
+    protected void addBalance(int addressId, BigInteger value) {
         check(value, "The value must be greater than or equal to 0.");
-        check(balance);
-        balances.put(address, balance.add(value));
+        setBalance(addressId, null, balanceOf(addressId).add(value));
     }
 
-    private void subtractBalance(Address address, BigInteger value) {
-        BigInteger balance = balanceOf(address);
+    private void subtractBalance(String address, BigInteger value) {
+        int addressId = addressRegistry.idOf(address);
+        BigInteger balance = balanceOf(addressId);
         check(balance, value, "Insufficient balance of token.");
-        balances.put(address, balance.subtract(value));
+        setBalance(addressId, address, balance.subtract(value));
+    }
+
+    private BigInteger balanceOf(int addressId) {
+        if (addressId == AddressRegistry.NONE || addressId >= balances.length || balances[addressId] == null) {
+            return BigInteger.ZERO;
+        }
+        return balances[addressId];
+    }
+
+    /**
+     * Set the balance of an address, retaining its id with a non-zero balance and releasing it with a zero one
+     *
+     * @param addressId id of the address, -1 if it has none
+     * @param address   the address, only needed when it has no id
+     * @param balance   new balance
+     */
+    private void setBalance(int addressId, String address, BigInteger balance) {
+        boolean held = addressId != AddressRegistry.NONE && addressId < balances.length && balances[addressId] != null;
+        if (balance.signum() == 0) {
+            if (held) {
+                balances[addressId] = null;
+                addressRegistry.release(addressId);
+            }
+            return;
+        }
+        if (!held) {
+            addressId = retain(addressId, address);
+            if (addressId >= balances.length) {
+                int newCapacity = Math.max(balances.length + (balances.length >> 1), addressRegistry.getAddressCount());
+                BigInteger[] newBalances = new BigInteger[newCapacity];
+                System.arraycopy(balances, 0, newBalances, 0, balances.length);
+                balances = newBalances;
+            }
+        }
+        balances[addressId] = balance;
+    }
+
+    /**
+     * Add a reference to an address, by its id if it has one
+     *
+     * @return the id of the address
+     */
+    private int retain(int addressId, String address) {
+        if (addressId == AddressRegistry.NONE) {
+            return addressRegistry.retain(address);
+        }
+        addressRegistry.retain(addressId);
+        return addressId;
     }
 
     private void check(BigInteger value) {
@@ -194,6 +304,15 @@ public class PocmToken extends Ownable implements Token {
         require(value1.compareTo(value2) >= 0, msg);
     }
 
+    /**
+     * The address registry of the Token ledger, for the other ledgers of the contract to share
+     *
+     * @return
+     */
+    protected AddressRegistry getAddressRegistry() {
+        return addressRegistry;
+    }
+
     protected BigInteger getTotalSupply() {
         return totalSupply;
     }
@@ -0,0 +1,214 @@
+package io.nuls.pocm.contract.util;
+
+/**
+ * Writes the string form of the models, {@code {name:value,...}} for objects and {@code [value,...]} for lists,
+ * into one growable buffer in a single pass
+ * <p>
+ * The separators are added by the writer, so a model only writes its fields and the nested models write themselves
+ * into the same buffer. With a maximum length, the entries that start after the buffer has reached it are left out:
+ * the container gets the truncation marker in place of them and is still closed, so the output stays well formed.
+ *
+ * @author: Long
+ * @date: 2019-06-14
+ */
+public class ModelWriter {
+
+    /**
+     * Written in place of the entries left out of a container
+     */
+    public static final String TRUNCATION_MARKER = "...";
+
+    private final StringBuilder builder;
+
+    /**
+     * Length after which no more entries are started, 0 for no limit
+     */
+    private final int maxLength;
+
+    /**
+     * Whether the container at each depth has an entry already
+     */
+    private boolean[] hasEntry = new boolean[8];
+
+    /**
+     * Number of open containers
+     */
+    private int depth = 0;
+
+    /**
+     * Whether a field name was written and its value is expected
+     */
+    private boolean valuePending = false;
+
+    /**
+     * Depth of the truncated container whose remaining entries are left out, -1 if none
+     */
+    private int truncatedDepth = -1;
+
+    private boolean truncated = false;
+
+    public ModelWriter() {
+        this(0);
+    }
+
+    /**
+     * @param maxLength length after which no more entries are started, 0 for no limit
+     */
+    public ModelWriter(int maxLength) {
+        this.builder = new StringBuilder();
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Start an object, as an entry of the current container or as the value of the field just named
+     *
+     * @return
+     */
+    public ModelWriter beginObject() {
+        return begin('{');
+    }
+
+    public ModelWriter endObject() {
+        return end('}');
+    }
+
+    /**
+     * Start a list, as an entry of the current container or as the value of the field just named
+     *
+     * @return
+     */
+    public ModelWriter beginList() {
+        return begin('[');
+    }
+
+    public ModelWriter endList() {
+        return end(']');
+    }
+
+    /**
+     * Write the name of a field whose value is an object or a list written next
+     *
+     * @param name field name
+     * @return
+     */
+    public ModelWriter name(String name) {
+        if (startEntry()) {
+            builder.append(name).append(':');
+            valuePending = true;
+        }
+        return this;
+    }
+
+    public ModelWriter field(String name, String value) {
+        if (startEntry()) {
+            builder.append(name).append(':').append(value);
+        }
+        return this;
+    }
+
+    public ModelWriter field(String name, Object value) {
+        if (startEntry()) {
+            builder.append(name).append(':').append(value);
+        }
+        return this;
+    }
+
+    public ModelWriter field(String name, long value) {
+        if (startEntry()) {
+            builder.append(name).append(':').append(value);
+        }
+        return this;
+    }
+
+    public ModelWriter field(String name, boolean value) {
+        if (startEntry()) {
+            builder.append(name).append(':').append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Write a value as an entry of the current list
+     *
+     * @param value value
+     * @return
+     */
+    public ModelWriter value(Object value) {
+        if (startEntry()) {
+            builder.append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Whether entries were left out because of the maximum length
+     *
+     * @return
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+
+    private ModelWriter begin(char open) {
+        boolean written = startEntry();
+        depth++;
+        if (depth == hasEntry.length) {
+            boolean[] newHasEntry = new boolean[hasEntry.length * 2];
+            System.arraycopy(hasEntry, 0, newHasEntry, 0, hasEntry.length);
+            hasEntry = newHasEntry;
+        }
+        hasEntry[depth] = false;
+        if (written) {
+            builder.append(open);
+        }
+        return this;
+    }
+
+    private ModelWriter end(char close) {
+        if (truncatedDepth < 0 || depth <= truncatedDepth) {
+            builder.append(close);
+        }
+        if (depth == truncatedDepth) {
+            truncatedDepth = -1;
+        }
+        depth--;
+        return this;
+    }
+
+    /**
+     * Write the separator before an entry of the current container, or leave the entry out
+     *
+     * @return false if the entry is left out
+     */
+    private boolean startEntry() {
+        if (truncatedDepth >= 0 && depth >= truncatedDepth) {
+            return false;
+        }
+        if (valuePending) {
+            valuePending = false;
+            return true;
+        }
+        if (depth > 0 && maxLength > 0 && builder.length() >= maxLength) {
+            if (hasEntry[depth]) {
+                builder.append(',');
+            }
+            builder.append(TRUNCATION_MARKER);
+            truncatedDepth = depth;
+            truncated = true;
+            return false;
+        }
+        if (depth > 0) {
+            if (hasEntry[depth]) {
+                builder.append(',');
+            }
+            hasEntry[depth] = true;
+        }
+        return true;
+    }
+
+}
@@ -5,6 +5,8 @@ import io.nuls.contract.sdk.Address;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import static io.nuls.contract.sdk.Utils.require;
+
 /**
  * Tool
  *
@@ -13,16 +15,82 @@ import java.math.BigInteger;
  */
 public class PocmUtil {
 
-    public static final BigDecimal HLAVING = new BigDecimal("2");
+    /**
+     * Number of Na in one NULS
+     */
+    public static final BigInteger ONE_NULS = BigInteger.valueOf(100000000L);
+
+    /**
+     * Maximum number of records returned by one page of a paged view
+     */
+    public static final int MAXIMUM_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of mortgages made by one batch deposit
+     */
+    public static final int MAXIMUM_BATCH_SIZE = 100;
+
+    /**
+     * Maximum number of mortgage addresses settled by one call
+     */
+    public static final int MAXIMUM_SETTLEMENT_BATCH_SIZE = 1000;
+
+    /**
+     * Length after which an unpaged view leaves out the remaining records and ends them with the truncation marker
+     */
+    public static final int MAXIMUM_VIEW_LENGTH = 65536;
 
     public static BigDecimal toNuls(BigInteger na) {
         return new BigDecimal(na).movePointLeft(8);
     }
 
+    public static BigDecimal toNuls(long na) {
+        return BigDecimal.valueOf(na, 8);
+    }
+
     public static BigInteger toNa(BigDecimal nuls) {
         return nuls.scaleByPowerOfTen(8).toBigInteger();
     }
 
+    /**
+     * Convert an amount of Na to a long; all the NULS ever issued fit in one, so a larger amount is refused
+     *
+     * @param na amount of Na
+     * @return
+     */
+    public static long toLongNa(BigInteger na) {
+        require(na.bitLength() < 64, "The amount of mortgage is too large");
+        return na.longValue();
+    }
+
+    /**
+     * Add two amounts of Na, failing instead of wrapping around on overflow
+     *
+     * @param na1 amount of Na
+     * @param na2 amount of Na
+     * @return
+     */
+    public static long addNa(long na1, long na2) {
+        long sum = na1 + na2;
+        //Overflow only if both operands have the sign opposite to the sum
+        require(((na1 ^ sum) & (na2 ^ sum)) >= 0, "The amount of mortgage overflows");
+        return sum;
+    }
+
+    /**
+     * Subtract an amount of Na from another, failing instead of wrapping around on overflow
+     *
+     * @param na1 amount of Na
+     * @param na2 amount of Na subtracted
+     * @return
+     */
+    public static long subtractNa(long na1, long na2) {
+        long difference = na1 - na2;
+        //Overflow only if the operands have different signs and the difference has the sign of the subtracted one
+        require(((na1 ^ na2) & (na1 ^ difference)) >= 0, "The amount of mortgage overflows");
+        return difference;
+    }
+
     /**
      * The precision of price should not exceed the precision of definition.
      *